@@ -2,10 +2,12 @@ package com.simcop.controller;
 
 import com.simcop.model.Alert;
 import com.simcop.repository.AlertRepository;
+import com.simcop.service.RetentionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @RestController
@@ -15,9 +17,16 @@ public class AlertController {
     @Autowired
     private AlertRepository repository;
 
+    @Autowired
+    private RetentionService retentionService;
+
     @GetMapping
-    public List<Alert> getAllAlerts() {
-        return repository.findAll();
+    public List<Alert> getAllAlerts(@RequestParam(defaultValue = "false") boolean includeArchived) {
+        List<Alert> alerts = new ArrayList<>(repository.findAll());
+        if (includeArchived) {
+            alerts.addAll(retentionService.getArchivedAlerts());
+        }
+        return alerts;
     }
 
     @PostMapping
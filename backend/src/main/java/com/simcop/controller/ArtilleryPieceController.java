@@ -1,11 +1,20 @@
 package com.simcop.controller;
 
 import com.simcop.model.ArtilleryPiece;
+import com.simcop.dto.ArtilleryCoverageDTO;
+import com.simcop.dto.CoverageHeatmapDTO;
+import com.simcop.model.AmmoExpenditure;
+import com.simcop.model.AmmoType;
 import com.simcop.repository.ArtilleryPieceRepository;
+import com.simcop.service.AmmunitionLedgerService;
+import com.simcop.service.ArtilleryCoverageService;
+import com.simcop.service.FireMissionMetricsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/artillery")
@@ -14,6 +23,15 @@ public class ArtilleryPieceController {
     @Autowired
     private ArtilleryPieceRepository repository;
 
+    @Autowired
+    private AmmunitionLedgerService ammunitionLedger;
+
+    @Autowired
+    private ArtilleryCoverageService coverageService;
+
+    @Autowired
+    private FireMissionMetricsService metricsService;
+
     @GetMapping
     public List<ArtilleryPiece> getAllPieces() {
         return repository.findAll();
@@ -21,19 +39,66 @@ public class ArtilleryPieceController {
 
     @PostMapping
     public ArtilleryPiece createPiece(@RequestBody ArtilleryPiece piece) {
-        return repository.save(piece);
+        ArtilleryPiece saved = repository.save(piece);
+        ammunitionLedger.invalidate(saved.getId());
+        coverageService.update(saved);
+        metricsService.updateArtilleryType(saved);
+        return saved;
     }
 
     @PutMapping("/{id}")
     public ArtilleryPiece updatePiece(@PathVariable String id, @RequestBody ArtilleryPiece piece) {
         return repository.findById(id).map(existing -> {
             piece.setId(id); // Ensure ID matches
-            return repository.save(piece);
+            ArtilleryPiece saved = repository.save(piece);
+            ammunitionLedger.invalidate(id); // Stock may have been edited
+            coverageService.update(saved);
+            metricsService.updateArtilleryType(saved);
+            return saved;
         }).orElseThrow(() -> new RuntimeException("Artillery Piece not found: " + id));
     }
 
     @DeleteMapping("/{id}")
     public void deletePiece(@PathVariable String id) {
         repository.deleteById(id);
+        ammunitionLedger.invalidate(id);
+        coverageService.remove(id);
+        metricsService.removeArtilleryType(id);
+    }
+
+    /**
+     * Pieces whose min/max range annulus contains the point.
+     */
+    @GetMapping("/coverage")
+    public List<ArtilleryCoverageDTO> getCoverage(@RequestParam double lat, @RequestParam double lon,
+            @RequestParam(defaultValue = "true") boolean onlyAvailable) {
+        return coverageService.findCovering(lat, lon, onlyAvailable);
+    }
+
+    @GetMapping("/coverage/heatmap")
+    public ResponseEntity<CoverageHeatmapDTO> getCoverageHeatmap(@RequestParam double minLat,
+            @RequestParam double minLon, @RequestParam double maxLat, @RequestParam double maxLon,
+            @RequestParam(defaultValue = "100") int resolution,
+            @RequestParam(defaultValue = "true") boolean onlyAvailable) {
+        try {
+            return ResponseEntity.ok(coverageService.heatmap(minLat, minLon, maxLat, maxLon, resolution,
+                    onlyAvailable));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Rounds on hand per ammo type; with unitId, only pieces of that unit and
+     * its subordinates (e.g. a whole brigade).
+     */
+    @GetMapping("/ammo-totals")
+    public Map<AmmoType, Long> getAmmoTotals(@RequestParam(required = false) String unitId) {
+        return ammunitionLedger.getTotals(unitId);
+    }
+
+    @GetMapping("/{id}/ammo-journal")
+    public List<AmmoExpenditure> getAmmoJournal(@PathVariable String id) {
+        return ammunitionLedger.getJournal(id);
     }
 }
@@ -1,11 +1,18 @@
 package com.simcop.controller;
 
+import com.simcop.dto.BMARecommendationCacheStatsDTO;
 import com.simcop.dto.BMARecommendationDTO;
+import com.simcop.dto.BatchRecommendationRequestDTO;
+import com.simcop.dto.BatchRecommendationResultDTO;
+import com.simcop.dto.BulkResupplyRequestDTO;
+import com.simcop.dto.BulkResupplyResultDTO;
 import com.simcop.dto.LogisticsPredictionDTO;
 import com.simcop.dto.HotspotDTO;
+import com.simcop.service.BMARecommendationCacheService;
 import com.simcop.service.BMAService;
 import com.simcop.service.DoctrinalService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -21,9 +28,27 @@ public class BMAController {
     @Autowired
     private DoctrinalService doctrinalService;
 
+    @Autowired
+    private BMARecommendationCacheService recommendationCache;
+
     @GetMapping("/recommendations/{threatId}")
     public List<BMARecommendationDTO> getRecommendations(@PathVariable String threatId) {
-        return bmaService.recommendResponse(threatId);
+        return recommendationCache.getRecommendations(threatId);
+    }
+
+    @PostMapping("/recommendations/batch")
+    public ResponseEntity<BatchRecommendationResultDTO> getBatchRecommendations(
+            @RequestBody BatchRecommendationRequestDTO request) {
+        try {
+            return ResponseEntity.ok(bmaService.recommendResponseBatch(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/recommendations/cache/stats")
+    public BMARecommendationCacheStatsDTO getRecommendationCacheStats() {
+        return recommendationCache.getStats();
     }
 
     @GetMapping("/logistics")
@@ -37,9 +62,12 @@ public class BMAController {
     }
 
     @GetMapping("/hotspots/historical")
-    public List<HotspotDTO> getHistoricalHotspots(@RequestParam(defaultValue = "48") int hours) {
-        long since = System.currentTimeMillis() - (hours * 60 * 60 * 1000L);
-        return bmaService.identifyHotspotsForPeriod(since);
+    public List<HotspotDTO> getHistoricalHotspots(@RequestParam(defaultValue = "48") int hours,
+            @RequestParam(required = false) Long until) {
+        // Window of the given hours ending at until (epoch ms), or now
+        long end = until != null ? until : System.currentTimeMillis();
+        long since = end - (hours * 60 * 60 * 1000L);
+        return bmaService.identifyHotspotsForPeriod(since, until != null ? until : Long.MAX_VALUE);
     }
 
     @GetMapping("/doctrine/checklist")
@@ -51,4 +79,9 @@ public class BMAController {
     public void requestResupply(@PathVariable String unitId) {
         bmaService.requestResupply(unitId);
     }
+
+    @PostMapping("/logistics/request-bulk")
+    public BulkResupplyResultDTO requestResupplyBulk(@RequestBody BulkResupplyRequestDTO request) {
+        return bmaService.requestResupplyBulk(request);
+    }
 }
@@ -2,6 +2,10 @@ package com.simcop.controller;
 
 import com.simcop.model.FireMission;
 import com.simcop.model.FireMissionStatus;
+import com.simcop.dto.FireMissionAssignmentPlanDTO;
+import com.simcop.dto.FireMissionEventPageDTO;
+import com.simcop.service.FireMissionEventService;
+import com.simcop.service.FireMissionAssignmentService;
 import com.simcop.service.FireMissionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -17,6 +21,12 @@ public class FireMissionController {
     @Autowired
     private FireMissionService service;
 
+    @Autowired
+    private FireMissionAssignmentService assignmentService;
+
+    @Autowired
+    private FireMissionEventService eventService;
+
     @GetMapping
     public List<FireMission> getAll() {
         return service.getAllMissions();
@@ -48,4 +58,22 @@ public class FireMissionController {
 
         return ResponseEntity.ok(service.assignArtillery(id, artilleryId));
     }
+
+    /**
+     * Matches all pending missions to artillery pieces. With apply=false the
+     * plan is only returned, so the FDC can review it first.
+     */
+    @PostMapping("/auto-assign")
+    public FireMissionAssignmentPlanDTO autoAssign(@RequestParam(defaultValue = "false") boolean apply) {
+        return assignmentService.autoAssign(apply);
+    }
+
+    /**
+     * Transitions after the given sequence, for clients resuming the
+     * /topic/fire-missions stream. complete=false means a full reload is needed.
+     */
+    @GetMapping("/events")
+    public FireMissionEventPageDTO getEvents(@RequestParam(defaultValue = "0") long since) {
+        return eventService.since(since);
+    }
 }
@@ -0,0 +1,27 @@
+package com.simcop.controller;
+
+import com.simcop.dto.FireMissionLatencyDTO;
+import com.simcop.service.FireMissionMetricsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Actuator endpoint (/actuator/firemissionlatency) with p50/p95/p99 per fire
+ * mission stage, artillery type and requester.
+ */
+@Component
+@Endpoint(id = "firemissionlatency")
+public class FireMissionLatencyEndpoint {
+
+    @Autowired
+    private FireMissionMetricsService metricsService;
+
+    @ReadOperation
+    public List<FireMissionLatencyDTO> latencies() {
+        return metricsService.getLatencies();
+    }
+}
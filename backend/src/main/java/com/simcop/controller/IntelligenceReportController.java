@@ -1,11 +1,24 @@
 package com.simcop.controller;
 
+import com.simcop.dto.IntelDuplicateClusterDTO;
+import com.simcop.dto.IntelHeatmapTileDTO;
+import com.simcop.dto.IntelImportResultDTO;
+import com.simcop.dto.IntelSearchResultDTO;
+import com.simcop.event.IntelReportsIngestedEvent;
 import com.simcop.model.IntelligenceReport;
 import com.simcop.repository.IntelligenceReportRepository;
+import com.simcop.service.IntelDedupService;
+import com.simcop.service.IntelHeatmapService;
+import com.simcop.service.IntelImportService;
+import com.simcop.service.IntelSearchService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 @RestController
@@ -18,9 +31,28 @@ public class IntelligenceReportController {
     @Autowired
     private com.simcop.service.VisibilityService visibilityService;
 
+    @Autowired
+    private com.simcop.service.RetentionService retentionService;
+
+    @Autowired
+    private IntelSearchService searchService;
+
+    @Autowired
+    private IntelImportService importService;
+
+    @Autowired
+    private IntelDedupService dedupService;
+
+    @Autowired
+    private IntelHeatmapService heatmapService;
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
     @GetMapping
     public List<IntelligenceReport> getAllReports(
-            @RequestHeader(value = "Authorization", required = false) String token) {
+            @RequestHeader(value = "Authorization", required = false) String token,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
         if (token == null)
             return List.of();
 
@@ -28,21 +60,101 @@ public class IntelligenceReportController {
         if (user == null)
             return List.of();
 
+        List<IntelligenceReport> reports = new ArrayList<>(repository.findAll());
+        if (includeArchived) {
+            reports.addAll(retentionService.getArchivedReports());
+        }
+
         // Admin/Army Commander see all
         if (user.getRole() == com.simcop.model.UserRole.ADMINISTRATOR ||
                 user.getRole() == com.simcop.model.UserRole.COMANDANTE_EJERCITO) {
-            return repository.findAll();
+            return reports;
         }
 
         // Others see only reports from units they can see
         List<com.simcop.model.MilitaryUnit> visibleUnits = visibilityService.getVisibleUnits(user);
         List<String> visibleUnitIds = visibleUnits.stream().map(u -> u.getId()).toList();
 
-        return repository.findAll().stream()
+        return reports.stream()
                 .filter(r -> r.getReportingUnitId() == null || visibleUnitIds.contains(r.getReportingUnitId()))
                 .toList();
     }
 
+    /**
+     * Full-text search (Spanish, accent-insensitive) ranked by relevance, with
+     * keyword facets. from/to filter the event time (epoch ms); the bounding
+     * box applies only when all four corners are given; keyword may repeat.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<IntelSearchResultDTO> search(
+            @RequestHeader(value = "Authorization", required = false) String token,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Long from, @RequestParam(required = false) Long to,
+            @RequestParam(required = false) Double minLat, @RequestParam(required = false) Double minLon,
+            @RequestParam(required = false) Double maxLat, @RequestParam(required = false) Double maxLon,
+            @RequestParam(required = false) List<String> keyword,
+            @RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "20") int size) {
+        com.simcop.model.User user = token != null ? visibilityService.getUserFromToken(token) : null;
+        if (user == null)
+            return ResponseEntity.status(401).build();
+
+        double[] bbox = minLat != null && minLon != null && maxLat != null && maxLon != null
+                ? new double[] { minLat, minLon, maxLat, maxLon }
+                : null;
+        try {
+            return ResponseEntity.ok(searchService.search(user, q, from, to, bbox, keyword, page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Near-duplicate clusters (reports flagged at ingest, grouped under their
+     * canonical report) whose duplicates' event time falls in from/to (epoch
+     * ms, default the last 72h).
+     */
+    @GetMapping("/duplicates")
+    public ResponseEntity<List<IntelDuplicateClusterDTO>> getDuplicateClusters(
+            @RequestHeader(value = "Authorization", required = false) String token,
+            @RequestParam(required = false) Long from, @RequestParam(required = false) Long to) {
+        com.simcop.model.User user = token != null ? visibilityService.getUserFromToken(token) : null;
+        if (user == null)
+            return ResponseEntity.status(401).build();
+
+        long until = to != null ? to : Long.MAX_VALUE;
+        long since = from != null ? from : System.currentTimeMillis() - 72 * 60 * 60 * 1000L;
+        return ResponseEntity.ok(dedupService.getClusters(user, since, until));
+    }
+
+    /**
+     * Report density of map tile z/x/y, one frame per hour or day bucket
+     * between from and to (epoch ms, default the last 24 hours or 30 days),
+     * for a time slider to scrub through without further requests. Like the
+     * live hotspots, the heatmap is intentionally not scoped to the caller's
+     * visible units: it exposes counts only, never report content, and every
+     * echelon needs the same picture of enemy activity.
+     */
+    @GetMapping("/heatmap/{z}/{x}/{y}")
+    public ResponseEntity<IntelHeatmapTileDTO> getHeatmapTile(
+            @RequestHeader(value = "Authorization", required = false) String token,
+            @PathVariable int z, @PathVariable int x, @PathVariable int y,
+            @RequestParam(defaultValue = "HOUR") String resolution,
+            @RequestParam(required = false) Long from, @RequestParam(required = false) Long to) {
+        com.simcop.model.User user = token != null ? visibilityService.getUserFromToken(token) : null;
+        if (user == null)
+            return ResponseEntity.status(401).build();
+
+        try {
+            IntelHeatmapService.Resolution bucket = IntelHeatmapService.Resolution.valueOf(resolution.toUpperCase());
+            long until = to != null ? to : System.currentTimeMillis();
+            long since = from != null ? from
+                    : until - (bucket == IntelHeatmapService.Resolution.HOUR ? 24 : 30) * bucket.getMillis();
+            return ResponseEntity.ok(heatmapService.getTile(z, x, y, bucket, since, until));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @PostMapping
     public ResponseEntity<IntelligenceReport> createReport(@RequestBody IntelligenceReport report,
             @RequestHeader(value = "Authorization", required = false) String token) {
@@ -63,6 +175,40 @@ public class IntelligenceReportController {
             // If user has no unit, we can't assign one.
         }
 
-        return ResponseEntity.ok(repository.save(report));
+        dedupService.assign(report);
+        IntelligenceReport saved = repository.save(report);
+        searchService.index(saved);
+        publisher.publishEvent(new IntelReportsIngestedEvent(List.of(saved)));
+        return ResponseEntity.ok(saved);
+    }
+
+    /**
+     * Bulk import of an NDJSON (one report per line) or CSV (header row with
+     * the report field names, keywords separated by ';') body, streamed in
+     * batches. format defaults from the Content-Type (text/csv or NDJSON).
+     */
+    @PostMapping("/import")
+    public ResponseEntity<IntelImportResultDTO> importReports(HttpServletRequest request,
+            @RequestHeader(value = "Authorization", required = false) String token,
+            @RequestParam(required = false) String format) throws IOException {
+        com.simcop.model.User user = token != null ? visibilityService.getUserFromToken(token) : null;
+        if (user == null)
+            return ResponseEntity.status(401).build();
+
+        IntelImportService.Format importFormat;
+        if (format != null) {
+            try {
+                importFormat = IntelImportService.Format.valueOf(format.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        } else {
+            String contentType = request.getContentType();
+            importFormat = contentType != null && contentType.startsWith("text/csv") ? IntelImportService.Format.CSV
+                    : IntelImportService.Format.NDJSON;
+        }
+        // Same unit rule as single report creation
+        return ResponseEntity.ok(importService.importReports(request.getInputStream(), importFormat,
+                user.getAssignedUnitId()));
     }
 }
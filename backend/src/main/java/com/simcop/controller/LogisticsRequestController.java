@@ -1,18 +1,25 @@
 package com.simcop.controller;
 
+import com.simcop.dto.LogisticsQueuePageDTO;
 import com.simcop.model.LogisticsRequest;
 import com.simcop.repository.LogisticsRequestRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/logistics")
 @CrossOrigin(origins = "*")
 public class LogisticsRequestController {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     @Autowired
     private LogisticsRequestRepository repository;
 
@@ -21,6 +28,58 @@ public class LogisticsRequestController {
         return repository.findAll();
     }
 
+    /**
+     * Oldest-first request queue. Pass the returned nextCursor to fetch the
+     * following page; the cursor is "<requestTimestamp>_<id>" of the last row.
+     */
+    @GetMapping("/queue")
+    public ResponseEntity<LogisticsQueuePageDTO> getQueue(@RequestParam(required = false) String status,
+            @RequestParam(required = false) String unitId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        long afterTimestamp = Long.MIN_VALUE;
+        String afterId = "";
+        if (cursor != null && !cursor.isEmpty()) {
+            int separator = cursor.indexOf('_');
+            if (separator <= 0)
+                return ResponseEntity.badRequest().build();
+            try {
+                afterTimestamp = Long.parseLong(cursor.substring(0, separator));
+            } catch (NumberFormatException e) {
+                return ResponseEntity.badRequest().build();
+            }
+            afterId = cursor.substring(separator + 1);
+        }
+
+        Pageable page = PageRequest.of(0, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        List<LogisticsRequest> items;
+        if (status != null && unitId != null) {
+            items = repository.findQueuePageByUnitAndStatus(unitId, status, afterTimestamp, afterId, page);
+        } else if (status != null) {
+            items = repository.findQueuePageByStatus(status, afterTimestamp, afterId, page);
+        } else if (unitId != null) {
+            items = repository.findQueuePageByUnit(unitId, afterTimestamp, afterId, page);
+        } else {
+            items = repository.findQueuePage(afterTimestamp, afterId, page);
+        }
+
+        String nextCursor = null;
+        if (items.size() == page.getPageSize()) {
+            LogisticsRequest last = items.get(items.size() - 1);
+            nextCursor = last.getRequestTimestamp() + "_" + last.getId();
+        }
+        return ResponseEntity.ok(new LogisticsQueuePageDTO(items, nextCursor));
+    }
+
+    @GetMapping("/summary")
+    public Map<String, Long> getStatusSummary() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Object[] row : repository.countByStatus()) {
+            counts.put(row[0] != null ? (String) row[0] : "sin_estado", (Long) row[1]);
+        }
+        return counts;
+    }
+
     @PostMapping
     public LogisticsRequest createRequest(@RequestBody LogisticsRequest request) {
         return repository.save(request);
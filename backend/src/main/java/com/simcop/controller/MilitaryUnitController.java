@@ -1,12 +1,21 @@
 package com.simcop.controller;
 
+import com.simcop.dto.UnitClusterDTO;
+import com.simcop.event.UnitChangedEvent;
 import com.simcop.model.MilitaryUnit;
+import com.simcop.model.UnitStatus;
+import com.simcop.model.embeddable.GeoLocation;
+import com.simcop.model.embeddable.RoutePoint;
 import com.simcop.repository.MilitaryUnitRepository;
+import com.simcop.service.RouteHistoryService;
+import com.simcop.service.UnitClusterService;
+import com.simcop.service.UnitHotFieldService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/units")
@@ -18,6 +27,15 @@ public class MilitaryUnitController {
     @Autowired
     private com.simcop.service.VisibilityService visibilityService;
 
+    @Autowired
+    private UnitHotFieldService hotFieldService;
+
+    @Autowired
+    private RouteHistoryService routeHistoryService;
+
+    @Autowired
+    private UnitClusterService clusterService;
+
     @GetMapping
     public List<MilitaryUnit> getAllUnits(@RequestHeader(value = "Authorization", required = false) String token) {
         if (token == null) {
@@ -32,19 +50,54 @@ public class MilitaryUnitController {
             return List.of();
         }
 
-        return visibilityService.getVisibleUnits(user);
+        return routeHistoryService.withRecentRoutes(visibilityService.getVisibleUnits(user));
+    }
+
+    /**
+     * Map overview: unit clusters with counts and status breakdown for the map
+     * zoom and bounding box. Clusters of at most expand units come back as
+     * individual units.
+     */
+    @GetMapping("/clusters")
+    public ResponseEntity<List<UnitClusterDTO>> getClusters(
+            @RequestHeader(value = "Authorization", required = false) String token, @RequestParam int zoom,
+            @RequestParam(defaultValue = "-85") double minLat, @RequestParam(defaultValue = "-180") double minLon,
+            @RequestParam(defaultValue = "85") double maxLat, @RequestParam(defaultValue = "180") double maxLon,
+            @RequestParam(defaultValue = "1") int expand) {
+        com.simcop.model.User user = token != null ? visibilityService.getUserFromToken(token) : null;
+        if (user == null) {
+            return ResponseEntity.status(401).build();
+        }
+        try {
+            return ResponseEntity.ok(clusterService.getClusters(user, zoom, minLat, minLon, maxLat, maxLon, expand));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<MilitaryUnit> getUnitById(@PathVariable String id) {
         return repository.findById(id)
-                .map(ResponseEntity::ok)
+                .map(unit -> ResponseEntity.ok(routeHistoryService.withRecentRoute(unit)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Route between from and to (epoch ms, oldest first). zoom simplifies the
+     * line for that map zoom level; without it every stored point is returned.
+     */
+    @GetMapping("/{id}/route")
+    public List<RoutePoint> getRoute(@PathVariable String id, @RequestParam(defaultValue = "0") long from,
+            @RequestParam(required = false) Long to, @RequestParam(required = false) Integer zoom) {
+        return routeHistoryService.getRoute(id, from, to != null ? to : Long.MAX_VALUE, zoom);
+    }
+
     @PostMapping
     public MilitaryUnit createUnit(@RequestBody MilitaryUnit unit) {
-        return repository.save(unit);
+        List<RoutePoint> route = unit.getRouteHistory();
+        MilitaryUnit saved = repository.save(unit);
+        routeHistoryService.append(saved.getId(), route);
+        return routeHistoryService.withRecentRoute(saved);
     }
 
     @PutMapping("/{id}")
@@ -82,21 +135,52 @@ public class MilitaryUnitController {
                     unit.setRetrainingStartDate(unitDetails.getRetrainingStartDate());
                     unit.setToe(unitDetails.getToe());
 
-                    // Fields for Route
-                    if (unitDetails.getRouteHistory() != null) {
-                        unit.getRouteHistory().clear();
-                        unit.getRouteHistory().addAll(unitDetails.getRouteHistory());
-                    }
+                    // Fields for Route: only points newer than the stored history are appended
+                    routeHistoryService.append(id, unitDetails.getRouteHistory());
 
-                    return ResponseEntity.ok(repository.save(unit));
+                    return ResponseEntity.ok(routeHistoryService.withRecentRoute(repository.save(unit)));
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // PATCH endpoints touch only the named columns; use PUT for the full aggregate
+
+    @PatchMapping("/{id}/location")
+    public ResponseEntity<UnitChangedEvent> patchLocation(@PathVariable String id, @RequestBody GeoLocation location) {
+        UnitChangedEvent change = hotFieldService.updateLocation(id, location.getLat(), location.getLon());
+        return change != null ? ResponseEntity.ok(change) : ResponseEntity.notFound().build();
+    }
+
+    @PatchMapping("/{id}/status")
+    public ResponseEntity<UnitChangedEvent> patchStatus(@PathVariable String id, @RequestBody Map<String, String> body) {
+        UnitStatus status;
+        try {
+            status = UnitStatus.valueOf(body.get("status"));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        UnitChangedEvent change = hotFieldService.updateStatus(id, status);
+        return change != null ? ResponseEntity.ok(change) : ResponseEntity.notFound().build();
+    }
+
+    @PatchMapping("/{id}/logistics")
+    public ResponseEntity<UnitChangedEvent> patchLogistics(@PathVariable String id,
+            @RequestBody Map<String, Double> body) {
+        Double fuelLevel = body.get("fuelLevel");
+        Double ammoLevel = body.get("ammoLevel");
+        Double daysOfSupply = body.get("daysOfSupply");
+        if (fuelLevel == null && ammoLevel == null && daysOfSupply == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        UnitChangedEvent change = hotFieldService.updateLogistics(id, fuelLevel, ammoLevel, daysOfSupply);
+        return change != null ? ResponseEntity.ok(change) : ResponseEntity.notFound().build();
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteUnit(@PathVariable String id) {
         if (repository.existsById(id)) {
             repository.deleteById(id);
+            routeHistoryService.deleteUnit(id);
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.notFound().build();
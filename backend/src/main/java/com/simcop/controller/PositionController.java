@@ -0,0 +1,39 @@
+package com.simcop.controller;
+
+import com.simcop.dto.PositionIngestResultDTO;
+import com.simcop.dto.PositionIngestStatsDTO;
+import com.simcop.dto.PositionReportDTO;
+import com.simcop.service.PositionIngestionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/positions")
+@CrossOrigin(origins = "*")
+public class PositionController {
+
+    @Autowired
+    private PositionIngestionService ingestionService;
+
+    /**
+     * Queues a batch of GPS fixes. Writes happen asynchronously; 202 when at
+     * least one report was queued, 503 when the queue was full for all of them.
+     */
+    @PostMapping
+    public ResponseEntity<PositionIngestResultDTO> ingest(@RequestBody List<PositionReportDTO> reports) {
+        PositionIngestResultDTO result = ingestionService.submit(reports);
+        if (result.getAccepted() == 0 && result.getRejected() > 0) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(result);
+        }
+        return ResponseEntity.accepted().body(result);
+    }
+
+    @GetMapping("/stats")
+    public PositionIngestStatsDTO getStats() {
+        return ingestionService.getStats();
+    }
+}
@@ -2,9 +2,11 @@ package com.simcop.controller;
 
 import com.simcop.model.UnitHistoryEvent;
 import com.simcop.repository.UnitHistoryEventRepository;
+import com.simcop.service.RetentionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @RestController
@@ -16,9 +18,16 @@ public class UnitHistoryEventController {
     @Autowired
     private UnitHistoryEventRepository repository;
 
+    @Autowired
+    private RetentionService retentionService;
+
     @GetMapping
-    public List<UnitHistoryEvent> getAllEvents() {
-        return repository.findAll();
+    public List<UnitHistoryEvent> getAllEvents(@RequestParam(defaultValue = "false") boolean includeArchived) {
+        List<UnitHistoryEvent> events = new ArrayList<>(repository.findAll());
+        if (includeArchived) {
+            events.addAll(retentionService.getArchivedHistory(null));
+        }
+        return events;
     }
 
     @PostMapping
@@ -27,7 +36,12 @@ public class UnitHistoryEventController {
     }
 
     @GetMapping("/unit/{unitId}")
-    public List<UnitHistoryEvent> getEventsByUnit(@PathVariable String unitId) {
-        return repository.findByUnitId(unitId);
+    public List<UnitHistoryEvent> getEventsByUnit(@PathVariable String unitId,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
+        List<UnitHistoryEvent> events = new ArrayList<>(repository.findByUnitId(unitId));
+        if (includeArchived) {
+            events.addAll(retentionService.getArchivedHistory(unitId));
+        }
+        return events;
     }
 }
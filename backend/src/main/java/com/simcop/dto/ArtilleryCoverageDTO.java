@@ -0,0 +1,54 @@
+package com.simcop.dto;
+
+import com.simcop.model.ArtilleryStatus;
+import com.simcop.model.ArtilleryType;
+
+public class ArtilleryCoverageDTO {
+    private String artilleryId;
+    private String name;
+    private ArtilleryType type;
+    private ArtilleryStatus status;
+    private double distanceMeters;
+    private double minRange;
+    private double maxRange;
+
+    public ArtilleryCoverageDTO(String artilleryId, String name, ArtilleryType type, ArtilleryStatus status,
+            double distanceMeters, double minRange, double maxRange) {
+        this.artilleryId = artilleryId;
+        this.name = name;
+        this.type = type;
+        this.status = status;
+        this.distanceMeters = distanceMeters;
+        this.minRange = minRange;
+        this.maxRange = maxRange;
+    }
+
+    // Getters
+    public String getArtilleryId() {
+        return artilleryId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ArtilleryType getType() {
+        return type;
+    }
+
+    public ArtilleryStatus getStatus() {
+        return status;
+    }
+
+    public double getDistanceMeters() {
+        return distanceMeters;
+    }
+
+    public double getMinRange() {
+        return minRange;
+    }
+
+    public double getMaxRange() {
+        return maxRange;
+    }
+}
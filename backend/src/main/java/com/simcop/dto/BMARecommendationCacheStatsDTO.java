@@ -0,0 +1,57 @@
+package com.simcop.dto;
+
+public class BMARecommendationCacheStatsDTO {
+    private long hits;
+    private long misses;
+    private double hitRate;
+    private long invalidations;
+    private long refreshes;
+    private int entries;
+    private double stalenessP95Millis; // Age of the recommendations served from the cache
+    private double stalenessMaxMillis;
+
+    public BMARecommendationCacheStatsDTO(long hits, long misses, long invalidations, long refreshes, int entries,
+            double stalenessP95Millis, double stalenessMaxMillis) {
+        this.hits = hits;
+        this.misses = misses;
+        this.hitRate = hits + misses > 0 ? (double) hits / (hits + misses) : 0;
+        this.invalidations = invalidations;
+        this.refreshes = refreshes;
+        this.entries = entries;
+        this.stalenessP95Millis = stalenessP95Millis;
+        this.stalenessMaxMillis = stalenessMaxMillis;
+    }
+
+    // Getters
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public double getHitRate() {
+        return hitRate;
+    }
+
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    public long getRefreshes() {
+        return refreshes;
+    }
+
+    public int getEntries() {
+        return entries;
+    }
+
+    public double getStalenessP95Millis() {
+        return stalenessP95Millis;
+    }
+
+    public double getStalenessMaxMillis() {
+        return stalenessMaxMillis;
+    }
+}
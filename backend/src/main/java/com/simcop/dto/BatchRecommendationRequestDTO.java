@@ -0,0 +1,28 @@
+package com.simcop.dto;
+
+import java.util.List;
+
+public class BatchRecommendationRequestDTO {
+    private List<String> threatIds;
+    private boolean resolveConflicts; // Give each threat a different top-ranked unit
+
+    public BatchRecommendationRequestDTO() {
+    }
+
+    // Getters and Setters
+    public List<String> getThreatIds() {
+        return threatIds;
+    }
+
+    public void setThreatIds(List<String> threatIds) {
+        this.threatIds = threatIds;
+    }
+
+    public boolean isResolveConflicts() {
+        return resolveConflicts;
+    }
+
+    public void setResolveConflicts(boolean resolveConflicts) {
+        this.resolveConflicts = resolveConflicts;
+    }
+}
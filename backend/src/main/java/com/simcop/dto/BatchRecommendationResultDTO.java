@@ -0,0 +1,83 @@
+package com.simcop.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchRecommendationResultDTO {
+
+    public static class ThreatRecommendations {
+        private String threatId;
+        private String threatTitle;
+        private String assignedUnitId; // Top-ranked unit after conflict resolution, if requested
+        private List<BMARecommendationDTO> recommendations;
+
+        public ThreatRecommendations() {
+        }
+
+        public ThreatRecommendations(String threatId, String threatTitle, String assignedUnitId,
+                List<BMARecommendationDTO> recommendations) {
+            this.threatId = threatId;
+            this.threatTitle = threatTitle;
+            this.assignedUnitId = assignedUnitId;
+            this.recommendations = recommendations;
+        }
+
+        public String getThreatId() {
+            return threatId;
+        }
+
+        public String getThreatTitle() {
+            return threatTitle;
+        }
+
+        public String getAssignedUnitId() {
+            return assignedUnitId;
+        }
+
+        public List<BMARecommendationDTO> getRecommendations() {
+            return recommendations;
+        }
+    }
+
+    private List<ThreatRecommendations> threats = new ArrayList<>();
+    private List<String> skippedThreatIds = new ArrayList<>(); // Unknown or without location
+    private boolean conflictsResolved;
+    private int unitsScored;
+    private long elapsedMillis;
+
+    public BatchRecommendationResultDTO() {
+    }
+
+    // Getters and Setters
+    public List<ThreatRecommendations> getThreats() {
+        return threats;
+    }
+
+    public List<String> getSkippedThreatIds() {
+        return skippedThreatIds;
+    }
+
+    public boolean isConflictsResolved() {
+        return conflictsResolved;
+    }
+
+    public void setConflictsResolved(boolean conflictsResolved) {
+        this.conflictsResolved = conflictsResolved;
+    }
+
+    public int getUnitsScored() {
+        return unitsScored;
+    }
+
+    public void setUnitsScored(int unitsScored) {
+        this.unitsScored = unitsScored;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+}
@@ -0,0 +1,28 @@
+package com.simcop.dto;
+
+import java.util.List;
+
+public class BulkResupplyRequestDTO {
+    private List<String> unitIds; // Explicit units, or...
+    private String status; // ...every unit forecast at this level (BAJO / CRÍTICO)
+
+    public BulkResupplyRequestDTO() {
+    }
+
+    // Getters and Setters
+    public List<String> getUnitIds() {
+        return unitIds;
+    }
+
+    public void setUnitIds(List<String> unitIds) {
+        this.unitIds = unitIds;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+}
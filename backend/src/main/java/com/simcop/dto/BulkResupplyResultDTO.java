@@ -0,0 +1,80 @@
+package com.simcop.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkResupplyResultDTO {
+
+    public static final String CREATED = "CREADA";
+    public static final String ALREADY_PENDING = "YA_PENDIENTE";
+    public static final String NOT_FOUND = "NO_ENCONTRADA";
+
+    public static class UnitOutcome {
+        private String unitId;
+        private String unitName;
+        private String outcome;
+        private String requestId;
+        private String supportUnitName;
+
+        public UnitOutcome() {
+        }
+
+        public UnitOutcome(String unitId, String unitName, String outcome, String requestId,
+                String supportUnitName) {
+            this.unitId = unitId;
+            this.unitName = unitName;
+            this.outcome = outcome;
+            this.requestId = requestId;
+            this.supportUnitName = supportUnitName;
+        }
+
+        public String getUnitId() {
+            return unitId;
+        }
+
+        public String getUnitName() {
+            return unitName;
+        }
+
+        public String getOutcome() {
+            return outcome;
+        }
+
+        public String getRequestId() {
+            return requestId;
+        }
+
+        public String getSupportUnitName() {
+            return supportUnitName;
+        }
+    }
+
+    private int created;
+    private int skipped;
+    private List<UnitOutcome> outcomes = new ArrayList<>();
+
+    public BulkResupplyResultDTO() {
+    }
+
+    public void addOutcome(UnitOutcome outcome) {
+        outcomes.add(outcome);
+        if (CREATED.equals(outcome.getOutcome())) {
+            created++;
+        } else {
+            skipped++;
+        }
+    }
+
+    // Getters
+    public int getCreated() {
+        return created;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+
+    public List<UnitOutcome> getOutcomes() {
+        return outcomes;
+    }
+}
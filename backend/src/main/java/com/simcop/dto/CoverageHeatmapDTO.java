@@ -0,0 +1,56 @@
+package com.simcop.dto;
+
+/**
+ * Row-major grid of how many pieces cover each cell center. Row 0 is the
+ * southern edge (minLat), column 0 the western edge (minLon).
+ */
+public class CoverageHeatmapDTO {
+    private double minLat;
+    private double minLon;
+    private double cellSizeDeg;
+    private int rows;
+    private int cols;
+    private int[] counts;
+    private int maxCount;
+
+    public CoverageHeatmapDTO(double minLat, double minLon, double cellSizeDeg, int rows, int cols, int[] counts) {
+        this.minLat = minLat;
+        this.minLon = minLon;
+        this.cellSizeDeg = cellSizeDeg;
+        this.rows = rows;
+        this.cols = cols;
+        this.counts = counts;
+        for (int c : counts) {
+            maxCount = Math.max(maxCount, c);
+        }
+    }
+
+    // Getters
+    public double getMinLat() {
+        return minLat;
+    }
+
+    public double getMinLon() {
+        return minLon;
+    }
+
+    public double getCellSizeDeg() {
+        return cellSizeDeg;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int[] getCounts() {
+        return counts;
+    }
+
+    public int getMaxCount() {
+        return maxCount;
+    }
+}
@@ -0,0 +1,80 @@
+package com.simcop.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class FireMissionAssignmentPlanDTO {
+
+    public static class Assignment {
+        private String missionId;
+        private String artilleryId;
+        private String artilleryName;
+        private double distanceMeters;
+        private int queuePosition; // Missions already queued on the piece ahead of this one
+
+        public Assignment() {
+        }
+
+        public Assignment(String missionId, String artilleryId, String artilleryName, double distanceMeters,
+                int queuePosition) {
+            this.missionId = missionId;
+            this.artilleryId = artilleryId;
+            this.artilleryName = artilleryName;
+            this.distanceMeters = distanceMeters;
+            this.queuePosition = queuePosition;
+        }
+
+        public String getMissionId() {
+            return missionId;
+        }
+
+        public String getArtilleryId() {
+            return artilleryId;
+        }
+
+        public String getArtilleryName() {
+            return artilleryName;
+        }
+
+        public double getDistanceMeters() {
+            return distanceMeters;
+        }
+
+        public int getQueuePosition() {
+            return queuePosition;
+        }
+    }
+
+    private List<Assignment> assignments = new ArrayList<>();
+    private List<String> unassignedMissionIds = new ArrayList<>();
+    private boolean applied;
+    private long solveMillis;
+
+    public FireMissionAssignmentPlanDTO() {
+    }
+
+    // Getters and Setters
+    public List<Assignment> getAssignments() {
+        return assignments;
+    }
+
+    public List<String> getUnassignedMissionIds() {
+        return unassignedMissionIds;
+    }
+
+    public boolean isApplied() {
+        return applied;
+    }
+
+    public void setApplied(boolean applied) {
+        this.applied = applied;
+    }
+
+    public long getSolveMillis() {
+        return solveMillis;
+    }
+
+    public void setSolveMillis(long solveMillis) {
+        this.solveMillis = solveMillis;
+    }
+}
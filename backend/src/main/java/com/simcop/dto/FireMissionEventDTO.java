@@ -0,0 +1,61 @@
+package com.simcop.dto;
+
+import com.simcop.model.FireMission;
+import com.simcop.model.FireMissionStatus;
+
+public class FireMissionEventDTO {
+
+    public enum EventType {
+        CREATED,
+        ASSIGNED,
+        STATUS_CHANGED
+    }
+
+    private long sequence;
+    private EventType type;
+    private String missionId;
+    private FireMissionStatus previousStatus; // null for CREATED
+    private FireMissionStatus status;
+    private FireMission mission; // State after the transition
+    private long timestamp;
+
+    public FireMissionEventDTO(long sequence, EventType type, FireMissionStatus previousStatus, FireMission mission,
+            long timestamp) {
+        this.sequence = sequence;
+        this.type = type;
+        this.missionId = mission.getId();
+        this.previousStatus = previousStatus;
+        this.status = mission.getStatus();
+        this.mission = mission;
+        this.timestamp = timestamp;
+    }
+
+    // Getters
+    public long getSequence() {
+        return sequence;
+    }
+
+    public EventType getType() {
+        return type;
+    }
+
+    public String getMissionId() {
+        return missionId;
+    }
+
+    public FireMissionStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public FireMissionStatus getStatus() {
+        return status;
+    }
+
+    public FireMission getMission() {
+        return mission;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+}
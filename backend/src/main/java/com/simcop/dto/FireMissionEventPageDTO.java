@@ -0,0 +1,30 @@
+package com.simcop.dto;
+
+import java.util.List;
+
+public class FireMissionEventPageDTO {
+    private long latestSequence;
+    // False when events after the requested sequence were already evicted (or the
+    // server restarted): the client must reload the mission lists
+    private boolean complete;
+    private List<FireMissionEventDTO> events;
+
+    public FireMissionEventPageDTO(long latestSequence, boolean complete, List<FireMissionEventDTO> events) {
+        this.latestSequence = latestSequence;
+        this.complete = complete;
+        this.events = events;
+    }
+
+    // Getters
+    public long getLatestSequence() {
+        return latestSequence;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public List<FireMissionEventDTO> getEvents() {
+        return events;
+    }
+}
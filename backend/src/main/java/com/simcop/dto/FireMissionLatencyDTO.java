@@ -0,0 +1,63 @@
+package com.simcop.dto;
+
+public class FireMissionLatencyDTO {
+    private String stage;
+    private String artilleryType;
+    private String requester;
+    private long count;
+    private double meanMs;
+    private double maxMs;
+    private double p50Ms;
+    private double p95Ms;
+    private double p99Ms;
+
+    public FireMissionLatencyDTO(String stage, String artilleryType, String requester, long count, double meanMs,
+            double maxMs, double p50Ms, double p95Ms, double p99Ms) {
+        this.stage = stage;
+        this.artilleryType = artilleryType;
+        this.requester = requester;
+        this.count = count;
+        this.meanMs = meanMs;
+        this.maxMs = maxMs;
+        this.p50Ms = p50Ms;
+        this.p95Ms = p95Ms;
+        this.p99Ms = p99Ms;
+    }
+
+    // Getters
+    public String getStage() {
+        return stage;
+    }
+
+    public String getArtilleryType() {
+        return artilleryType;
+    }
+
+    public String getRequester() {
+        return requester;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMeanMs() {
+        return meanMs;
+    }
+
+    public double getMaxMs() {
+        return maxMs;
+    }
+
+    public double getP50Ms() {
+        return p50Ms;
+    }
+
+    public double getP95Ms() {
+        return p95Ms;
+    }
+
+    public double getP99Ms() {
+        return p99Ms;
+    }
+}
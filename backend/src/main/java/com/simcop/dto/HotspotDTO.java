@@ -3,19 +3,36 @@ package com.simcop.dto;
 import com.simcop.model.embeddable.GeoLocation;
 
 public class HotspotDTO {
+    private String id; // Stable while the hotspot's peak cell stays the same; null for historical hotspots
     private GeoLocation center;
     private double radius;
     private int intensity; // Number of reports in the cluster
+    private double score; // Reliability/credibility-weighted, age-decayed report weight
     private String description;
 
     public HotspotDTO(GeoLocation center, double radius, int intensity, String description) {
+        this(center, radius, intensity, intensity, description);
+    }
+
+    public HotspotDTO(GeoLocation center, double radius, int intensity, double score, String description) {
+        this(null, center, radius, intensity, score, description);
+    }
+
+    public HotspotDTO(String id, GeoLocation center, double radius, int intensity, double score,
+            String description) {
+        this.id = id;
         this.center = center;
         this.radius = radius;
         this.intensity = intensity;
+        this.score = score;
         this.description = description;
     }
 
     // Getters
+    public String getId() {
+        return id;
+    }
+
     public GeoLocation getCenter() {
         return center;
     }
@@ -28,6 +45,10 @@ public class HotspotDTO {
         return intensity;
     }
 
+    public double getScore() {
+        return score;
+    }
+
     public String getDescription() {
         return description;
     }
@@ -0,0 +1,28 @@
+package com.simcop.dto;
+
+import com.simcop.model.IntelligenceReport;
+
+import java.util.List;
+
+public class IntelDuplicateClusterDTO {
+    private IntelligenceReport canonical;
+    private List<IntelligenceReport> duplicates;
+
+    public IntelDuplicateClusterDTO(IntelligenceReport canonical, List<IntelligenceReport> duplicates) {
+        this.canonical = canonical;
+        this.duplicates = duplicates;
+    }
+
+    // Getters
+    public IntelligenceReport getCanonical() {
+        return canonical;
+    }
+
+    public List<IntelligenceReport> getDuplicates() {
+        return duplicates;
+    }
+
+    public int getSize() {
+        return duplicates.size() + 1;
+    }
+}
@@ -0,0 +1,30 @@
+package com.simcop.dto;
+
+/**
+ * Report counts of one heatmap tile in one time bucket, row-major from the
+ * tile's north-west corner (gridSize x gridSize bins).
+ */
+public class IntelHeatmapFrameDTO {
+    private long bucketStart;
+    private int total;
+    private int[] counts;
+
+    public IntelHeatmapFrameDTO(long bucketStart, int total, int[] counts) {
+        this.bucketStart = bucketStart;
+        this.total = total;
+        this.counts = counts;
+    }
+
+    // Getters
+    public long getBucketStart() {
+        return bucketStart;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int[] getCounts() {
+        return counts;
+    }
+}
@@ -0,0 +1,64 @@
+package com.simcop.dto;
+
+import java.util.List;
+
+/**
+ * Report density of one map tile over a time range, one frame per non-empty
+ * bucket, so a time slider can scrub through the frames client-side. max is
+ * the highest bin count over all frames, for a stable colour scale.
+ */
+public class IntelHeatmapTileDTO {
+    private int z;
+    private int x;
+    private int y;
+    private String resolution;
+    private long bucketMillis;
+    private int gridSize;
+    private int max;
+    private List<IntelHeatmapFrameDTO> frames;
+
+    public IntelHeatmapTileDTO(int z, int x, int y, String resolution, long bucketMillis, int gridSize, int max,
+            List<IntelHeatmapFrameDTO> frames) {
+        this.z = z;
+        this.x = x;
+        this.y = y;
+        this.resolution = resolution;
+        this.bucketMillis = bucketMillis;
+        this.gridSize = gridSize;
+        this.max = max;
+        this.frames = frames;
+    }
+
+    // Getters
+    public int getZ() {
+        return z;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public String getResolution() {
+        return resolution;
+    }
+
+    public long getBucketMillis() {
+        return bucketMillis;
+    }
+
+    public int getGridSize() {
+        return gridSize;
+    }
+
+    public int getMax() {
+        return max;
+    }
+
+    public List<IntelHeatmapFrameDTO> getFrames() {
+        return frames;
+    }
+}
@@ -0,0 +1,77 @@
+package com.simcop.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk intel import. Errors carry the record number (1-based,
+ * header excluded) and are capped at MAX_ERRORS.
+ */
+public class IntelImportResultDTO {
+
+    public static final int MAX_ERRORS = 50;
+
+    private long received;
+    private long imported;
+    private long invalid;
+    private long duplicates;
+    private int batches;
+    private long elapsedMillis;
+    private List<String> errors = new ArrayList<>();
+
+    public void addError(long record, String message) {
+        invalid++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add("Registro " + record + ": " + message);
+        }
+    }
+
+    public void addReceived() {
+        received++;
+    }
+
+    public void addImported(long count) {
+        imported += count;
+    }
+
+    public void addDuplicates(long count) {
+        duplicates += count;
+    }
+
+    public void addBatch() {
+        batches++;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // Getters
+    public long getReceived() {
+        return received;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getInvalid() {
+        return invalid;
+    }
+
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    public int getBatches() {
+        return batches;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,22 @@
+package com.simcop.dto;
+
+import com.simcop.model.IntelligenceReport;
+
+public class IntelSearchHitDTO {
+    private float score;
+    private IntelligenceReport report;
+
+    public IntelSearchHitDTO(float score, IntelligenceReport report) {
+        this.score = score;
+        this.report = report;
+    }
+
+    // Getters
+    public float getScore() {
+        return score;
+    }
+
+    public IntelligenceReport getReport() {
+        return report;
+    }
+}
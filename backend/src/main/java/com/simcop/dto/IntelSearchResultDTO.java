@@ -0,0 +1,46 @@
+package com.simcop.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of intel search hits, best match first (newest first without a
+ * query). Keyword facets count every match, not only this page.
+ */
+public class IntelSearchResultDTO {
+    private long total;
+    private int page;
+    private int size;
+    private List<IntelSearchHitDTO> hits;
+    private Map<String, Integer> keywordFacets;
+
+    public IntelSearchResultDTO(long total, int page, int size, List<IntelSearchHitDTO> hits,
+            Map<String, Integer> keywordFacets) {
+        this.total = total;
+        this.page = page;
+        this.size = size;
+        this.hits = hits;
+        this.keywordFacets = keywordFacets;
+    }
+
+    // Getters
+    public long getTotal() {
+        return total;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public List<IntelSearchHitDTO> getHits() {
+        return hits;
+    }
+
+    public Map<String, Integer> getKeywordFacets() {
+        return keywordFacets;
+    }
+}
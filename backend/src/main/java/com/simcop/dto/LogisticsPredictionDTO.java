@@ -6,6 +6,8 @@ public class LogisticsPredictionDTO {
     private double daysRemaining;
     private String status;
     private String recommendation;
+    private String limitingFactor; // SUMINISTROS, COMBUSTIBLE or MUNICIÓN
+    private Long projectedDepletionTimestamp;
 
     public LogisticsPredictionDTO() {
     }
@@ -59,4 +61,20 @@ public class LogisticsPredictionDTO {
     public void setRecommendation(String recommendation) {
         this.recommendation = recommendation;
     }
+
+    public String getLimitingFactor() {
+        return limitingFactor;
+    }
+
+    public void setLimitingFactor(String limitingFactor) {
+        this.limitingFactor = limitingFactor;
+    }
+
+    public Long getProjectedDepletionTimestamp() {
+        return projectedDepletionTimestamp;
+    }
+
+    public void setProjectedDepletionTimestamp(Long projectedDepletionTimestamp) {
+        this.projectedDepletionTimestamp = projectedDepletionTimestamp;
+    }
 }
@@ -0,0 +1,24 @@
+package com.simcop.dto;
+
+import com.simcop.model.LogisticsRequest;
+
+import java.util.List;
+
+public class LogisticsQueuePageDTO {
+    private List<LogisticsRequest> items;
+    private String nextCursor; // null when there are no more rows
+
+    public LogisticsQueuePageDTO(List<LogisticsRequest> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters
+    public List<LogisticsRequest> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,32 @@
+package com.simcop.dto;
+
+public class PositionIngestResultDTO {
+    private int accepted;
+    private int invalid;
+    private int rejected; // Queue full: the client should retry later
+    private int queueDepth;
+
+    public PositionIngestResultDTO(int accepted, int invalid, int rejected, int queueDepth) {
+        this.accepted = accepted;
+        this.invalid = invalid;
+        this.rejected = rejected;
+        this.queueDepth = queueDepth;
+    }
+
+    // Getters
+    public int getAccepted() {
+        return accepted;
+    }
+
+    public int getInvalid() {
+        return invalid;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+}
@@ -0,0 +1,76 @@
+package com.simcop.dto;
+
+public class PositionIngestStatsDTO {
+    private long received;
+    private long rejected;
+    private long written; // Route points stored
+    private long unitUpdates; // Coalesced military_units rows updated
+    private long flushes;
+    private long failedFlushes; // Transactions that failed; the batch is retried
+    private long dropped; // Reports given up on after max-flush-retries
+    private long lastFlushMillis;
+    private int queueDepth;
+    private int queueCapacity;
+    private int retryDepth; // Reports of a failed batch waiting for the next flush
+
+    public PositionIngestStatsDTO(long received, long rejected, long written, long unitUpdates, long flushes,
+            long failedFlushes, long dropped, long lastFlushMillis, int queueDepth, int queueCapacity,
+            int retryDepth) {
+        this.received = received;
+        this.rejected = rejected;
+        this.written = written;
+        this.unitUpdates = unitUpdates;
+        this.flushes = flushes;
+        this.failedFlushes = failedFlushes;
+        this.dropped = dropped;
+        this.lastFlushMillis = lastFlushMillis;
+        this.queueDepth = queueDepth;
+        this.queueCapacity = queueCapacity;
+        this.retryDepth = retryDepth;
+    }
+
+    // Getters
+    public long getReceived() {
+        return received;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getWritten() {
+        return written;
+    }
+
+    public long getUnitUpdates() {
+        return unitUpdates;
+    }
+
+    public long getFlushes() {
+        return flushes;
+    }
+
+    public long getFailedFlushes() {
+        return failedFlushes;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    public long getLastFlushMillis() {
+        return lastFlushMillis;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public int getRetryDepth() {
+        return retryDepth;
+    }
+}
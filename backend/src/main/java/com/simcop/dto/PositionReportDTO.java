@@ -0,0 +1,51 @@
+package com.simcop.dto;
+
+public class PositionReportDTO {
+    private String unitId;
+    private double lat;
+    private double lon;
+    private Long timestamp; // Fix time (epoch ms); defaults to reception time
+
+    public PositionReportDTO() {
+    }
+
+    public PositionReportDTO(String unitId, double lat, double lon, Long timestamp) {
+        this.unitId = unitId;
+        this.lat = lat;
+        this.lon = lon;
+        this.timestamp = timestamp;
+    }
+
+    // Getters and Setters
+    public String getUnitId() {
+        return unitId;
+    }
+
+    public void setUnitId(String unitId) {
+        this.unitId = unitId;
+    }
+
+    public double getLat() {
+        return lat;
+    }
+
+    public void setLat(double lat) {
+        this.lat = lat;
+    }
+
+    public double getLon() {
+        return lon;
+    }
+
+    public void setLon(double lon) {
+        this.lon = lon;
+    }
+
+    public Long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Long timestamp) {
+        this.timestamp = timestamp;
+    }
+}
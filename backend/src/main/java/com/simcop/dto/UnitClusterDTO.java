@@ -0,0 +1,71 @@
+package com.simcop.dto;
+
+import com.simcop.model.UnitStatus;
+import com.simcop.model.UnitType;
+
+import java.util.Map;
+
+/**
+ * One map marker at a given zoom: either an aggregate of the units in a
+ * cluster cell (count > 1, centroid position) or a single unit (unitId set).
+ */
+public class UnitClusterDTO {
+    private String key;
+    private int count;
+    private double lat;
+    private double lon;
+    private Map<UnitStatus, Integer> statusBreakdown;
+    private String unitId;
+    private String unitName;
+    private UnitType unitType;
+
+    public UnitClusterDTO(String key, int count, double lat, double lon, Map<UnitStatus, Integer> statusBreakdown) {
+        this.key = key;
+        this.count = count;
+        this.lat = lat;
+        this.lon = lon;
+        this.statusBreakdown = statusBreakdown;
+    }
+
+    public static UnitClusterDTO single(String key, String unitId, String unitName, UnitType unitType, double lat,
+            double lon, Map<UnitStatus, Integer> statusBreakdown) {
+        UnitClusterDTO dto = new UnitClusterDTO(key, 1, lat, lon, statusBreakdown);
+        dto.unitId = unitId;
+        dto.unitName = unitName;
+        dto.unitType = unitType;
+        return dto;
+    }
+
+    // Getters
+    public String getKey() {
+        return key;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public double getLat() {
+        return lat;
+    }
+
+    public double getLon() {
+        return lon;
+    }
+
+    public Map<UnitStatus, Integer> getStatusBreakdown() {
+        return statusBreakdown;
+    }
+
+    public String getUnitId() {
+        return unitId;
+    }
+
+    public String getUnitName() {
+        return unitName;
+    }
+
+    public UnitType getUnitType() {
+        return unitType;
+    }
+}
@@ -0,0 +1,23 @@
+package com.simcop.event;
+
+import com.simcop.model.IntelligenceReport;
+
+import java.util.List;
+
+/**
+ * Published when new intelligence reports are written (single create or an
+ * import batch), so in-memory aggregates can add them without re-reading the
+ * table. Listeners run after commit.
+ */
+public class IntelReportsIngestedEvent {
+
+    private final List<IntelligenceReport> reports;
+
+    public IntelReportsIngestedEvent(List<IntelligenceReport> reports) {
+        this.reports = reports;
+    }
+
+    public List<IntelligenceReport> getReports() {
+        return reports;
+    }
+}
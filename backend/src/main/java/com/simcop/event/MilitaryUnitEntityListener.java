@@ -0,0 +1,45 @@
+package com.simcop.event;
+
+import com.simcop.model.MilitaryUnit;
+import com.simcop.service.CapabilityDictionaryService;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Turns every persisted MilitaryUnit change into a UnitChangedEvent, so
+ * in-memory views stay current no matter which code path saved the unit.
+ */
+@Component
+public class MilitaryUnitEntityListener {
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    @Autowired
+    private CapabilityDictionaryService capabilityDictionary;
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(MilitaryUnit unit) {
+        if (capabilityDictionary != null) {
+            capabilityDictionary.update(unit);
+        }
+        if (publisher != null) {
+            publisher.publishEvent(UnitChangedEvent.of(unit));
+        }
+    }
+
+    @PostRemove
+    public void onRemoved(MilitaryUnit unit) {
+        if (capabilityDictionary != null) {
+            capabilityDictionary.remove(unit.getId());
+        }
+        if (publisher != null) {
+            publisher.publishEvent(UnitChangedEvent.removed(unit.getId()));
+        }
+    }
+}
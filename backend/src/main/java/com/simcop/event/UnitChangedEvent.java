@@ -0,0 +1,118 @@
+package com.simcop.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.simcop.model.MilitaryUnit;
+import com.simcop.model.UnitStatus;
+import com.simcop.model.UnitType;
+
+/**
+ * Snapshot of a unit's hot fields, published whenever a unit is created,
+ * updated or deleted. Fields left null were not part of the change.
+ */
+public class UnitChangedEvent {
+
+    private final String unitId;
+    private final String name;
+    private final UnitType type;
+    private final Double lat;
+    private final Double lon;
+    private final UnitStatus status;
+    private final Double fuelLevel;
+    private final Double ammoLevel;
+    private final Double daysOfSupply;
+    private final long timestamp;
+    private final boolean removed;
+    // Batched GPS fix; PositionIngestionService already pushes these on /topic/unit-positions
+    private final boolean positionReport;
+
+    public UnitChangedEvent(String unitId, String name, UnitType type, Double lat, Double lon, UnitStatus status,
+            Double fuelLevel, Double ammoLevel, Double daysOfSupply, long timestamp, boolean removed) {
+        this(unitId, name, type, lat, lon, status, fuelLevel, ammoLevel, daysOfSupply, timestamp, removed, false);
+    }
+
+    private UnitChangedEvent(String unitId, String name, UnitType type, Double lat, Double lon, UnitStatus status,
+            Double fuelLevel, Double ammoLevel, Double daysOfSupply, long timestamp, boolean removed,
+            boolean positionReport) {
+        this.unitId = unitId;
+        this.name = name;
+        this.type = type;
+        this.lat = lat;
+        this.lon = lon;
+        this.status = status;
+        this.fuelLevel = fuelLevel;
+        this.ammoLevel = ammoLevel;
+        this.daysOfSupply = daysOfSupply;
+        this.timestamp = timestamp;
+        this.removed = removed;
+        this.positionReport = positionReport;
+    }
+
+    public static UnitChangedEvent of(MilitaryUnit unit) {
+        Double lat = unit.getLocation() != null ? unit.getLocation().getLat() : null;
+        Double lon = unit.getLocation() != null ? unit.getLocation().getLon() : null;
+        return new UnitChangedEvent(unit.getId(), unit.getName(), unit.getType(), lat, lon, unit.getStatus(),
+                unit.getFuelLevel(), unit.getAmmoLevel(), unit.getDaysOfSupply(), System.currentTimeMillis(), false);
+    }
+
+    public static UnitChangedEvent removed(String unitId) {
+        return new UnitChangedEvent(unitId, null, null, null, null, null, null, null, null,
+                System.currentTimeMillis(), true);
+    }
+
+    public static UnitChangedEvent positionReport(String unitId, double lat, double lon, long timestamp) {
+        return new UnitChangedEvent(unitId, null, null, lat, lon, null, null, null, null, timestamp, false, true);
+    }
+
+    public boolean hasLocation() {
+        return lat != null && lon != null;
+    }
+
+    public String getUnitId() {
+        return unitId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public UnitType getType() {
+        return type;
+    }
+
+    public Double getLat() {
+        return lat;
+    }
+
+    public Double getLon() {
+        return lon;
+    }
+
+    public UnitStatus getStatus() {
+        return status;
+    }
+
+    public Double getFuelLevel() {
+        return fuelLevel;
+    }
+
+    public Double getAmmoLevel() {
+        return ammoLevel;
+    }
+
+    public Double getDaysOfSupply() {
+        return daysOfSupply;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public boolean isRemoved() {
+        return removed;
+    }
+
+    @JsonIgnore
+    public boolean isPositionReport() {
+        return positionReport;
+    }
+}
@@ -4,7 +4,7 @@ import com.simcop.model.embeddable.GeoLocation;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "alerts")
+@Table(name = "alerts", indexes = @Index(name = "idx_alerts_timestamp", columnList = "timestamp"))
 public class Alert {
 
     @Id
@@ -0,0 +1,48 @@
+package com.simcop.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Append-only journal entry for every round drawn from an artillery piece.
+ */
+@Entity
+@Table(name = "ammo_expenditures", indexes = @Index(name = "idx_ammo_exp_piece_ts", columnList = "artilleryId, timestamp"))
+public class AmmoExpenditure {
+
+    @Id
+    private String id;
+
+    private String artilleryId;
+
+    @Enumerated(EnumType.STRING)
+    private AmmoType ammoType;
+
+    private int quantity;
+    private int remainingAfter;
+    private String fireMissionId;
+    private long timestamp;
+
+    public AmmoExpenditure() {}
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getArtilleryId() { return artilleryId; }
+    public void setArtilleryId(String artilleryId) { this.artilleryId = artilleryId; }
+
+    public AmmoType getAmmoType() { return ammoType; }
+    public void setAmmoType(AmmoType ammoType) { this.ammoType = ammoType; }
+
+    public int getQuantity() { return quantity; }
+    public void setQuantity(int quantity) { this.quantity = quantity; }
+
+    public int getRemainingAfter() { return remainingAfter; }
+    public void setRemainingAfter(int remainingAfter) { this.remainingAfter = remainingAfter; }
+
+    public String getFireMissionId() { return fireMissionId; }
+    public void setFireMissionId(String fireMissionId) { this.fireMissionId = fireMissionId; }
+
+    public long getTimestamp() { return timestamp; }
+    public void setTimestamp(long timestamp) { this.timestamp = timestamp; }
+}
@@ -1,5 +1,18 @@
 package com.simcop.model;
 
 public enum AmmoType {
-    HE, SMOKE, ILLUM
+    HE, SMOKE, ILLUM;
+
+    /**
+     * Case-insensitive lookup; null when the name is unknown.
+     */
+    public static AmmoType fromName(String name) {
+        if (name == null)
+            return null;
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
 }
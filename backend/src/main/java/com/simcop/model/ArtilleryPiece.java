@@ -1,10 +1,13 @@
 package com.simcop.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.simcop.model.embeddable.AmmoStock;
 import com.simcop.model.embeddable.GeoLocation;
 import jakarta.persistence.*;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Map;
 
 @Entity
 @Table(name = "artillery_pieces")
@@ -24,9 +27,14 @@ public class ArtilleryPiece {
     @Enumerated(EnumType.STRING)
     private ArtilleryStatus status;
 
+    // One row per (piece_id, ammo_type): lookups and decrements hit a single keyed row
     @ElementCollection
-    @CollectionTable(name = "artillery_ammo", joinColumns = @JoinColumn(name = "artillery_id"))
-    private List<AmmoStock> ammunition = new ArrayList<>();
+    @CollectionTable(name = "artillery_ammo_inventory", joinColumns = @JoinColumn(name = "piece_id"))
+    @MapKeyEnumerated(EnumType.STRING)
+    @MapKeyColumn(name = "ammo_type")
+    @Column(name = "quantity")
+    @JsonIgnore
+    private Map<AmmoType, Integer> inventory = new EnumMap<>(AmmoType.class);
 
     private double minRange;
     private double maxRange;
@@ -52,8 +60,32 @@ public class ArtilleryPiece {
     public ArtilleryStatus getStatus() { return status; }
     public void setStatus(ArtilleryStatus status) { this.status = status; }
 
-    public List<AmmoStock> getAmmunition() { return ammunition; }
-    public void setAmmunition(List<AmmoStock> ammunition) { this.ammunition = ammunition; }
+    public Map<AmmoType, Integer> getInventory() { return inventory; }
+    public void setInventory(Map<AmmoType, Integer> inventory) { this.inventory = inventory; }
+
+    public int getAmmo(AmmoType type) { return inventory.getOrDefault(type, 0); }
+    public void setAmmo(AmmoType type, int quantity) { inventory.put(type, quantity); }
+
+    // JSON keeps the list shape clients already use: [{type, quantity}, ...]
+    public List<AmmoStock> getAmmunition() {
+        List<AmmoStock> stocks = new ArrayList<>();
+        for (AmmoType type : AmmoType.values()) {
+            Integer quantity = inventory.get(type);
+            if (quantity != null)
+                stocks.add(new AmmoStock(type, quantity));
+        }
+        return stocks;
+    }
+
+    public void setAmmunition(List<AmmoStock> ammunition) {
+        inventory.clear();
+        if (ammunition == null)
+            return;
+        for (AmmoStock stock : ammunition) {
+            if (stock.getType() != null)
+                inventory.merge(stock.getType(), stock.getQuantity(), Integer::sum);
+        }
+    }
 
     public double getMinRange() { return minRange; }
     public void setMinRange(double minRange) { this.minRange = minRange; }
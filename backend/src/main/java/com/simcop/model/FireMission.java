@@ -22,6 +22,7 @@ public class FireMission {
     private String assignedArtilleryId; // The ID of the ArtilleryPiece assigned
 
     private Long requestTimestamp;
+    private Long approvedTimestamp;
     private Long fireTimestamp;
     private Long completedTimestamp;
 
@@ -83,6 +84,14 @@ public class FireMission {
         this.requestTimestamp = requestTimestamp;
     }
 
+    public Long getApprovedTimestamp() {
+        return approvedTimestamp;
+    }
+
+    public void setApprovedTimestamp(Long approvedTimestamp) {
+        this.approvedTimestamp = approvedTimestamp;
+    }
+
     public Long getFireTimestamp() {
         return fireTimestamp;
     }
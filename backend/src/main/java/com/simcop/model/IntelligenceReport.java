@@ -6,7 +6,9 @@ import java.util.List;
 import java.util.ArrayList;
 
 @Entity
-@Table(name = "intelligence_reports")
+@Table(name = "intelligence_reports", indexes = {
+        @Index(name = "idx_intel_event_ts", columnList = "eventTimestamp"),
+        @Index(name = "idx_intel_duplicate_of", columnList = "duplicate_of") })
 public class IntelligenceReport {
 
     @Id
@@ -40,6 +42,10 @@ public class IntelligenceReport {
     @Column(name = "reporting_unit_id")
     private String reportingUnitId;
 
+    // Canonical report this one near-duplicates (same event filed by another unit), set at ingest
+    @Column(name = "duplicate_of")
+    private String duplicateOf;
+
     // Attachments can be complex, skipping for now or storing as JSON string if
     // needed.
     // For simplicity, we'll omit attachments in this initial version or add a
@@ -144,4 +150,12 @@ public class IntelligenceReport {
     public void setReportingUnitId(String reportingUnitId) {
         this.reportingUnitId = reportingUnitId;
     }
+
+    public String getDuplicateOf() {
+        return duplicateOf;
+    }
+
+    public void setDuplicateOf(String duplicateOf) {
+        this.duplicateOf = duplicateOf;
+    }
 }
@@ -3,7 +3,11 @@ package com.simcop.model;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "logistics_requests")
+@Table(name = "logistics_requests", indexes = {
+        @Index(name = "idx_logistics_status_ts", columnList = "status, requestTimestamp, id"),
+        @Index(name = "idx_logistics_unit_ts", columnList = "originatingUnitId, requestTimestamp, id"),
+        @Index(name = "idx_logistics_ts", columnList = "requestTimestamp, id")
+})
 public class LogisticsRequest {
 
     @Id
@@ -1,5 +1,6 @@
 package com.simcop.model;
 
+import com.simcop.event.MilitaryUnitEntityListener;
 import com.simcop.model.embeddable.CommanderInfo;
 import com.simcop.model.embeddable.GeoLocation;
 import com.simcop.model.embeddable.PersonnelBreakdown;
@@ -13,6 +14,7 @@ import java.util.ArrayList;
 
 @Entity
 @Table(name = "military_units")
+@EntityListeners(MilitaryUnitEntityListener.class)
 public class MilitaryUnit {
 
     @Id
@@ -52,8 +54,8 @@ public class MilitaryUnit {
     private long lastCommunicationTimestamp;
     private Long lastHourlyReportTimestamp;
 
-    @ElementCollection
-    @CollectionTable(name = "unit_route_history", joinColumns = @JoinColumn(name = "unit_id"))
+    // Stored by RouteHistoryService; only the recent tail is filled in for clients
+    @Transient
     private List<RoutePoint> routeHistory = new ArrayList<>();
 
     @Embedded
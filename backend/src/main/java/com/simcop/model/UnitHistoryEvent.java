@@ -5,7 +5,7 @@ import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 @Entity
-@Table(name = "unit_history_events")
+@Table(name = "unit_history_events", indexes = @Index(name = "idx_unit_history_timestamp", columnList = "timestamp"))
 @JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
 public class UnitHistoryEvent {
 
@@ -0,0 +1,46 @@
+package com.simcop.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Recent, not yet compacted route point of a unit. Rows are only inserted and,
+ * once old enough, moved into a packed UnitRouteSegment.
+ */
+@Entity
+@Table(name = "unit_route_points", indexes = @Index(name = "idx_route_points_unit_ts", columnList = "unitId, timestamp"))
+public class UnitRoutePoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    private String unitId;
+    private double lat;
+    private double lon;
+    private long timestamp;
+
+    public UnitRoutePoint() {}
+
+    public UnitRoutePoint(String unitId, double lat, double lon, long timestamp) {
+        this.unitId = unitId;
+        this.lat = lat;
+        this.lon = lon;
+        this.timestamp = timestamp;
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getUnitId() { return unitId; }
+    public void setUnitId(String unitId) { this.unitId = unitId; }
+
+    public double getLat() { return lat; }
+    public void setLat(double lat) { this.lat = lat; }
+
+    public double getLon() { return lon; }
+    public void setLon(double lon) { this.lon = lon; }
+
+    public long getTimestamp() { return timestamp; }
+    public void setTimestamp(long timestamp) { this.timestamp = timestamp; }
+}
@@ -0,0 +1,46 @@
+package com.simcop.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Compacted run of a unit's route points, packed by RouteCodec into one
+ * binary column instead of one row per point.
+ */
+@Entity
+@Table(name = "unit_route_segments", indexes = @Index(name = "idx_route_segments_unit_ts", columnList = "unitId, startTimestamp"))
+public class UnitRouteSegment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    private String unitId;
+    private long startTimestamp;
+    private long endTimestamp;
+    private int pointCount;
+
+    @Lob
+    @Column(columnDefinition = "LONGBLOB")
+    private byte[] data;
+
+    public UnitRouteSegment() {}
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getUnitId() { return unitId; }
+    public void setUnitId(String unitId) { this.unitId = unitId; }
+
+    public long getStartTimestamp() { return startTimestamp; }
+    public void setStartTimestamp(long startTimestamp) { this.startTimestamp = startTimestamp; }
+
+    public long getEndTimestamp() { return endTimestamp; }
+    public void setEndTimestamp(long endTimestamp) { this.endTimestamp = endTimestamp; }
+
+    public int getPointCount() { return pointCount; }
+    public void setPointCount(int pointCount) { this.pointCount = pointCount; }
+
+    public byte[] getData() { return data; }
+    public void setData(byte[] data) { this.data = data; }
+}
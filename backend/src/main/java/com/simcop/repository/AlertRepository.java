@@ -1,9 +1,15 @@
 package com.simcop.repository;
 
 import com.simcop.model.Alert;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface AlertRepository extends JpaRepository<Alert, String> {
+    List<Alert> findByTimestampLessThan(long cutoff, Pageable pageable);
+
+    List<Alert> findByAcknowledgedTrueAndTimestampLessThan(long cutoff, Pageable pageable);
 }
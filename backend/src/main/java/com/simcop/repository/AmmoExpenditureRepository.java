@@ -0,0 +1,12 @@
+package com.simcop.repository;
+
+import com.simcop.model.AmmoExpenditure;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AmmoExpenditureRepository extends JpaRepository<AmmoExpenditure, String> {
+    List<AmmoExpenditure> findByArtilleryIdOrderByTimestampDesc(String artilleryId);
+}
@@ -2,8 +2,36 @@ package com.simcop.repository;
 
 import com.simcop.model.ArtilleryPiece;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface ArtilleryPieceRepository extends JpaRepository<ArtilleryPiece, String> {
+
+    @Query(value = "SELECT quantity FROM artillery_ammo_inventory WHERE piece_id = :pieceId AND ammo_type = :type",
+            nativeQuery = true)
+    List<Number> findAmmoQuantity(@Param("pieceId") String pieceId, @Param("type") String type);
+
+    // Conditional single-row decrement: affects 0 rows instead of going negative
+    @Modifying
+    @Query(value = "UPDATE artillery_ammo_inventory SET quantity = quantity - :amount "
+            + "WHERE piece_id = :pieceId AND ammo_type = :type AND quantity >= :amount", nativeQuery = true)
+    int decrementAmmo(@Param("pieceId") String pieceId, @Param("type") String type, @Param("amount") int amount);
+
+    // Rows of [id, ArtilleryType]
+    @Query("SELECT p.id, p.type FROM ArtilleryPiece p")
+    List<Object[]> findIdAndType();
+
+    // Rows of [AmmoType, Long total]
+    @Query("SELECT KEY(i), SUM(VALUE(i)) FROM ArtilleryPiece p JOIN p.inventory i GROUP BY KEY(i)")
+    List<Object[]> sumAmmoByType();
+
+    @Query("SELECT KEY(i), SUM(VALUE(i)) FROM ArtilleryPiece p JOIN p.inventory i "
+            + "WHERE p.assignedUnitId IN :unitIds GROUP BY KEY(i)")
+    List<Object[]> sumAmmoByTypeForUnits(@Param("unitIds") Collection<String> unitIds);
 }
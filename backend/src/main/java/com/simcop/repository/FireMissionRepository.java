@@ -3,8 +3,11 @@ package com.simcop.repository;
 import com.simcop.model.FireMission;
 import com.simcop.model.FireMissionStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -14,4 +17,8 @@ public interface FireMissionRepository extends JpaRepository<FireMission, String
     List<FireMission> findByRequesterId(String requesterId);
 
     List<FireMission> findByAssignedArtilleryId(String assignedArtilleryId);
+
+    @Query("SELECT m.assignedArtilleryId, COUNT(m) FROM FireMission m "
+            + "WHERE m.status IN :statuses AND m.assignedArtilleryId IS NOT NULL GROUP BY m.assignedArtilleryId")
+    List<Object[]> countQueuedByArtillery(@Param("statuses") Collection<FireMissionStatus> statuses);
 }
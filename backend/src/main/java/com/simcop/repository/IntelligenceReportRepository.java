@@ -1,9 +1,35 @@
 package com.simcop.repository;
 
 import com.simcop.model.IntelligenceReport;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
 @Repository
 public interface IntelligenceReportRepository extends JpaRepository<IntelligenceReport, String> {
+    List<IntelligenceReport> findByEventTimestampLessThan(long cutoff, Pageable pageable);
+
+    // Event-time windows (inclusive), served by idx_intel_event_ts. Rows arrive in fetch-size chunks (MySQL needs useCursorFetch=true); must be
+    // consumed inside a transaction and closed
+    @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true") })
+    @Query("SELECT r FROM IntelligenceReport r WHERE r.eventTimestamp >= :from AND r.eventTimestamp <= :to")
+    Stream<IntelligenceReport> streamByEventTimestampBetween(@Param("from") long from, @Param("to") long to);
+
+    // Same, without the reports flagged as near-duplicates of another
+    @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true") })
+    @Query("SELECT r FROM IntelligenceReport r WHERE r.eventTimestamp >= :from AND r.eventTimestamp <= :to "
+            + "AND r.duplicateOf IS NULL")
+    Stream<IntelligenceReport> streamCanonicalByEventTimestampBetween(@Param("from") long from, @Param("to") long to);
+
+    List<IntelligenceReport> findByDuplicateOfIsNotNullAndEventTimestampBetween(long from, long to);
 }
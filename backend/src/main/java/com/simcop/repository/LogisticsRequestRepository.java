@@ -1,9 +1,43 @@
 package com.simcop.repository;
 
 import com.simcop.model.LogisticsRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface LogisticsRequestRepository extends JpaRepository<LogisticsRequest, String> {
+    List<LogisticsRequest> findByOriginatingUnitIdInAndStatus(Collection<String> originatingUnitIds, String status);
+
+    // Keyset pages ordered by (requestTimestamp, id), starting after the cursor.
+    // One query per filter combination so each can use its composite index.
+    @Query("SELECT r FROM LogisticsRequest r WHERE (r.requestTimestamp > :ts OR (r.requestTimestamp = :ts AND r.id > :id)) "
+            + "ORDER BY r.requestTimestamp, r.id")
+    List<LogisticsRequest> findQueuePage(@Param("ts") long ts, @Param("id") String id, Pageable pageable);
+
+    @Query("SELECT r FROM LogisticsRequest r WHERE r.status = :status "
+            + "AND (r.requestTimestamp > :ts OR (r.requestTimestamp = :ts AND r.id > :id)) "
+            + "ORDER BY r.requestTimestamp, r.id")
+    List<LogisticsRequest> findQueuePageByStatus(@Param("status") String status, @Param("ts") long ts,
+            @Param("id") String id, Pageable pageable);
+
+    @Query("SELECT r FROM LogisticsRequest r WHERE r.originatingUnitId = :unitId "
+            + "AND (r.requestTimestamp > :ts OR (r.requestTimestamp = :ts AND r.id > :id)) "
+            + "ORDER BY r.requestTimestamp, r.id")
+    List<LogisticsRequest> findQueuePageByUnit(@Param("unitId") String unitId, @Param("ts") long ts,
+            @Param("id") String id, Pageable pageable);
+
+    @Query("SELECT r FROM LogisticsRequest r WHERE r.originatingUnitId = :unitId AND r.status = :status "
+            + "AND (r.requestTimestamp > :ts OR (r.requestTimestamp = :ts AND r.id > :id)) "
+            + "ORDER BY r.requestTimestamp, r.id")
+    List<LogisticsRequest> findQueuePageByUnitAndStatus(@Param("unitId") String unitId,
+            @Param("status") String status, @Param("ts") long ts, @Param("id") String id, Pageable pageable);
+
+    @Query("SELECT r.status, COUNT(r) FROM LogisticsRequest r GROUP BY r.status")
+    List<Object[]> countByStatus();
 }
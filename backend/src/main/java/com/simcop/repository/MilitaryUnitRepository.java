@@ -1,8 +1,11 @@
 package com.simcop.repository;
 
 import com.simcop.model.MilitaryUnit;
+import com.simcop.model.UnitStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
@@ -10,4 +13,32 @@ import java.util.List;
 public interface MilitaryUnitRepository extends JpaRepository<MilitaryUnit, String> {
     @Query("SELECT DISTINCT u FROM MilitaryUnit u JOIN u.uavAssets a")
     List<MilitaryUnit> findUnitsWithUavs();
+
+    // Rows of [id, parentId]; walks the hierarchy without loading full units
+    @Query("SELECT u.id, u.parentId FROM MilitaryUnit u")
+    List<Object[]> findHierarchy();
+
+    // Rows of [id, name, type, lat, lon, status] for the map cluster pyramid
+    @Query("SELECT u.id, u.name, u.type, u.location.lat, u.location.lon, u.status FROM MilitaryUnit u")
+    List<Object[]> findMapState();
+
+    // Targeted hot-field updates: one UPDATE statement, no collections loaded or
+    // rewritten. They bypass the entity listener, so callers publish the change.
+    @Modifying
+    @Query("UPDATE MilitaryUnit u SET u.location.lat = :lat, u.location.lon = :lon, "
+            + "u.lastMovementTimestamp = :timestamp WHERE u.id = :id")
+    int updateLocation(@Param("id") String id, @Param("lat") double lat, @Param("lon") double lon,
+            @Param("timestamp") long timestamp);
+
+    @Modifying
+    @Query("UPDATE MilitaryUnit u SET u.status = :status WHERE u.id = :id")
+    int updateStatus(@Param("id") String id, @Param("status") UnitStatus status);
+
+    // Null levels keep their current value
+    @Modifying
+    @Query("UPDATE MilitaryUnit u SET u.fuelLevel = COALESCE(:fuelLevel, u.fuelLevel), "
+            + "u.ammoLevel = COALESCE(:ammoLevel, u.ammoLevel), "
+            + "u.daysOfSupply = COALESCE(:daysOfSupply, u.daysOfSupply) WHERE u.id = :id")
+    int updateLogistics(@Param("id") String id, @Param("fuelLevel") Double fuelLevel,
+            @Param("ammoLevel") Double ammoLevel, @Param("daysOfSupply") Double daysOfSupply);
 }
@@ -0,0 +1,37 @@
+package com.simcop.repository;
+
+import com.simcop.model.UnitRoutePoint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface UnitRoutePointRepository extends JpaRepository<UnitRoutePoint, String> {
+
+    List<UnitRoutePoint> findByUnitIdOrderByTimestampDesc(String unitId, Pageable pageable);
+
+    // Rows of [unit_id, lat, lon, timestamp]: the newest `limit` points of each unit, newest first
+    @Query(value = "SELECT unit_id, lat, lon, timestamp FROM (SELECT p.unit_id, p.lat, p.lon, p.timestamp, "
+            + "ROW_NUMBER() OVER (PARTITION BY p.unit_id ORDER BY p.timestamp DESC) AS rn "
+            + "FROM unit_route_points p WHERE p.unit_id IN (:unitIds)) t WHERE t.rn <= :limit "
+            + "ORDER BY unit_id, timestamp DESC", nativeQuery = true)
+    List<Object[]> findRecentByUnitIds(@Param("unitIds") Collection<String> unitIds, @Param("limit") int limit);
+
+    List<UnitRoutePoint> findByUnitIdAndTimestampBetweenOrderByTimestampAsc(String unitId, long from, long to);
+
+    List<UnitRoutePoint> findByUnitIdAndTimestampLessThanOrderByTimestampAsc(String unitId, long timestamp,
+            Pageable pageable);
+
+    @Query("SELECT DISTINCT p.unitId FROM UnitRoutePoint p WHERE p.timestamp < :timestamp")
+    List<String> findUnitIdsWithPointsBefore(@Param("timestamp") long timestamp);
+
+    @Modifying
+    @Query("DELETE FROM UnitRoutePoint p WHERE p.unitId = :unitId")
+    int deleteByUnit(@Param("unitId") String unitId);
+}
@@ -0,0 +1,36 @@
+package com.simcop.repository;
+
+import com.simcop.model.UnitRouteSegment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface UnitRouteSegmentRepository extends JpaRepository<UnitRouteSegment, String> {
+
+    // Segments overlapping [from, to]
+    @Query("SELECT s FROM UnitRouteSegment s WHERE s.unitId = :unitId AND s.startTimestamp <= :to "
+            + "AND s.endTimestamp >= :from ORDER BY s.startTimestamp ASC")
+    List<UnitRouteSegment> findOverlapping(@Param("unitId") String unitId, @Param("from") long from,
+            @Param("to") long to);
+
+    List<UnitRouteSegment> findByUnitIdOrderByStartTimestampDesc(String unitId, Pageable pageable);
+
+    // The newest `limit` segments of each unit, newest first
+    @Query(value = "SELECT id, unit_id, start_timestamp, end_timestamp, point_count, data FROM "
+            + "(SELECT s.*, ROW_NUMBER() OVER (PARTITION BY s.unit_id ORDER BY s.start_timestamp DESC) AS rn "
+            + "FROM unit_route_segments s WHERE s.unit_id IN (:unitIds)) t WHERE t.rn <= :limit "
+            + "ORDER BY unit_id, start_timestamp DESC", nativeQuery = true)
+    List<UnitRouteSegment> findRecentByUnitIds(@Param("unitIds") Collection<String> unitIds,
+            @Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM UnitRouteSegment s WHERE s.unitId = :unitId")
+    int deleteByUnit(@Param("unitId") String unitId);
+}
@@ -0,0 +1,120 @@
+package com.simcop.service;
+
+import com.simcop.model.AmmoExpenditure;
+import com.simcop.model.AmmoType;
+import com.simcop.repository.AmmoExpenditureRepository;
+import com.simcop.repository.ArtilleryPieceRepository;
+import com.simcop.util.AmmoCounters;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+
+/**
+ * Draws rounds from artillery stock without loading or rewriting the piece.
+ * An in-memory CAS counter per (piece, ammo type) rejects empty draws without
+ * touching the DB; a conditional single-row UPDATE is the final authority, and
+ * every draw is appended to the ammo_expenditures journal.
+ */
+@Service
+public class AmmunitionLedgerService {
+
+    private final AmmoCounters counters = new AmmoCounters();
+
+    @Autowired
+    private ArtilleryPieceRepository artilleryRepository;
+
+    @Autowired
+    private AmmoExpenditureRepository expenditureRepository;
+
+    @Autowired
+    private VisibilityService visibilityService;
+
+    @Transactional
+    public AmmoExpenditure consume(String pieceId, AmmoType type, int amount, String fireMissionId) {
+        String key = AmmoCounters.key(pieceId, type);
+
+        int remaining = counters.tryConsume(key, amount, () -> loadQuantity(pieceId, type));
+        if (remaining < 0) {
+            // The counter may be stale (stock edited elsewhere): resync once before refusing
+            counters.set(key, loadQuantity(pieceId, type));
+            remaining = counters.tryConsume(key, amount, () -> loadQuantity(pieceId, type));
+            if (remaining < 0) {
+                throw new RuntimeException("Artillery out of ammo!");
+            }
+        }
+
+        if (artilleryRepository.decrementAmmo(pieceId, type.name(), amount) == 0) {
+            counters.set(key, loadQuantity(pieceId, type));
+            throw new RuntimeException("Artillery out of ammo!");
+        }
+        refundOnRollback(key, amount);
+
+        AmmoExpenditure expenditure = new AmmoExpenditure();
+        expenditure.setId(UUID.randomUUID().toString());
+        expenditure.setArtilleryId(pieceId);
+        expenditure.setAmmoType(type);
+        expenditure.setQuantity(amount);
+        expenditure.setRemainingAfter(remaining);
+        expenditure.setFireMissionId(fireMissionId);
+        expenditure.setTimestamp(System.currentTimeMillis());
+        return expenditureRepository.save(expenditure);
+    }
+
+    /**
+     * Rounds on hand per type across all pieces, or only the pieces assigned to
+     * the given unit and its subordinates.
+     */
+    public Map<AmmoType, Long> getTotals(String unitId) {
+        List<Object[]> rows;
+        if (unitId == null) {
+            rows = artilleryRepository.sumAmmoByType();
+        } else {
+            Set<String> unitIds = visibilityService.getSubordinateIds(unitId);
+            rows = unitIds.isEmpty() ? List.of() : artilleryRepository.sumAmmoByTypeForUnits(unitIds);
+        }
+        Map<AmmoType, Long> totals = new EnumMap<>(AmmoType.class);
+        for (AmmoType type : AmmoType.values()) {
+            totals.put(type, 0L);
+        }
+        for (Object[] row : rows) {
+            totals.put((AmmoType) row[0], ((Number) row[1]).longValue());
+        }
+        return totals;
+    }
+
+    public List<AmmoExpenditure> getJournal(String pieceId) {
+        return expenditureRepository.findByArtilleryIdOrderByTimestampDesc(pieceId);
+    }
+
+    /**
+     * Call after a piece's stock was written directly (create/update/delete).
+     */
+    public void invalidate(String pieceId) {
+        counters.invalidatePiece(pieceId);
+    }
+
+    private int loadQuantity(String pieceId, AmmoType type) {
+        List<Number> rows = artilleryRepository.findAmmoQuantity(pieceId, type.name());
+        if (rows.isEmpty()) {
+            throw new RuntimeException("Artillery has no ammo of type " + type);
+        }
+        return rows.get(0).intValue(); // (piece_id, ammo_type) is the primary key
+    }
+
+    private void refundOnRollback(String key, int amount) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive())
+            return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    counters.refund(key, amount);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,119 @@
+package com.simcop.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Stores archived rows as gzip-compressed NDJSON files, one file per entity
+ * type and calendar month (UTC): {@code <archive-dir>/<entity>/<yyyy-MM>.ndjson.gz}.
+ * Every append writes a new gzip member, so files can grow without rewriting.
+ */
+@Service
+public class ArchiveStorageService {
+
+    private static final String FILE_SUFFIX = ".ndjson.gz";
+
+    private final Path archiveRoot;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public ArchiveStorageService(@Value("${retention.archive-dir:archive}") String archiveDir) {
+        this.archiveRoot = Paths.get(archiveDir).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Appends the given rows to their monthly partition files.
+     */
+    public synchronized <T> void append(String entityType, List<T> rows, Function<T, Long> timestampOf) {
+        if (rows.isEmpty())
+            return;
+
+        Map<YearMonth, List<T>> partitions = new TreeMap<>();
+        for (T row : rows) {
+            YearMonth month = YearMonth.from(Instant.ofEpochMilli(timestampOf.apply(row)).atZone(ZoneOffset.UTC));
+            partitions.computeIfAbsent(month, k -> new ArrayList<>()).add(row);
+        }
+
+        try {
+            Path dir = archiveRoot.resolve(entityType);
+            Files.createDirectories(dir);
+            for (Map.Entry<YearMonth, List<T>> partition : partitions.entrySet()) {
+                Path file = dir.resolve(partition.getKey() + FILE_SUFFIX);
+                try (OutputStream out = Files.newOutputStream(file, StandardOpenOption.CREATE,
+                        StandardOpenOption.APPEND);
+                        BufferedWriter writer = new BufferedWriter(
+                                new OutputStreamWriter(new GZIPOutputStream(out), StandardCharsets.UTF_8))) {
+                    for (T row : partition.getValue()) {
+                        writer.write(objectMapper.writeValueAsString(row));
+                        writer.newLine();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Could not write archive for " + entityType, e);
+        }
+    }
+
+    /**
+     * Reads every archived row of an entity type matching the filter. Rows
+     * archived twice (e.g. after a failed purge) are returned once, keyed by id.
+     */
+    public synchronized <T> List<T> read(String entityType, Class<T> type, Function<T, String> idOf,
+            Predicate<T> filter) {
+        Path dir = archiveRoot.resolve(entityType);
+        if (!Files.isDirectory(dir))
+            return new ArrayList<>();
+
+        Map<String, T> rows = new LinkedHashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + FILE_SUFFIX)) {
+            List<Path> sorted = new ArrayList<>();
+            files.forEach(sorted::add);
+            Collections.sort(sorted);
+
+            for (Path file : sorted) {
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                        new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (line.isBlank())
+                            continue;
+                        T row = objectMapper.readValue(line, type);
+                        if (filter.test(row)) {
+                            rows.putIfAbsent(idOf.apply(row), row);
+                        }
+                    }
+                } catch (EOFException e) {
+                    // Truncated trailing member (interrupted write): keep what was readable
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read archive for " + entityType, e);
+        }
+        return new ArrayList<>(rows.values());
+    }
+}
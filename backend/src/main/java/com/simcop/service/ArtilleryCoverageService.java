@@ -0,0 +1,180 @@
+package com.simcop.service;
+
+import com.simcop.dto.ArtilleryCoverageDTO;
+import com.simcop.dto.CoverageHeatmapDTO;
+import com.simcop.model.ArtilleryPiece;
+import com.simcop.model.ArtilleryStatus;
+import com.simcop.model.ArtilleryType;
+import com.simcop.repository.ArtilleryPieceRepository;
+import com.simcop.util.GeoUtils;
+import com.simcop.util.SpatialGrid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Keeps every positioned artillery piece's min/max range annulus in a spatial
+ * index, so "which pieces cover this point" and coverage heatmaps are answered
+ * without loading pieces from the DB. Updated incrementally by
+ * ArtilleryPieceController on create/update/delete.
+ */
+@Service
+public class ArtilleryCoverageService {
+
+    private static final Set<ArtilleryStatus> AVAILABLE_STATUSES = EnumSet.of(ArtilleryStatus.READY,
+            ArtilleryStatus.FIRING);
+    private static final double METERS_PER_DEGREE = Math.toRadians(6371000.0);
+    private static final double INDEX_CELL_DEG = 0.25;
+    private static final int MAX_HEATMAP_RESOLUTION = 400;
+
+    @Autowired
+    private ArtilleryPieceRepository artilleryRepository;
+
+    private final SpatialGrid<RangeRing> index = new SpatialGrid<>(INDEX_CELL_DEG);
+    // Largest max range in the index; bounds every candidate search
+    private volatile double maxRangeMeters = 0;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void loadCoverage() {
+        for (ArtilleryPiece piece : artilleryRepository.findAll()) {
+            putInternal(piece);
+        }
+        recomputeMaxRange();
+    }
+
+    public synchronized void update(ArtilleryPiece piece) {
+        putInternal(piece);
+        recomputeMaxRange();
+    }
+
+    public synchronized void remove(String pieceId) {
+        index.remove(pieceId);
+        recomputeMaxRange();
+    }
+
+    /**
+     * Pieces whose annulus contains the point, closest first.
+     */
+    public List<ArtilleryCoverageDTO> findCovering(double lat, double lon, boolean onlyAvailable) {
+        List<ArtilleryCoverageDTO> result = new ArrayList<>();
+        for (SpatialGrid.Entry<RangeRing> entry : index.withinRadius(lat, lon, maxRangeMeters / 1000.0)) {
+            RangeRing ring = entry.getValue();
+            if (onlyAvailable && !AVAILABLE_STATUSES.contains(ring.status))
+                continue;
+            double dist = GeoUtils.calculateDistanceKm(lat, lon, ring.lat, ring.lon) * 1000.0;
+            if (dist >= ring.minRange && dist <= ring.maxRange) {
+                result.add(new ArtilleryCoverageDTO(ring.id, ring.name, ring.type, ring.status, dist,
+                        ring.minRange, ring.maxRange));
+            }
+        }
+        result.sort(Comparator.comparingDouble(ArtilleryCoverageDTO::getDistanceMeters));
+        return result;
+    }
+
+    /**
+     * Number of covering pieces per cell over the bounding box. The longer side
+     * is split into resolution cells; each piece only rasterizes the cells inside
+     * its own annulus bounding box.
+     */
+    public CoverageHeatmapDTO heatmap(double minLat, double minLon, double maxLat, double maxLon, int resolution,
+            boolean onlyAvailable) {
+        if (!(maxLat > minLat) || !(maxLon > minLon)) {
+            throw new IllegalArgumentException("Invalid bounding box");
+        }
+        resolution = Math.max(1, Math.min(resolution, MAX_HEATMAP_RESOLUTION));
+        double cellSize = Math.max(maxLat - minLat, maxLon - minLon) / resolution;
+        int rows = Math.max(1, (int) Math.ceil((maxLat - minLat) / cellSize));
+        int cols = Math.max(1, (int) Math.ceil((maxLon - minLon) / cellSize));
+        int[] counts = new int[rows * cols];
+
+        // Expand the box by the largest range so pieces just outside still paint inside
+        double padLat = maxRangeMeters / METERS_PER_DEGREE;
+        double padLon = padLat / lonScale(Math.max(Math.abs(minLat), Math.abs(maxLat)) + padLat);
+        List<SpatialGrid.Entry<RangeRing>> candidates = index.withinBounds(minLat - padLat, minLon - padLon,
+                maxLat + padLat, maxLon + padLon);
+
+        for (SpatialGrid.Entry<RangeRing> entry : candidates) {
+            RangeRing ring = entry.getValue();
+            if (onlyAvailable && !AVAILABLE_STATUSES.contains(ring.status))
+                continue;
+            int r0 = Math.max(0, (int) Math.floor((ring.lat - ring.dLat - minLat) / cellSize));
+            int r1 = Math.min(rows - 1, (int) Math.floor((ring.lat + ring.dLat - minLat) / cellSize));
+            int c0 = Math.max(0, (int) Math.floor((ring.lon - ring.dLon - minLon) / cellSize));
+            int c1 = Math.min(cols - 1, (int) Math.floor((ring.lon + ring.dLon - minLon) / cellSize));
+            double minSq = ring.minRange * ring.minRange;
+            double maxSq = ring.maxRange * ring.maxRange;
+            for (int r = r0; r <= r1; r++) {
+                double dy = (minLat + (r + 0.5) * cellSize - ring.lat) * METERS_PER_DEGREE;
+                double dySq = dy * dy;
+                if (dySq > maxSq)
+                    continue;
+                for (int c = c0; c <= c1; c++) {
+                    // Equirectangular distance: well under 0.1% error at artillery ranges
+                    double dx = (minLon + (c + 0.5) * cellSize - ring.lon) * METERS_PER_DEGREE * ring.cosLat;
+                    double dSq = dx * dx + dySq;
+                    if (dSq >= minSq && dSq <= maxSq) {
+                        counts[r * cols + c]++;
+                    }
+                }
+            }
+        }
+        return new CoverageHeatmapDTO(minLat, minLon, cellSize, rows, cols, counts);
+    }
+
+    private void putInternal(ArtilleryPiece piece) {
+        if (piece.getId() == null)
+            return;
+        if (piece.getLocation() == null || piece.getMaxRange() <= 0) {
+            index.remove(piece.getId());
+            return;
+        }
+        RangeRing ring = new RangeRing(piece);
+        index.put(ring.id, ring.lat, ring.lon, ring);
+    }
+
+    private void recomputeMaxRange() {
+        double max = 0;
+        for (SpatialGrid.Entry<RangeRing> entry : index.values()) {
+            max = Math.max(max, entry.getValue().maxRange);
+        }
+        maxRangeMeters = max;
+    }
+
+    private static double lonScale(double absLat) {
+        return Math.max(0.01, Math.cos(Math.toRadians(Math.min(absLat, 89.0))));
+    }
+
+    /**
+     * Immutable snapshot of a piece's annulus with its degree extents precomputed.
+     */
+    private static final class RangeRing {
+        final String id;
+        final String name;
+        final ArtilleryType type;
+        final ArtilleryStatus status;
+        final double lat;
+        final double lon;
+        final double minRange;
+        final double maxRange;
+        final double cosLat;
+        final double dLat;
+        final double dLon;
+
+        RangeRing(ArtilleryPiece piece) {
+            id = piece.getId();
+            name = piece.getName();
+            type = piece.getType();
+            status = piece.getStatus();
+            lat = piece.getLocation().getLat();
+            lon = piece.getLocation().getLon();
+            minRange = piece.getMinRange();
+            maxRange = piece.getMaxRange();
+            cosLat = Math.cos(Math.toRadians(lat));
+            dLat = maxRange / METERS_PER_DEGREE;
+            dLon = dLat / lonScale(Math.abs(lat) + dLat);
+        }
+    }
+}
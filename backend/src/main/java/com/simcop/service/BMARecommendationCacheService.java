@@ -0,0 +1,341 @@
+package com.simcop.service;
+
+import com.simcop.dto.BMARecommendationCacheStatsDTO;
+import com.simcop.dto.BMARecommendationDTO;
+import com.simcop.event.IntelReportsIngestedEvent;
+import com.simcop.event.UnitChangedEvent;
+import com.simcop.model.IntelligenceReport;
+import com.simcop.model.UnitStatus;
+import com.simcop.repository.IntelligenceReportRepository;
+import com.simcop.repository.MilitaryUnitRepository;
+import com.simcop.util.GeoUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Top-N BMA recommendations per threat, so staff officers opening the same
+ * threat share one computation (unit scan and weather lookups). An entry is
+ * invalidated when the threat is re-filed or when a unit change (status, ammo
+ * or position) could alter its ranking: the unit is in the top N, or its best
+ * possible score at its new position beats the current N-th. Entries also
+ * expire after ttl-seconds (weather), and a background refresher recomputes
+ * invalid or ageing entries of recently viewed threats, most viewed first.
+ * Changes are numbered and the recent ones kept, so an entry whose
+ * computation overlapped a change is checked against it before it is served.
+ */
+@Service
+public class BMARecommendationCacheService {
+
+    public static final String METRIC_PREFIX = "simcop.bma.recommendation_cache";
+
+    // Changes remembered for computations still running; older ones invalidate them outright
+    private static final int CHANGE_LOG_SIZE = 4096;
+
+    @Autowired
+    private BMAService bmaService;
+
+    @Autowired
+    private IntelligenceReportRepository intelRepository;
+
+    @Autowired
+    private MilitaryUnitRepository unitRepository;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Value("${bma-cache.ttl-seconds:300}")
+    private long ttlSeconds = 300;
+
+    @Value("${bma-cache.warm-minutes:30}")
+    private long warmMinutes = 30;
+
+    @Value("${bma-cache.refresh-limit:20}")
+    private int refreshLimit = 20;
+
+    @Value("${bma-cache.max-entries:500}")
+    private int maxEntries = 500;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Entry>> inFlight = new ConcurrentHashMap<>();
+    // Last known unit positions, for events that carry only status or ammo
+    private final Map<String, double[]> positions = new ConcurrentHashMap<>();
+    // Generation of the last unit or threat change, and the recent changes by generation
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicReferenceArray<Change> changes = new AtomicReferenceArray<>(CHANGE_LOG_SIZE);
+
+    private Counter hits;
+    private Counter misses;
+    private Counter invalidations;
+    private Counter refreshes;
+    private Timer staleness;
+
+    @PostConstruct
+    public void registerMeters() {
+        hits = Counter.builder(METRIC_PREFIX + ".requests").tag("result", "hit")
+                .description("Recommendation requests served from the cache").register(registry);
+        misses = Counter.builder(METRIC_PREFIX + ".requests").tag("result", "miss")
+                .description("Recommendation requests that had to compute").register(registry);
+        invalidations = Counter.builder(METRIC_PREFIX + ".invalidations")
+                .description("Entries invalidated by unit or threat changes").register(registry);
+        refreshes = Counter.builder(METRIC_PREFIX + ".refreshes")
+                .description("Entries recomputed by the background refresher").register(registry);
+        staleness = Timer.builder(METRIC_PREFIX + ".staleness")
+                .description("Age of the recommendations served from the cache")
+                .publishPercentiles(0.5, 0.95)
+                .distributionStatisticExpiry(Duration.ofMinutes(warmMinutes))
+                .register(registry);
+        Gauge.builder(METRIC_PREFIX + ".entries", entries, Map::size).register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadPositions() {
+        for (Object[] row : unitRepository.findMapState()) {
+            if (row[3] != null && row[4] != null)
+                positions.put((String) row[0], new double[] { (Double) row[3], (Double) row[4] });
+        }
+    }
+
+    public List<BMARecommendationDTO> getRecommendations(String threatId) {
+        if (threatId == null)
+            return new ArrayList<>();
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(threatId);
+        if (entry != null && entry.isFresh(now, ttlSeconds * 1000)) {
+            entry.touch(now);
+            hits.increment();
+            staleness.record(now - entry.computedAt, TimeUnit.MILLISECONDS);
+            return entry.recommendations;
+        }
+        misses.increment();
+        Entry computed = compute(threatId, now);
+        if (computed == null)
+            return new ArrayList<>();
+        if (entry != null)
+            computed.views = entry.views;
+        computed.touch(now);
+        return computed.recommendations;
+    }
+
+    /**
+     * Invalidates the entries a unit change may affect. Only status, ammo and
+     * position matter to the ranking.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUnitChanged(UnitChangedEvent event) {
+        String unitId = event.getUnitId();
+        if (unitId == null)
+            return;
+        if (event.isRemoved()) {
+            positions.remove(unitId);
+        } else if (event.hasLocation()) {
+            positions.put(unitId, new double[] { event.getLat(), event.getLon() });
+        } else if (event.getStatus() == null && event.getAmmoLevel() == null) {
+            return;
+        }
+        // Units leaving service only matter where they are ranked
+        boolean outOfService = event.isRemoved() || event.getStatus() != null
+                && event.getStatus() != UnitStatus.OPERATIONAL && event.getStatus() != UnitStatus.ENGAGED;
+        invalidate(new Change(generation.incrementAndGet(), null, unitId, outOfService, positions.get(unitId)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReportsIngested(IntelReportsIngestedEvent event) {
+        for (IntelligenceReport report : event.getReports()) {
+            invalidate(new Change(generation.incrementAndGet(), report.getId(), null, false, null));
+        }
+    }
+
+    /**
+     * Logs the change for the computations running now, then invalidates the
+     * stored entries it affects.
+     */
+    private void invalidate(Change change) {
+        changes.set((int) (change.generation % CHANGE_LOG_SIZE), change);
+        for (Entry entry : entries.values()) {
+            if (!entry.invalid && affects(change, entry)) {
+                entry.invalid = true;
+                invalidations.increment();
+            }
+        }
+    }
+
+    private static boolean affects(Change change, Entry entry) {
+        if (change.threatId != null)
+            return change.threatId.equals(entry.threatId);
+        if (entry.unitIds.contains(change.unitId))
+            return true;
+        if (change.outOfService)
+            return false;
+        if (entry.recommendations.size() < BMAService.RECOMMENDATION_LIMIT || change.position == null
+                || entry.threatLat == null)
+            return true;
+        double distance = GeoUtils.calculateDistanceKm(change.position[0], change.position[1], entry.threatLat,
+                entry.threatLon);
+        return BMAService.maxRecommendationScore(distance) > entry.minScore;
+    }
+
+    /**
+     * Recomputes invalid or half-expired entries of threats viewed within
+     * warm-minutes, most viewed first, and drops entries nobody viewed.
+     */
+    @Scheduled(fixedDelayString = "${bma-cache.refresh-ms:30000}")
+    public void refresh() {
+        long now = System.currentTimeMillis();
+        long warmSince = now - warmMinutes * 60_000L;
+        entries.values().removeIf(entry -> entry.lastAccess < warmSince);
+
+        List<Entry> due = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            if (!entry.isFresh(now, ttlSeconds * 500))
+                due.add(entry);
+        }
+        due.sort(Comparator.comparingLong((Entry entry) -> entry.views).reversed());
+        for (Entry entry : due.subList(0, Math.min(refreshLimit, due.size()))) {
+            Entry computed = compute(entry.threatId, now);
+            if (computed != null) {
+                computed.views = entry.views;
+                computed.lastAccess = entry.lastAccess;
+                refreshes.increment();
+            }
+        }
+
+        if (entries.size() > maxEntries) {
+            List<Entry> byAccess = new ArrayList<>(entries.values());
+            byAccess.sort(Comparator.comparingLong(entry -> entry.lastAccess));
+            for (Entry entry : byAccess.subList(0, byAccess.size() - maxEntries)) {
+                entries.remove(entry.threatId);
+            }
+        }
+    }
+
+    public BMARecommendationCacheStatsDTO getStats() {
+        HistogramSnapshot snapshot = staleness.takeSnapshot();
+        double p95 = 0;
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            if (value.percentile() == 0.95)
+                p95 = value.value(TimeUnit.MILLISECONDS);
+        }
+        return new BMARecommendationCacheStatsDTO((long) hits.count(), (long) misses.count(),
+                (long) invalidations.count(), (long) refreshes.count(), entries.size(), p95,
+                snapshot.max(TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Computes and stores the entry; concurrent callers for the same threat
+     * wait for the one computation. Changes that landed while it ran were not
+     * seen by invalidate, so they are replayed against the stored entry; if
+     * one is missing (not logged yet, or overwritten) the entry is stored
+     * invalid and the next request recomputes.
+     */
+    private Entry compute(String threatId, long now) {
+        CompletableFuture<Entry> mine = new CompletableFuture<>();
+        CompletableFuture<Entry> running = inFlight.putIfAbsent(threatId, mine);
+        if (running != null)
+            return running.join();
+        try {
+            long since = generation.get();
+            IntelligenceReport threat = intelRepository.findById(threatId).orElse(null);
+            Entry entry = null;
+            if (threat == null) {
+                entries.remove(threatId);
+            } else {
+                entry = new Entry(threatId, threat, bmaService.recommendResponse(threat), now);
+                entries.put(threatId, entry);
+                // Changes after this read find the entry in the map
+                long until = generation.get();
+                for (long g = since + 1; g <= until && !entry.invalid; g++) {
+                    Change change = changes.get((int) (g % CHANGE_LOG_SIZE));
+                    if (change == null || change.generation != g || affects(change, entry)) {
+                        entry.invalid = true;
+                        invalidations.increment();
+                    }
+                }
+            }
+            mine.complete(entry);
+            return entry;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(threatId, mine);
+        }
+    }
+
+    /**
+     * A unit change (unitId, with its position after the change) or a re-filed
+     * threat (threatId).
+     */
+    private static final class Change {
+        final long generation;
+        final String threatId;
+        final String unitId;
+        final boolean outOfService;
+        final double[] position;
+
+        Change(long generation, String threatId, String unitId, boolean outOfService, double[] position) {
+            this.generation = generation;
+            this.threatId = threatId;
+            this.unitId = unitId;
+            this.outOfService = outOfService;
+            this.position = position;
+        }
+    }
+
+    private static final class Entry {
+        final String threatId;
+        final Double threatLat;
+        final Double threatLon;
+        final List<BMARecommendationDTO> recommendations;
+        final Set<String> unitIds = new HashSet<>();
+        final double minScore;
+        final long computedAt;
+        volatile boolean invalid;
+        volatile long lastAccess;
+        volatile long views;
+
+        Entry(String threatId, IntelligenceReport threat, List<BMARecommendationDTO> recommendations,
+                long computedAt) {
+            this.threatId = threatId;
+            this.threatLat = threat.getLocation() != null ? threat.getLocation().getLat() : null;
+            this.threatLon = threat.getLocation() != null ? threat.getLocation().getLon() : null;
+            this.recommendations = List.copyOf(recommendations);
+            double min = Double.MAX_VALUE;
+            for (BMARecommendationDTO recommendation : recommendations) {
+                unitIds.add(recommendation.getUnitId());
+                min = Math.min(min, recommendation.getScore());
+            }
+            this.minScore = min;
+            this.computedAt = computedAt;
+            this.lastAccess = computedAt;
+        }
+
+        boolean isFresh(long now, long maxAgeMillis) {
+            return !invalid && now - computedAt <= maxAgeMillis;
+        }
+
+        void touch(long now) {
+            lastAccess = now;
+            views++;
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package com.simcop.service;
 
 import com.simcop.dto.BMARecommendationDTO;
+import com.simcop.dto.BatchRecommendationRequestDTO;
+import com.simcop.dto.BatchRecommendationResultDTO;
+import com.simcop.dto.BulkResupplyRequestDTO;
+import com.simcop.dto.BulkResupplyResultDTO;
 import com.simcop.dto.LogisticsPredictionDTO;
 import com.simcop.dto.HotspotDTO;
 import com.simcop.model.*;
@@ -8,15 +12,31 @@ import com.simcop.model.embeddable.GeoLocation;
 import com.simcop.repository.MilitaryUnitRepository;
 import com.simcop.repository.IntelligenceReportRepository;
 import com.simcop.repository.LogisticsRequestRepository;
-import com.simcop.repository.AlertRepository;
+import com.simcop.util.AhoCorasickMatcher;
+import com.simcop.util.AssignmentSolver;
+import com.simcop.util.SpatialGrid;
+import com.simcop.util.TextNormalizer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 public class BMAService {
 
+    private static final String STATUS_PENDING = "pendiente";
+    public static final int RECOMMENDATION_LIMIT = 5;
+    public static final int MAX_BATCH_THREATS = 50;
+    // Keeps each threat off the other threats' "no unit" columns
+    private static final double UNASSIGNABLE_COST = 1e9;
+
     @Autowired
     private MilitaryUnitRepository unitRepository;
 
@@ -26,10 +46,30 @@ public class BMAService {
     @Autowired
     private LogisticsRequestRepository logisticsRepository;
 
+    @Autowired
+    private LogisticsForecastService forecastService;
+
     @Autowired
     private WeatherService weatherService;
+
     @Autowired
-    private AlertRepository alertRepository;
+    private CapabilityDictionaryService capabilityDictionary;
+
+    @Autowired
+    private HotspotScoreService hotspotScores;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int bulkBatchSize;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public BMAService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
 
     public List<BMARecommendationDTO> recommendResponse(String threatId) {
         if (threatId == null)
@@ -37,14 +77,114 @@ public class BMAService {
         IntelligenceReport threat = intelRepository.findById(threatId).orElse(null);
         if (threat == null)
             return new ArrayList<>();
+        return recommendResponse(threat);
+    }
 
-        List<MilitaryUnit> operationalUnits = unitRepository.findAll().stream()
-                .filter(u -> u.getStatus() == UnitStatus.OPERATIONAL || u.getStatus() == UnitStatus.ENGAGED)
-                .collect(Collectors.toList());
+    public List<BMARecommendationDTO> recommendResponse(IntelligenceReport threat) {
+        return top(score(snapshotUnits(), threat), RECOMMENDATION_LIMIT);
+    }
+
+    /**
+     * Recommendations for several threats against one snapshot of the
+     * candidate units (one unit query, one weather lookup per unit). With
+     * resolveConflicts, each unit is top-ranked for at most one threat: the
+     * primaries maximize the total score and lead their threat's list, ahead
+     * of the usual ranking as alternates.
+     */
+    public BatchRecommendationResultDTO recommendResponseBatch(BatchRecommendationRequestDTO request) {
+        long start = System.currentTimeMillis();
+        List<String> threatIds = request.getThreatIds() == null ? List.of()
+                : request.getThreatIds().stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        if (threatIds.size() > MAX_BATCH_THREATS)
+            throw new IllegalArgumentException("At most " + MAX_BATCH_THREATS + " threats per batch");
+
+        BatchRecommendationResultDTO result = new BatchRecommendationResultDTO();
+        Map<String, IntelligenceReport> found = new HashMap<>();
+        intelRepository.findAllById(threatIds).forEach(threat -> found.put(threat.getId(), threat));
+        List<IntelligenceReport> threats = new ArrayList<>();
+        for (String threatId : threatIds) {
+            IntelligenceReport threat = found.get(threatId);
+            if (threat == null || threat.getLocation() == null)
+                result.getSkippedThreatIds().add(threatId);
+            else
+                threats.add(threat);
+        }
 
-        List<BMARecommendationDTO> recommendations = new ArrayList<>();
+        List<UnitSnapshot> units = snapshotUnits();
+        // Per threat, one recommendation per unit in snapshot order
+        List<List<BMARecommendationDTO>> scores = new ArrayList<>();
+        for (IntelligenceReport threat : threats) {
+            scores.add(score(units, threat));
+        }
+
+        int n = threats.size(), m = units.size();
+        String[] primaries = new String[n];
+        boolean resolve = request.isResolveConflicts() && n > 0 && m > 0;
+        if (resolve) {
+            // Maximize the total score; one "no unit" column per threat keeps n <= m
+            double[][] cost = new double[n][m + n];
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < m; j++)
+                    cost[i][j] = -scores.get(i).get(j).getScore();
+                Arrays.fill(cost[i], m, m + n, UNASSIGNABLE_COST);
+                cost[i][m + i] = 0;
+            }
+            int[] match = AssignmentSolver.solve(cost);
+            for (int i = 0; i < n; i++) {
+                if (match[i] < m)
+                    primaries[i] = units.get(match[i]).unit.getId();
+            }
+        }
 
-        for (MilitaryUnit unit : operationalUnits) {
+        for (int i = 0; i < n; i++) {
+            IntelligenceReport threat = threats.get(i);
+            List<BMARecommendationDTO> ranked = top(scores.get(i), Integer.MAX_VALUE);
+            List<BMARecommendationDTO> recommendations = new ArrayList<>();
+            String primary = primaries[i];
+            if (primary != null) {
+                ranked.stream().filter(r -> r.getUnitId().equals(primary)).findFirst()
+                        .ifPresent(recommendations::add);
+            }
+            for (BMARecommendationDTO recommendation : ranked) {
+                if (recommendations.size() >= RECOMMENDATION_LIMIT)
+                    break;
+                if (!recommendation.getUnitId().equals(primary))
+                    recommendations.add(recommendation);
+            }
+            result.getThreats().add(new BatchRecommendationResultDTO.ThreatRecommendations(threat.getId(),
+                    threat.getTitle(), primary, recommendations));
+        }
+        result.setConflictsResolved(resolve);
+        result.setUnitsScored(m);
+        result.setElapsedMillis(System.currentTimeMillis() - start);
+        return result;
+    }
+
+    /**
+     * Operational and engaged units with what does not depend on the threat:
+     * normalized capabilities, status and ammo factors, and mobility (weather
+     * and terrain).
+     */
+    private List<UnitSnapshot> snapshotUnits() {
+        List<UnitSnapshot> snapshots = new ArrayList<>();
+        for (MilitaryUnit unit : unitRepository.findAll()) {
+            if ((unit.getStatus() == UnitStatus.OPERATIONAL || unit.getStatus() == UnitStatus.ENGAGED)
+                    && unit.getLocation() != null)
+                snapshots.add(new UnitSnapshot(unit));
+        }
+        return snapshots;
+    }
+
+    /**
+     * One recommendation per unit, in snapshot order.
+     */
+    private List<BMARecommendationDTO> score(List<UnitSnapshot> units, IntelligenceReport threat) {
+        // One automaton per threat; each unit's capabilities are then scanned once
+        AhoCorasickMatcher threatMatcher = AhoCorasickMatcher.of(TextNormalizer.normalizeAll(threat.getKeywords()));
+        List<BMARecommendationDTO> recommendations = new ArrayList<>(units.size());
+
+        for (UnitSnapshot snapshot : units) {
+            MilitaryUnit unit = snapshot.unit;
             double distance = calculateDistance(
                     unit.getLocation().getLat(), unit.getLocation().getLon(),
                     threat.getLocation().getLat(), threat.getLocation().getLon());
@@ -53,116 +193,124 @@ public class BMAService {
             StringBuilder reasoning = new StringBuilder();
 
             // 1. Distance factor (0-40 score)
-            // Assuming max response radius of 50km for full points
-            double distanceScore = Math.max(0, 40 * (1 - (distance / 50.0)));
-            score -= (40 - distanceScore);
+            score -= (40 - distanceScore(distance));
             reasoning.append(String.format("Distancia: %.2f km. ", distance));
 
+            // 2-3. Status and Ammo & Supplies
+            score -= snapshot.readinessPenalty;
+            reasoning.append(snapshot.readinessReasoning);
+
+            // 4. Capability Match (0-20 score): any threat keyword inside any capability
+            if (threatMatcher.matchesAny(snapshot.capabilities)) {
+                score += 10;
+                reasoning.append("Capacidad de la unidad coincide con la amenaza. ");
+            }
+
+            reasoning.append(snapshot.mobilityReasoning);
+            double timeToIntercept = (distance / snapshot.speedKmH) * 60; // in minutes
+
+            recommendations.add(new BMARecommendationDTO(
+                    unit.getId(),
+                    unit.getName(),
+                    reasoning.toString().trim(),
+                    Math.max(0, score),
+                    timeToIntercept));
+        }
+        return recommendations;
+    }
+
+    private static List<BMARecommendationDTO> top(List<BMARecommendationDTO> recommendations, int limit) {
+        return recommendations.stream()
+                .sorted(Comparator.comparingDouble(BMARecommendationDTO::getScore).reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Threat-independent part of a unit's recommendation.
+     */
+    private final class UnitSnapshot {
+        final MilitaryUnit unit;
+        final String capabilities;
+        final double readinessPenalty;
+        final String readinessReasoning;
+        final double speedKmH;
+        final String mobilityReasoning;
+
+        UnitSnapshot(MilitaryUnit unit) {
+            this.unit = unit;
+            this.capabilities = capabilityDictionary.normalizedCapabilities(unit);
+
+            double penalty = 0;
+            StringBuilder readiness = new StringBuilder();
             // 2. Status factor (0-20 score)
             if (unit.getStatus() == UnitStatus.OPERATIONAL) {
-                reasoning.append("Unidad plenamente operativa. ");
+                readiness.append("Unidad plenamente operativa. ");
             } else if (unit.getStatus() == UnitStatus.ENGAGED) {
-                score -= 10;
-                reasoning.append("Unidad actualmente en combate (disponibilidad reducida). ");
+                penalty += 10;
+                readiness.append("Unidad actualmente en combate (disponibilidad reducida). ");
             }
 
             // 3. Ammo & Supplies (0-20 score)
             if (unit.getAmmoLevel() != null) {
                 if (unit.getAmmoLevel() < 0.3) {
-                    score -= 15;
-                    reasoning.append("Nivel crítico de munición (").append(Math.round(unit.getAmmoLevel() * 100))
+                    penalty += 15;
+                    readiness.append("Nivel crítico de munición (").append(Math.round(unit.getAmmoLevel() * 100))
                             .append("%). ");
                 } else if (unit.getAmmoLevel() < 0.6) {
-                    score -= 5;
-                    reasoning.append("Nivel medio de munición. ");
-                }
-            }
-
-            // 4. Capability Match (0-20 score)
-            boolean match = false;
-            for (String cap : unit.getCapabilities()) {
-                for (String key : threat.getKeywords()) {
-                    if (cap.toLowerCase().contains(key.toLowerCase())) {
-                        match = true;
-                        break;
-                    }
+                    penalty += 5;
+                    readiness.append("Nivel medio de munición. ");
                 }
             }
-            if (match) {
-                score += 10;
-                reasoning.append("Capacidad de la unidad coincide con la amenaza. ");
-            }
+            this.readinessPenalty = penalty;
+            this.readinessReasoning = readiness.toString();
 
-            double speedKmH = 25.0; // Base cross-country speed
+            double speed = 25.0; // Base cross-country speed
+            StringBuilder mobility = new StringBuilder();
 
             // Integrate weather impact on mobility
             WeatherInfo weather = weatherService.getCurrentWeather(unit.getLocation().getLat(),
                     unit.getLocation().getLon());
             if (weather.isOperationalImpact()) {
-                speedKmH *= 0.6; // 40% reduction for adverse weather
-                reasoning.append("Movilidad reducida por clima (").append(weather.getCondition()).append("). ");
+                speed *= 0.6; // 40% reduction for adverse weather
+                mobility.append("Movilidad reducida por clima (").append(weather.getCondition()).append("). ");
             } else if (weather.getCondition().equals("Nublado")) {
-                speedKmH *= 0.85; // 15% reduction
+                speed *= 0.85; // 15% reduction
             }
 
             // --- CCM Analysis (Terrain/Slope Simulation) ---
             // Simulating higher difficulty in mountainous areas (simplified by Lat/Lon)
             if (unit.getLocation().getLat() > 6.0 || unit.getLocation().getLat() < 2.0) {
-                speedKmH *= 0.8; // 20% reduction for suspected high slopes / rugged terrain
-                reasoning.append("Terreno accidentado detectado (CCM). ");
+                speed *= 0.8; // 20% reduction for suspected high slopes / rugged terrain
+                mobility.append("Terreno accidentado detectado (CCM). ");
             }
-
-            double timeToIntercept = (distance / speedKmH) * 60; // in minutes
-
-            recommendations.add(new BMARecommendationDTO(
-                    unit.getId(),
-                    unit.getName(),
-                    reasoning.toString().trim(),
-                    Math.max(0, score),
-                    timeToIntercept));
+            this.speedKmH = speed;
+            this.mobilityReasoning = mobility.toString();
         }
+    }
 
-        return recommendations.stream()
-                .sorted(Comparator.comparingDouble(BMARecommendationDTO::getScore).reversed())
-                .limit(5)
-                .collect(Collectors.toList());
+    /**
+     * Highest score recommendResponse can give a unit at this distance from
+     * the threat (fully operational, no ammo penalty, capability match).
+     */
+    public static double maxRecommendationScore(double distanceKm) {
+        return 100.0 - (40 - distanceScore(distanceKm)) + 10;
     }
 
-    public List<LogisticsPredictionDTO> predictLogistics() {
-        return unitRepository.findAll().stream()
-                .filter(u -> u.getDaysOfSupply() != null && u.getDaysOfSupply() < 7.0)
-                .map(unit -> {
-                    String status = unit.getDaysOfSupply() < 2.0 ? "CRÍTICO" : "BAJO";
-                    String recommendation = "Programar reabastecimiento urgente.";
-
-                    // Suggest closest support unit (Battalion/Brigade)
-                    MilitaryUnit support = findClosestSupportUnit(unit);
-                    if (support != null) {
-                        recommendation = "Reabastecer desde " + support.getName() + " (" +
-                                Math.round(calculateDistance(unit.getLocation().getLat(), unit.getLocation().getLon(),
-                                        support.getLocation().getLat(), support.getLocation().getLon()))
-                                + " km).";
-                    }
+    // Assuming max response radius of 50km for full points
+    private static double distanceScore(double distanceKm) {
+        return Math.max(0, 40 * (1 - (distanceKm / 50.0)));
+    }
 
-                    return new LogisticsPredictionDTO(
-                            unit.getId(),
-                            unit.getName(),
-                            unit.getDaysOfSupply(),
-                            status,
-                            recommendation);
-                })
-                .sorted(Comparator.comparingDouble(LogisticsPredictionDTO::getDaysRemaining))
-                .collect(Collectors.toList());
+    public List<LogisticsPredictionDTO> predictLogistics() {
+        return forecastService.getPredictions();
     }
 
-    private MilitaryUnit findClosestSupportUnit(MilitaryUnit unit) {
-        return unitRepository.findAll().stream()
-                .filter(u -> u.getType() == UnitType.BATTALION || u.getType() == UnitType.BRIGADE)
-                .filter(u -> !u.getId().equals(unit.getId()))
-                .min(Comparator.comparingDouble(u -> calculateDistance(
-                        unit.getLocation().getLat(), unit.getLocation().getLon(),
-                        u.getLocation().getLat(), u.getLocation().getLon())))
-                .orElse(null);
+    private SpatialGrid.Entry<String> findClosestSupportUnit(MilitaryUnit unit) {
+        if (unit.getLocation() == null)
+            return null;
+        return forecastService.findClosestSupport(unit.getLocation().getLat(), unit.getLocation().getLon(),
+                unit.getId());
     }
 
     public void requestResupply(String unitId) {
@@ -172,10 +320,71 @@ public class BMAService {
         if (unit == null)
             return;
 
-        MilitaryUnit support = findClosestSupportUnit(unit);
+        logisticsRepository.save(buildResupplyRequest(unit, findClosestSupportUnit(unit), System.currentTimeMillis()));
+    }
+
+    /**
+     * Generates resupply requests for many units at once: one unit query, one
+     * pending-request query, in-memory support lookups and a single batched
+     * insert. Units with a request already pending are skipped.
+     */
+    @Transactional
+    public BulkResupplyResultDTO requestResupplyBulk(BulkResupplyRequestDTO bulkRequest) {
+        Set<String> unitIds = new LinkedHashSet<>();
+        if (bulkRequest.getUnitIds() != null) {
+            unitIds.addAll(bulkRequest.getUnitIds());
+        }
+        if (bulkRequest.getStatus() != null) {
+            forecastService.getPredictions().stream()
+                    .filter(p -> bulkRequest.getStatus().equalsIgnoreCase(p.getStatus()))
+                    .forEach(p -> unitIds.add(p.getUnitId()));
+        }
+
+        BulkResupplyResultDTO result = new BulkResupplyResultDTO();
+        if (unitIds.isEmpty())
+            return result;
+
+        Map<String, MilitaryUnit> units = unitRepository.findAllById(unitIds).stream()
+                .collect(Collectors.toMap(MilitaryUnit::getId, u -> u));
+        Set<String> alreadyPending = logisticsRepository
+                .findByOriginatingUnitIdInAndStatus(units.keySet(), STATUS_PENDING).stream()
+                .map(LogisticsRequest::getOriginatingUnitId)
+                .collect(Collectors.toSet());
+
+        long now = System.currentTimeMillis();
+        int pendingInBatch = 0;
+        for (String unitId : unitIds) {
+            MilitaryUnit unit = units.get(unitId);
+            if (unit == null) {
+                result.addOutcome(new BulkResupplyResultDTO.UnitOutcome(unitId, null,
+                        BulkResupplyResultDTO.NOT_FOUND, null, null));
+                continue;
+            }
+            if (alreadyPending.contains(unitId)) {
+                result.addOutcome(new BulkResupplyResultDTO.UnitOutcome(unitId, unit.getName(),
+                        BulkResupplyResultDTO.ALREADY_PENDING, null, null));
+                continue;
+            }
+
+            SpatialGrid.Entry<String> support = findClosestSupportUnit(unit);
+            LogisticsRequest request = buildResupplyRequest(unit, support, now);
+            // persist() rather than save(): assigned ids would make save() merge (SELECT) each row
+            entityManager.persist(request);
+            if (++pendingInBatch >= bulkBatchSize) {
+                entityManager.flush();
+                pendingInBatch = 0;
+            }
+            result.addOutcome(new BulkResupplyResultDTO.UnitOutcome(unitId, unit.getName(),
+                    BulkResupplyResultDTO.CREATED, request.getId(), support != null ? support.getValue() : null));
+        }
+        return result;
+    }
+
+    private LogisticsRequest buildResupplyRequest(MilitaryUnit unit, SpatialGrid.Entry<String> support,
+            long timestamp) {
         String details = "Solicitud automática generada por BMA. Se requiere reabastecimiento urgente de munición y suministros.";
         if (support != null) {
-            details += " Unidad de apoyo recomendada: " + support.getName();
+            details += " Unidad de apoyo recomendada: " + support.getValue();
         }
 
         LogisticsRequest request = new LogisticsRequest();
@@ -183,98 +392,105 @@ public class BMAService {
         request.setOriginatingUnitId(unit.getId());
         request.setOriginatingUnitName(unit.getName());
         request.setDetails(details);
-        request.setRequestTimestamp(System.currentTimeMillis());
-        request.setStatus("pendiente");
-
-        logisticsRepository.save(request);
+        request.setRequestTimestamp(timestamp);
+        request.setStatus(STATUS_PENDING);
+        return request;
     }
 
+    /**
+     * Live hotspots from the incrementally maintained weighted density (graded
+     * and age-decayed reports). Units inside them are alerted by
+     * GeofenceService as positions and reports arrive.
+     */
     public List<HotspotDTO> identifyHotspots() {
-        return identifyHotspotsForPeriod(System.currentTimeMillis() - (24 * 60 * 60 * 1000L)); // Last 24h by default
+        return hotspotScores.getHotspots();
     }
 
+    /**
+     * Hotspots of a past window, for review only: unlike the live hotspots they
+     * raise no alerts.
+     */
     public List<HotspotDTO> identifyHotspotsForPeriod(long sinceTimestamp) {
-        List<IntelligenceReport> reports = intelRepository.findAll().stream()
-                .filter(r -> r.getEventTimestamp() >= sinceTimestamp)
-                .collect(Collectors.toList());
+        return identifyHotspotsForPeriod(sinceTimestamp, Long.MAX_VALUE);
+    }
+
+    public List<HotspotDTO> identifyHotspotsForPeriod(long sinceTimestamp, long untilTimestamp) {
+        double[][] locations = loadReportLocations(sinceTimestamp, untilTimestamp);
+        double[] lats = locations[0];
+        double[] lons = locations[1];
         List<HotspotDTO> hotspots = new ArrayList<>();
-        if (reports.isEmpty())
+        if (lats.length == 0)
             return hotspots;
 
         // Simple clustering: group reports within 5km
-        boolean[] processed = new boolean[reports.size()];
+        boolean[] processed = new boolean[lats.length];
 
-        for (int i = 0; i < reports.size(); i++) {
+        for (int i = 0; i < lats.length; i++) {
             if (processed[i])
                 continue;
 
-            List<IntelligenceReport> cluster = new ArrayList<>();
-            cluster.add(reports.get(i));
+            int clusterSize = 1;
+            double sumLat = lats[i], sumLon = lons[i];
             processed[i] = true;
 
-            for (int j = i + 1; j < reports.size(); j++) {
+            for (int j = i + 1; j < lats.length; j++) {
                 if (processed[j])
                     continue;
 
-                double dist = calculateDistance(
-                        reports.get(i).getLocation().getLat(), reports.get(i).getLocation().getLon(),
-                        reports.get(j).getLocation().getLat(), reports.get(j).getLocation().getLon());
+                double dist = calculateDistance(lats[i], lons[i], lats[j], lons[j]);
 
                 if (dist < 5.0) { // 5km radius
-                    cluster.add(reports.get(j));
+                    clusterSize++;
+                    sumLat += lats[j];
+                    sumLon += lons[j];
                     processed[j] = true;
                 }
             }
 
-            if (cluster.size() >= 3) { // Only clusters with 3+ reports
+            if (clusterSize >= 3) { // Only clusters with 3+ reports
                 // Calculate average center
-                double avgLat = cluster.stream().mapToDouble(r -> r.getLocation().getLat()).average().orElse(0);
-                double avgLon = cluster.stream().mapToDouble(r -> r.getLocation().getLon()).average().orElse(0);
+                double avgLat = sumLat / clusterSize;
+                double avgLon = sumLon / clusterSize;
 
-                String description = "Concentración detectada de " + cluster.size()
+                String description = "Concentración detectada de " + clusterSize
                         + " reportes. Área de riesgo elevado.";
-                hotspots.add(new HotspotDTO(new GeoLocation(avgLat, avgLon), 5.0, cluster.size(), description));
-
-                // Proactive Alerting: Check if any operational unit is within this hotspot
-                checkAndAlertUnitsInHotspot(avgLat, avgLon, cluster.size());
+                hotspots.add(new HotspotDTO(new GeoLocation(avgLat, avgLon), 5.0, clusterSize, description));
             }
         }
 
         return hotspots;
     }
 
-    private void checkAndAlertUnitsInHotspot(double hotspotLat, double hotspotLon, int intensity) {
-        List<MilitaryUnit> units = unitRepository.findAll().stream()
-                .filter(u -> u.getStatus() == UnitStatus.OPERATIONAL || u.getStatus() == UnitStatus.ENGAGED)
-                .collect(Collectors.toList());
-
-        for (MilitaryUnit unit : units) {
-            double dist = calculateDistance(unit.getLocation().getLat(), unit.getLocation().getLon(), hotspotLat,
-                    hotspotLon);
-            if (dist < 5.0) { // Same as cluster radius
-                // Check if an alert already exists for this unit and type today to avoid spam
-                long todayStart = System.currentTimeMillis() - (System.currentTimeMillis() % 86400000);
-                boolean exists = alertRepository.findAll().stream()
-                        .anyMatch(a -> a.getUnitId() != null && a.getUnitId().equals(unit.getId())
-                                && a.getType() == AlertType.BMA_HOTSPOT_THREAT
-                                && a.getTimestamp() > todayStart
-                                && !a.isAcknowledged());
-
-                if (!exists) {
-                    Alert alert = new Alert();
-                    alert.setId(UUID.randomUUID().toString());
-                    alert.setType(AlertType.BMA_HOTSPOT_THREAT);
-                    alert.setUnitId(unit.getId());
-                    alert.setSeverity(AlertSeverity.HIGH);
-                    alert.setTimestamp(System.currentTimeMillis());
-                    alert.setLocation(unit.getLocation());
-                    alert.setMessage("ALERTA BMA: La unidad " + unit.getName()
-                            + " se encuentra en un Punto Crítico de alta intensidad (" + intensity
-                            + " reportes). Incrementar alerta.");
-                    alertRepository.save(alert);
+    /**
+     * Locations ([lats, lons]) of the reports whose event time falls in the
+     * window; near-duplicates count once, through their canonical report.
+     * Reports are streamed in fetch-size chunks and detached one by one, so a
+     * long window never holds the table, or its keyword collections, in the
+     * heap.
+     */
+    private double[][] loadReportLocations(long from, long to) {
+        return readOnlyTransaction.execute(status -> {
+            double[] lats = new double[256];
+            double[] lons = new double[256];
+            int count = 0;
+            try (Stream<IntelligenceReport> reports = intelRepository.streamCanonicalByEventTimestampBetween(from, to)) {
+                Iterator<IntelligenceReport> it = reports.iterator();
+                while (it.hasNext()) {
+                    IntelligenceReport report = it.next();
+                    if (report.getLocation() != null) {
+                        if (count == lats.length) {
+                            lats = Arrays.copyOf(lats, count * 2);
+                            lons = Arrays.copyOf(lons, count * 2);
+                        }
+                        lats[count] = report.getLocation().getLat();
+                        lons[count] = report.getLocation().getLon();
+                        count++;
+                    }
+                    entityManager.detach(report);
                 }
             }
-        }
+            return new double[][] { Arrays.copyOf(lats, count), Arrays.copyOf(lons, count) };
+        });
     }
 
     private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
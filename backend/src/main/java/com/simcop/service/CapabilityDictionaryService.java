@@ -0,0 +1,58 @@
+package com.simcop.service;
+
+import com.simcop.model.MilitaryUnit;
+import com.simcop.util.TextNormalizer;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Normalized (lowercase, accent-folded) capability text per unit, computed
+ * when the unit is saved instead of on every BMA request. Entries remember
+ * the capability list they were built from, so a change that bypassed the
+ * entity listener (e.g. only the element collection was rewritten) is
+ * picked up on the next lookup.
+ */
+@Service
+public class CapabilityDictionaryService {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public void update(MilitaryUnit unit) {
+        if (unit.getId() != null) {
+            entries.put(unit.getId(), new Entry(unit.getCapabilities()));
+        }
+    }
+
+    public void remove(String unitId) {
+        entries.remove(unitId);
+    }
+
+    /**
+     * The unit's capabilities, normalized and joined with
+     * TextNormalizer.SEPARATOR.
+     */
+    public String normalizedCapabilities(MilitaryUnit unit) {
+        if (unit.getId() == null)
+            return TextNormalizer.normalizeJoined(unit.getCapabilities());
+        Entry entry = entries.get(unit.getId());
+        if (entry == null || !entry.source.equals(unit.getCapabilities())) {
+            entry = new Entry(unit.getCapabilities());
+            entries.put(unit.getId(), entry);
+        }
+        return entry.normalized;
+    }
+
+    private static final class Entry {
+        final List<String> source;
+        final String normalized;
+
+        Entry(List<String> capabilities) {
+            this.source = capabilities != null ? new ArrayList<>(capabilities) : new ArrayList<>();
+            this.normalized = TextNormalizer.normalizeJoined(this.source);
+        }
+    }
+}
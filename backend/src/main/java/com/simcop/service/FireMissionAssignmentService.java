@@ -0,0 +1,223 @@
+package com.simcop.service;
+
+import com.simcop.dto.FireMissionAssignmentPlanDTO;
+import com.simcop.dto.FireMissionEventDTO;
+import com.simcop.model.AmmoType;
+import com.simcop.model.ArtilleryPiece;
+import com.simcop.model.ArtilleryStatus;
+import com.simcop.model.FireMission;
+import com.simcop.model.FireMissionStatus;
+import com.simcop.repository.ArtilleryPieceRepository;
+import com.simcop.repository.FireMissionRepository;
+import com.simcop.util.GeoUtils;
+import com.simcop.util.MinCostFlow;
+import com.simcop.util.SpatialGrid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * Assigns every pending fire mission to an artillery piece in one optimal
+ * matching (min-cost flow). A mission-piece pair is feasible when the target
+ * lies inside the piece's min/max range annulus; each piece takes at most its
+ * free queue capacity in total and at most its stock of each ammo type. Cost
+ * favours targets well inside range and shorter queues.
+ */
+@Service
+public class FireMissionAssignmentService {
+
+    private static final Set<ArtilleryStatus> ELIGIBLE_STATUSES = EnumSet.of(ArtilleryStatus.READY,
+            ArtilleryStatus.FIRING);
+    private static final List<FireMissionStatus> QUEUED_STATUSES = List.of(FireMissionStatus.APPROVED,
+            FireMissionStatus.ACTIVE);
+
+    private static final double QUEUE_WEIGHT = 0.5; // Cost of waiting behind one more mission
+    private static final double UNASSIGNED_COST = 1e6;
+    private static final double INDEX_CELL_DEG = 0.25;
+
+    @Autowired
+    private FireMissionRepository missionRepository;
+
+    @Autowired
+    private ArtilleryPieceRepository artilleryRepository;
+
+    @Autowired
+    private FireMissionEventService eventService;
+
+    @Value("${fire-missions.max-queue-per-piece:3}")
+    private int maxQueuePerPiece = 3;
+
+    @Transactional
+    public FireMissionAssignmentPlanDTO autoAssign(boolean apply) {
+        List<FireMission> pending = missionRepository.findByStatus(FireMissionStatus.PENDING);
+        List<ArtilleryPiece> pieces = artilleryRepository.findAll();
+        Map<String, Integer> queueLoad = new HashMap<>();
+        for (Object[] row : missionRepository.countQueuedByArtillery(QUEUED_STATUSES)) {
+            queueLoad.put((String) row[0], ((Long) row[1]).intValue());
+        }
+
+        FireMissionAssignmentPlanDTO plan = solve(pending, pieces, queueLoad);
+
+        if (apply && !plan.getAssignments().isEmpty()) {
+            long now = System.currentTimeMillis();
+            Map<String, FireMission> byId = new HashMap<>();
+            pending.forEach(m -> byId.put(m.getId(), m));
+            for (FireMissionAssignmentPlanDTO.Assignment assignment : plan.getAssignments()) {
+                FireMission mission = byId.get(assignment.getMissionId());
+                mission.setAssignedArtilleryId(assignment.getArtilleryId());
+                mission.setStatus(FireMissionStatus.APPROVED); // Ready to fire
+                mission.setApprovedTimestamp(now);
+            }
+            missionRepository.saveAll(byId.values());
+            for (FireMissionAssignmentPlanDTO.Assignment assignment : plan.getAssignments()) {
+                eventService.publish(FireMissionEventDTO.EventType.ASSIGNED, FireMissionStatus.PENDING,
+                        byId.get(assignment.getMissionId()));
+            }
+            plan.setApplied(true);
+        }
+        return plan;
+    }
+
+    /**
+     * Pure solver: no repository access, so it can be benchmarked standalone.
+     */
+    public FireMissionAssignmentPlanDTO solve(List<FireMission> missions, List<ArtilleryPiece> pieces,
+            Map<String, Integer> queueLoad) {
+        long start = System.currentTimeMillis();
+        FireMissionAssignmentPlanDTO plan = new FireMissionAssignmentPlanDTO();
+
+        // Eligible pieces with free queue positions
+        SpatialGrid<ArtilleryPiece> index = new SpatialGrid<>(INDEX_CELL_DEG);
+        double maxRangeKm = 0;
+        for (ArtilleryPiece piece : pieces) {
+            if (piece.getLocation() == null || !ELIGIBLE_STATUSES.contains(piece.getStatus()))
+                continue;
+            if (maxQueuePerPiece - queueLoad.getOrDefault(piece.getId(), 0) <= 0)
+                continue;
+            index.put(piece.getId(), piece.getLocation().getLat(), piece.getLocation().getLon(), piece);
+            maxRangeKm = Math.max(maxRangeKm, piece.getMaxRange() / 1000.0);
+        }
+
+        // Feasible (piece, cost, distance) options per mission; missions with none skip the solver
+        List<FireMission> solvable = new ArrayList<>();
+        List<List<Option>> solvableOptions = new ArrayList<>();
+        for (FireMission mission : missions) {
+            AmmoType ammoType = requestedAmmo(mission);
+            if (mission.getTargetLocation() == null || index.size() == 0 || ammoType == null) {
+                plan.getUnassignedMissionIds().add(mission.getId());
+                continue;
+            }
+            List<Option> options = new ArrayList<>();
+            double lat = mission.getTargetLocation().getLat();
+            double lon = mission.getTargetLocation().getLon();
+            for (SpatialGrid.Entry<ArtilleryPiece> candidate : index.withinRadius(lat, lon, maxRangeKm)) {
+                ArtilleryPiece piece = candidate.getValue();
+                double dist = GeoUtils.calculateDistanceMeters(piece.getLocation(), mission.getTargetLocation());
+                if (dist > piece.getMaxRange() || dist < piece.getMinRange() || piece.getAmmo(ammoType) <= 0)
+                    continue;
+                options.add(new Option(piece, ammoType, dist));
+            }
+            if (options.isEmpty()) {
+                plan.getUnassignedMissionIds().add(mission.getId());
+            } else {
+                solvable.add(mission);
+                solvableOptions.add(options);
+            }
+        }
+
+        int n = solvable.size();
+        if (n > 0) {
+            // Flow: source -> mission -> (piece, ammo type) capped at the stock of that type
+            // -> piece, whose free queue positions lead to the sink at increasing queue cost.
+            // Each mission may also go straight to the sink as unassigned.
+            Map<String, Integer> stockNodes = new HashMap<>();
+            Map<String, Integer> pieceNodes = new LinkedHashMap<>();
+            for (List<Option> options : solvableOptions) {
+                for (Option option : options) {
+                    pieceNodes.putIfAbsent(option.piece.getId(), 2 + n + pieceNodes.size());
+                }
+            }
+            for (List<Option> options : solvableOptions) {
+                for (Option option : options) {
+                    stockNodes.putIfAbsent(option.stockKey(), 2 + n + pieceNodes.size() + stockNodes.size());
+                }
+            }
+            int source = 0, sink = 1;
+            MinCostFlow flow = new MinCostFlow(2 + n + pieceNodes.size() + stockNodes.size());
+
+            for (Map.Entry<String, Integer> entry : pieceNodes.entrySet()) {
+                int load = queueLoad.getOrDefault(entry.getKey(), 0);
+                for (int k = load; k < maxQueuePerPiece; k++)
+                    flow.addEdge(entry.getValue(), sink, 1, QUEUE_WEIGHT * k);
+            }
+            Set<String> cappedStock = new HashSet<>();
+            List<List<Integer>> optionEdges = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                flow.addEdge(source, 2 + i, 1, 0);
+                flow.addEdge(2 + i, sink, 1, UNASSIGNED_COST);
+                List<Integer> edgeIds = new ArrayList<>();
+                for (Option option : solvableOptions.get(i)) {
+                    int stockNode = stockNodes.get(option.stockKey());
+                    if (cappedStock.add(option.stockKey()))
+                        flow.addEdge(stockNode, pieceNodes.get(option.piece.getId()),
+                                option.piece.getAmmo(option.ammoType), 0);
+                    edgeIds.add(flow.addEdge(2 + i, stockNode, 1, option.dist / option.piece.getMaxRange()));
+                }
+                optionEdges.add(edgeIds);
+            }
+
+            flow.solve(source, sink, n);
+
+            // Queue positions on each piece go to its closest targets first
+            Map<String, List<Integer>> byPiece = new LinkedHashMap<>();
+            Option[] chosen = new Option[n];
+            for (int i = 0; i < n; i++) {
+                List<Option> options = solvableOptions.get(i);
+                for (int k = 0; k < options.size(); k++) {
+                    if (flow.getFlow(optionEdges.get(i).get(k)) > 0)
+                        chosen[i] = options.get(k);
+                }
+                if (chosen[i] == null)
+                    plan.getUnassignedMissionIds().add(solvable.get(i).getId());
+                else
+                    byPiece.computeIfAbsent(chosen[i].piece.getId(), k -> new ArrayList<>()).add(i);
+            }
+            for (Map.Entry<String, List<Integer>> entry : byPiece.entrySet()) {
+                List<Integer> assigned = entry.getValue();
+                assigned.sort(Comparator.comparingDouble(i -> chosen[i].dist / chosen[i].piece.getMaxRange()));
+                int position = queueLoad.getOrDefault(entry.getKey(), 0);
+                for (int i : assigned) {
+                    ArtilleryPiece piece = chosen[i].piece;
+                    plan.getAssignments().add(new FireMissionAssignmentPlanDTO.Assignment(solvable.get(i).getId(),
+                            piece.getId(), piece.getName(), chosen[i].dist, position++));
+                }
+            }
+        }
+
+        plan.setSolveMillis(System.currentTimeMillis() - start);
+        return plan;
+    }
+
+    private static final class Option {
+        final ArtilleryPiece piece;
+        final AmmoType ammoType;
+        final double dist;
+
+        Option(ArtilleryPiece piece, AmmoType ammoType, double dist) {
+            this.piece = piece;
+            this.ammoType = ammoType;
+            this.dist = dist;
+        }
+
+        String stockKey() {
+            return piece.getId() + ":" + ammoType;
+        }
+    }
+
+    private static AmmoType requestedAmmo(FireMission mission) {
+        return AmmoType.fromName(mission.getProjectileType() != null ? mission.getProjectileType() : "HE");
+    }
+}
@@ -0,0 +1,81 @@
+package com.simcop.service;
+
+import com.simcop.dto.FireMissionEventDTO;
+import com.simcop.dto.FireMissionEventPageDTO;
+import com.simcop.model.FireMission;
+import com.simcop.model.FireMissionStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Numbers every fire mission transition and pushes it to /topic/fire-missions.
+ * Events are published only after their transaction commits, and the most
+ * recent ones are kept in a ring buffer so reconnecting clients can catch up
+ * with since=sequence instead of reloading every list. Committed transitions
+ * also feed the stage latency timers.
+ */
+@Service
+public class FireMissionEventService {
+
+    public static final String TOPIC = "/topic/fire-missions";
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private FireMissionMetricsService metricsService;
+
+    private final FireMissionEventDTO[] buffer;
+    private long latestSequence = 0;
+
+    public FireMissionEventService(@Value("${fire-missions.event-buffer-size:1000}") int bufferSize) {
+        this.buffer = new FireMissionEventDTO[Math.max(1, bufferSize)];
+    }
+
+    public void publish(FireMissionEventDTO.EventType type, FireMissionStatus previousStatus, FireMission mission) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    append(type, previousStatus, mission);
+                    metricsService.onTransition(previousStatus, mission);
+                }
+            });
+        } else {
+            append(type, previousStatus, mission);
+            metricsService.onTransition(previousStatus, mission);
+        }
+    }
+
+    /**
+     * Events with a sequence greater than the given one, oldest first.
+     */
+    public synchronized FireMissionEventPageDTO since(long sequence) {
+        long oldest = Math.max(1, latestSequence - buffer.length + 1);
+        // A sequence ahead of ours means the client saw a previous server run
+        boolean complete = sequence <= latestSequence && sequence >= oldest - 1;
+        long from = complete ? sequence + 1 : oldest;
+
+        List<FireMissionEventDTO> events = new ArrayList<>();
+        for (long s = from; s <= latestSequence; s++) {
+            events.add(buffer[(int) (s % buffer.length)]);
+        }
+        return new FireMissionEventPageDTO(latestSequence, complete, events);
+    }
+
+    // Sequence assignment and send share the lock, so the topic sees sequences in order
+    private synchronized void append(FireMissionEventDTO.EventType type, FireMissionStatus previousStatus,
+            FireMission mission) {
+        FireMissionEventDTO event = new FireMissionEventDTO(++latestSequence, type, previousStatus, mission,
+                System.currentTimeMillis());
+        buffer[(int) (latestSequence % buffer.length)] = event;
+        messagingTemplate.convertAndSend(TOPIC, event);
+    }
+}
@@ -0,0 +1,142 @@
+package com.simcop.service;
+
+import com.simcop.dto.FireMissionLatencyDTO;
+import com.simcop.model.ArtilleryPiece;
+import com.simcop.model.FireMission;
+import com.simcop.model.FireMissionStatus;
+import com.simcop.repository.ArtilleryPieceRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-stage latency of the sensor-to-shooter chain (pending→approved,
+ * approved→active, active→completed) as Micrometer timers tagged by artillery
+ * type and requesting observer. Fed by FireMissionEventService after commit;
+ * piece types are kept in memory so recording never queries the DB.
+ */
+@Service
+public class FireMissionMetricsService {
+
+    public static final String TIMER_NAME = "simcop.fire_mission.stage";
+    public static final String STAGE_APPROVAL = "PENDING_TO_APPROVED";
+    public static final String STAGE_FIRE = "APPROVED_TO_ACTIVE";
+    public static final String STAGE_COMPLETION = "ACTIVE_TO_COMPLETED";
+
+    private static final String UNKNOWN = "DESCONOCIDO";
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private ArtilleryPieceRepository artilleryRepository;
+
+    // Percentiles cover this sliding window; counts and histograms are cumulative
+    @Value("${fire-missions.metrics.window-minutes:60}")
+    private long windowMinutes = 60;
+
+    private final Map<String, String> artilleryTypes = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadArtilleryTypes() {
+        for (Object[] row : artilleryRepository.findIdAndType()) {
+            if (row[1] != null)
+                artilleryTypes.put((String) row[0], ((Enum<?>) row[1]).name());
+        }
+    }
+
+    /**
+     * Call after a piece was created or updated.
+     */
+    public void updateArtilleryType(ArtilleryPiece piece) {
+        if (piece.getType() != null)
+            artilleryTypes.put(piece.getId(), piece.getType().name());
+        else
+            artilleryTypes.remove(piece.getId());
+    }
+
+    public void removeArtilleryType(String pieceId) {
+        artilleryTypes.remove(pieceId);
+    }
+
+    public void onTransition(FireMissionStatus previousStatus, FireMission mission) {
+        if (mission.getStatus() == previousStatus)
+            return;
+        switch (mission.getStatus()) {
+            case APPROVED:
+                if (previousStatus == FireMissionStatus.PENDING)
+                    record(STAGE_APPROVAL, mission, mission.getRequestTimestamp(), mission.getApprovedTimestamp());
+                break;
+            case ACTIVE:
+                record(STAGE_FIRE, mission, mission.getApprovedTimestamp(), mission.getFireTimestamp());
+                break;
+            case COMPLETED:
+                if (previousStatus == FireMissionStatus.ACTIVE)
+                    record(STAGE_COMPLETION, mission, mission.getFireTimestamp(), mission.getCompletedTimestamp());
+                break;
+            default:
+                break;
+        }
+    }
+
+    public List<FireMissionLatencyDTO> getLatencies() {
+        List<FireMissionLatencyDTO> result = new ArrayList<>();
+        for (Timer timer : registry.find(TIMER_NAME).timers()) {
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            double p50 = 0, p95 = 0, p99 = 0;
+            for (ValueAtPercentile value : snapshot.percentileValues()) {
+                double ms = value.value(TimeUnit.MILLISECONDS);
+                if (value.percentile() == 0.5)
+                    p50 = ms;
+                else if (value.percentile() == 0.95)
+                    p95 = ms;
+                else if (value.percentile() == 0.99)
+                    p99 = ms;
+            }
+            result.add(new FireMissionLatencyDTO(timer.getId().getTag("stage"),
+                    timer.getId().getTag("artillery_type"), timer.getId().getTag("requester"), snapshot.count(),
+                    snapshot.mean(TimeUnit.MILLISECONDS), snapshot.max(TimeUnit.MILLISECONDS), p50, p95, p99));
+        }
+        result.sort(Comparator.comparing(FireMissionLatencyDTO::getStage)
+                .thenComparing(FireMissionLatencyDTO::getArtilleryType)
+                .thenComparing(FireMissionLatencyDTO::getRequester));
+        return result;
+    }
+
+    private void record(String stage, FireMission mission, Long from, Long to) {
+        if (from == null || to == null || to < from)
+            return; // Missions created before the stage timestamps existed
+        Timer.builder(TIMER_NAME)
+                .description("Fire mission time spent in each stage")
+                .tag("stage", stage)
+                .tag("artillery_type", artilleryTypeOf(mission))
+                .tag("requester", mission.getRequesterId() != null ? mission.getRequesterId() : UNKNOWN)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofSeconds(1))
+                .maximumExpectedValue(Duration.ofHours(12))
+                .distributionStatisticExpiry(Duration.ofMinutes(windowMinutes))
+                .register(registry)
+                .record(to - from, TimeUnit.MILLISECONDS);
+    }
+
+    private String artilleryTypeOf(FireMission mission) {
+        if (mission.getAssignedArtilleryId() == null)
+            return UNKNOWN;
+        return artilleryTypes.getOrDefault(mission.getAssignedArtilleryId(), UNKNOWN);
+    }
+}
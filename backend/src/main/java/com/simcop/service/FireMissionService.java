@@ -1,5 +1,7 @@
 package com.simcop.service;
 
+import com.simcop.dto.FireMissionEventDTO;
+import com.simcop.model.AmmoType;
 import com.simcop.model.FireMission;
 import com.simcop.model.FireMissionStatus;
 import com.simcop.repository.FireMissionRepository;
@@ -19,6 +21,12 @@ public class FireMissionService {
     @Autowired
     private com.simcop.repository.ArtilleryPieceRepository artilleryRepository;
 
+    @Autowired
+    private AmmunitionLedgerService ammunitionLedger;
+
+    @Autowired
+    private FireMissionEventService eventService;
+
     public List<FireMission> getAllMissions() {
         return repository.findAll();
     }
@@ -43,13 +51,16 @@ public class FireMissionService {
         }
         mission.setStatus(FireMissionStatus.PENDING);
         mission.setRequestTimestamp(System.currentTimeMillis());
-        return repository.save(mission);
+        FireMission saved = repository.save(mission);
+        eventService.publish(FireMissionEventDTO.EventType.CREATED, null, saved);
+        return saved;
     }
 
     @Transactional
     public FireMission updateStatus(String id, FireMissionStatus status, String reason) {
         FireMission mission = repository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Mission not found: " + id));
+        FireMissionStatus previousStatus = mission.getStatus();
 
         // LOGISTICS CHECK: If firing, consume ammo
         if (status == FireMissionStatus.ACTIVE && mission.getStatus() != FireMissionStatus.ACTIVE) {
@@ -57,26 +68,25 @@ public class FireMissionService {
                 throw new RuntimeException("Cannot activate mission without assigned artillery.");
             }
 
-            com.simcop.model.ArtilleryPiece piece = artilleryRepository.findById(mission.getAssignedArtilleryId())
-                    .orElseThrow(() -> new RuntimeException("Assigned artillery not found"));
+            if (!artilleryRepository.existsById(mission.getAssignedArtilleryId())) {
+                throw new RuntimeException("Assigned artillery not found");
+            }
 
             String requestedType = mission.getProjectileType() != null ? mission.getProjectileType() : "HE";
-
-            com.simcop.model.embeddable.AmmoStock stock = piece.getAmmunition().stream()
-                    .filter(a -> a.getType().name().equalsIgnoreCase(requestedType))
-                    .findFirst()
-                    .orElseThrow(() -> new RuntimeException("Artillery has no ammo of type " + requestedType));
-
-            if (stock.getQuantity() <= 0) {
-                throw new RuntimeException("Artillery out of ammo!");
+            AmmoType ammoType = AmmoType.fromName(requestedType);
+            if (ammoType == null) {
+                throw new RuntimeException("Artillery has no ammo of type " + requestedType);
             }
 
-            stock.setQuantity(stock.getQuantity() - 1);
-            artilleryRepository.save(piece);
+            // Conditional decrement on the stock row; the piece itself is never rewritten
+            ammunitionLedger.consume(mission.getAssignedArtilleryId(), ammoType, 1, mission.getId());
             mission.setFireTimestamp(System.currentTimeMillis());
         }
 
         mission.setStatus(status);
+        if (status == FireMissionStatus.APPROVED && previousStatus != FireMissionStatus.APPROVED) {
+            mission.setApprovedTimestamp(System.currentTimeMillis());
+        }
         if (status == FireMissionStatus.REJECTED && reason != null) {
             mission.setRejectionReason(reason);
         }
@@ -84,7 +94,9 @@ public class FireMissionService {
             mission.setCompletedTimestamp(System.currentTimeMillis());
         }
 
-        return repository.save(mission);
+        FireMission saved = repository.save(mission);
+        eventService.publish(FireMissionEventDTO.EventType.STATUS_CHANGED, previousStatus, saved);
+        return saved;
     }
 
     @Transactional
@@ -103,8 +115,12 @@ public class FireMissionService {
                     piece.getMinRange() + "-" + piece.getMaxRange() + "m");
         }
 
+        FireMissionStatus previousStatus = mission.getStatus();
         mission.setAssignedArtilleryId(artilleryId);
         mission.setStatus(FireMissionStatus.APPROVED); // Ready to fire
-        return repository.save(mission);
+        mission.setApprovedTimestamp(System.currentTimeMillis());
+        FireMission saved = repository.save(mission);
+        eventService.publish(FireMissionEventDTO.EventType.ASSIGNED, previousStatus, saved);
+        return saved;
     }
 }
@@ -0,0 +1,319 @@
+package com.simcop.service;
+
+import com.simcop.dto.HotspotDTO;
+import com.simcop.event.IntelReportsIngestedEvent;
+import com.simcop.event.UnitChangedEvent;
+import com.simcop.model.*;
+import com.simcop.model.embeddable.GeoLocation;
+import com.simcop.repository.AlertRepository;
+import com.simcop.repository.IntelligenceReportRepository;
+import com.simcop.repository.MilitaryUnitRepository;
+import com.simcop.util.GeoUtils;
+import com.simcop.util.GeofenceIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Continuous threat proximity watch. Live hotspots and recent credible intel
+ * reports are circular threat zones in a GeofenceIndex; every committed unit
+ * change and every new report is checked against it, and operational or
+ * engaged units that enter a zone get a BMA_HOTSPOT_THREAT alert right away,
+ * without anyone polling /api/bma/hotspots.
+ */
+@Service
+public class GeofenceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeofenceService.class);
+
+    private static final String HOTSPOT_PREFIX = "hotspot:";
+    private static final String INTEL_PREFIX = "intel:";
+    private static final long HOUR_MS = 3600_000L;
+
+    @Autowired
+    private AlertRepository alertRepository;
+
+    @Autowired
+    private MilitaryUnitRepository unitRepository;
+
+    @Autowired
+    private IntelligenceReportRepository reportRepository;
+
+    @Autowired
+    private HotspotScoreService hotspotScores;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate readOnlyTransaction;
+    // Listeners run after the triggering commit; alerts need a transaction of their own
+    private final TransactionTemplate alertTransaction;
+
+    @Value("${geofence.threat-radius-km:2.0}")
+    private double threatRadiusKm = 2.0;
+
+    @Value("${geofence.threat-hours:6}")
+    private long threatHours = 6;
+
+    @Value("${geofence.min-threat-weight:0.3}")
+    private double minThreatWeight = 0.3;
+
+    @Value("${geofence.cooldown-minutes:60}")
+    private long cooldownMinutes = 60;
+
+    private final GeofenceIndex<ThreatZone> index = new GeofenceIndex<>();
+    private final Map<String, UnitState> units = new ConcurrentHashMap<>();
+    // unitId|zoneId -> last alert time, so a unit on a zone edge is not alerted on every report
+    private final Map<String, Long> lastAlerts = new ConcurrentHashMap<>();
+    // Hotspot zones get ids of their own, kept while the hotspot drifts
+    private long hotspotSequence;
+
+    public GeofenceService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.alertTransaction = new TransactionTemplate(transactionManager);
+        this.alertTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Loads unit positions and the threat zones of the last threat-hours.
+     * Units already inside a zone at startup are not alerted again.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        index.clear();
+        units.clear();
+        for (Object[] row : unitRepository.findMapState()) {
+            UnitState state = new UnitState((String) row[1], (Double) row[3], (Double) row[4], (UnitStatus) row[5]);
+            units.put((String) row[0], state);
+            if (state.isWatched())
+                index.moveUnit((String) row[0], state.lat, state.lon);
+        }
+        long from = System.currentTimeMillis() - threatHours * HOUR_MS;
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<IntelligenceReport> reports = reportRepository.streamCanonicalByEventTimestampBetween(from,
+                    Long.MAX_VALUE)) {
+                Iterator<IntelligenceReport> it = reports.iterator();
+                while (it.hasNext()) {
+                    IntelligenceReport report = it.next();
+                    ThreatZone zone = threatZone(report);
+                    if (zone != null)
+                        index.putZone(zoneOf(INTEL_PREFIX + report.getId(), report.getLocation(), threatRadiusKm,
+                                zone));
+                    entityManager.detach(report);
+                }
+            }
+        });
+        refreshZones(false);
+        logger.info("Geofence: {} watched units, {} threat zones", index.unitCount(), index.getZones().size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUnitChanged(UnitChangedEvent event) {
+        if (event.getUnitId() == null)
+            return;
+        if (event.isRemoved()) {
+            units.remove(event.getUnitId());
+            index.removeUnit(event.getUnitId());
+            return;
+        }
+        UnitState state = units.merge(event.getUnitId(),
+                new UnitState(event.getName(), event.getLat(), event.getLon(), event.getStatus()), UnitState::merge);
+        if (!state.isWatched()) {
+            index.removeUnit(event.getUnitId());
+            return;
+        }
+        for (GeofenceIndex.Zone<ThreatZone> zone : index.moveUnit(event.getUnitId(), state.lat, state.lon)) {
+            alert(event.getUnitId(), state, zone);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReportsIngested(IntelReportsIngestedEvent event) {
+        for (IntelligenceReport report : event.getReports()) {
+            ThreatZone zone = report.getDuplicateOf() == null ? threatZone(report) : null;
+            if (zone != null)
+                putZone(zoneOf(INTEL_PREFIX + report.getId(), report.getLocation(), threatRadiusKm, zone), true);
+        }
+        // HotspotScoreService handles the same event first (@Order), so the scores include these reports
+        refreshZones(true);
+    }
+
+    /**
+     * Syncs the hotspot zones with the live hotspot scores (which decay over
+     * time) and expires old intel zones.
+     */
+    @Scheduled(fixedDelayString = "${geofence.refresh-ms:5000}")
+    public void refresh() {
+        refreshZones(true);
+    }
+
+    private synchronized void refreshZones(boolean raiseAlerts) {
+        long now = System.currentTimeMillis();
+        List<GeofenceIndex.Zone<ThreatZone>> unclaimed = new ArrayList<>();
+        for (GeofenceIndex.Zone<ThreatZone> zone : index.getZones()) {
+            if (zone.getId().startsWith(HOTSPOT_PREFIX))
+                unclaimed.add(zone);
+        }
+        Set<String> live = new HashSet<>();
+        // Strongest first, so a hotspot that splits keeps its zone on the stronger half
+        for (HotspotDTO hotspot : hotspotScores.getHotspots()) {
+            GeofenceIndex.Zone<ThreatZone> previous = nearestZone(unclaimed, hotspot);
+            String id;
+            if (previous != null) {
+                unclaimed.remove(previous);
+                id = previous.getId();
+            } else {
+                id = HOTSPOT_PREFIX + (++hotspotSequence);
+            }
+            live.add(id);
+            ThreatZone zone = new ThreatZone(null, hotspot.getIntensity(), null, Long.MAX_VALUE);
+            if (previous == null || previous.getRadiusKm() != hotspot.getRadius()
+                    || GeoUtils.calculateDistanceKm(previous.getLat(), previous.getLon(), hotspot.getCenter().getLat(),
+                            hotspot.getCenter().getLon()) > 0.1
+                    || previous.getValue().intensity != hotspot.getIntensity()) {
+                putZone(zoneOf(id, hotspot.getCenter(), hotspot.getRadius(), zone), raiseAlerts);
+            }
+        }
+        for (GeofenceIndex.Zone<ThreatZone> zone : index.getZones()) {
+            boolean expired = zone.getId().startsWith(HOTSPOT_PREFIX) ? !live.contains(zone.getId())
+                    : zone.getValue().expiresAt < now;
+            if (expired)
+                index.removeZone(zone.getId());
+        }
+        lastAlerts.values().removeIf(time -> time < now - cooldownMinutes * 60_000L);
+    }
+
+    /**
+     * The hotspot zone a live hotspot continues: the closest one whose center
+     * lies within the hotspot's radius. HotspotDTO ids follow the peak cell,
+     * which changes as reports arrive and decay, so they cannot be used to
+     * recognise a hotspot that drifted.
+     */
+    private static GeofenceIndex.Zone<ThreatZone> nearestZone(List<GeofenceIndex.Zone<ThreatZone>> zones,
+            HotspotDTO hotspot) {
+        GeofenceIndex.Zone<ThreatZone> nearest = null;
+        double nearestKm = hotspot.getRadius();
+        for (GeofenceIndex.Zone<ThreatZone> zone : zones) {
+            double km = GeoUtils.calculateDistanceKm(zone.getLat(), zone.getLon(), hotspot.getCenter().getLat(),
+                    hotspot.getCenter().getLon());
+            if (km <= nearestKm) {
+                nearest = zone;
+                nearestKm = km;
+            }
+        }
+        return nearest;
+    }
+
+    private void putZone(GeofenceIndex.Zone<ThreatZone> zone, boolean raiseAlerts) {
+        for (String unitId : index.putZone(zone)) {
+            UnitState state = units.get(unitId);
+            if (raiseAlerts && state != null)
+                alert(unitId, state, zone);
+        }
+    }
+
+    private ThreatZone threatZone(IntelligenceReport report) {
+        if (report.getLocation() == null
+                || HotspotScoreService.weight(report.getReliability(), report.getCredibility()) < minThreatWeight)
+            return null;
+        long expiresAt = report.getEventTimestamp() + threatHours * HOUR_MS;
+        if (expiresAt < System.currentTimeMillis())
+            return null;
+        return new ThreatZone(report.getId(), 0, report.getTitle(), expiresAt);
+    }
+
+    private static GeofenceIndex.Zone<ThreatZone> zoneOf(String id, GeoLocation center, double radiusKm,
+            ThreatZone zone) {
+        return new GeofenceIndex.Zone<>(id, center.getLat(), center.getLon(), radiusKm, zone);
+    }
+
+    private void alert(String unitId, UnitState unit, GeofenceIndex.Zone<ThreatZone> zone) {
+        long now = System.currentTimeMillis();
+        Long last = lastAlerts.put(unitId + "|" + zone.getId(), now);
+        if (last != null && last > now - cooldownMinutes * 60_000L)
+            return;
+
+        ThreatZone threat = zone.getValue();
+        Alert alert = new Alert();
+        alert.setId(UUID.randomUUID().toString());
+        alert.setType(AlertType.BMA_HOTSPOT_THREAT);
+        alert.setUnitId(unitId);
+        alert.setIntelId(threat.intelId);
+        alert.setSeverity(AlertSeverity.HIGH);
+        alert.setTimestamp(now);
+        alert.setLocation(new GeoLocation(unit.lat, unit.lon));
+        if (threat.intelId == null) {
+            alert.setMessage("ALERTA BMA: La unidad " + unit.name
+                    + " se encuentra en un Punto Crítico de alta intensidad (" + threat.intensity
+                    + " reportes). Incrementar alerta.");
+        } else {
+            alert.setMessage(String.format(Locale.ROOT,
+                    "ALERTA BMA: La unidad %s se encuentra a %.1f km de la amenaza reportada \"%s\". Incrementar alerta.",
+                    unit.name, GeoUtils.calculateDistanceKm(unit.lat, unit.lon, zone.getLat(), zone.getLon()),
+                    threat.title));
+        }
+        alertTransaction.executeWithoutResult(status -> alertRepository.save(alert));
+    }
+
+    /**
+     * What a zone stands for: a live hotspot (intensity) or an intel report.
+     */
+    private static final class ThreatZone {
+        final String intelId;
+        final int intensity;
+        final String title;
+        final long expiresAt;
+
+        ThreatZone(String intelId, int intensity, String title, long expiresAt) {
+            this.intelId = intelId;
+            this.intensity = intensity;
+            this.title = title;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Fields the watch needs; partial events keep the fields they do not carry.
+     */
+    private static final class UnitState {
+        final String name;
+        final Double lat;
+        final Double lon;
+        final UnitStatus status;
+
+        UnitState(String name, Double lat, Double lon, UnitStatus status) {
+            this.name = name;
+            this.lat = lat;
+            this.lon = lon;
+            this.status = status;
+        }
+
+        static UnitState merge(UnitState previous, UnitState next) {
+            boolean moved = next.lat != null && next.lon != null;
+            return new UnitState(next.name != null ? next.name : previous.name, moved ? next.lat : previous.lat,
+                    moved ? next.lon : previous.lon, next.status != null ? next.status : previous.status);
+        }
+
+        // Same units the hotspot check has always alerted
+        boolean isWatched() {
+            return lat != null && lon != null
+                    && (status == UnitStatus.OPERATIONAL || status == UnitStatus.ENGAGED);
+        }
+    }
+}
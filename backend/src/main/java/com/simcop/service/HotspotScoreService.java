@@ -0,0 +1,307 @@
+package com.simcop.service;
+
+import com.simcop.dto.HotspotDTO;
+import com.simcop.event.IntelReportsIngestedEvent;
+import com.simcop.model.IntelligenceCredibility;
+import com.simcop.model.IntelligenceReliability;
+import com.simcop.model.IntelligenceReport;
+import com.simcop.model.embeddable.GeoLocation;
+import com.simcop.repository.IntelligenceReportRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Weighted report density for live hotspots. Each report adds a weight by its
+ * reliability and credibility grades (A1 = 1) that halves every half-life
+ * hours; per-cell sums are decayed lazily (scaled to the current time when
+ * touched), so new reports are added in O(1) and a hotspot query only walks
+ * the active cells. A hotspot is a cell whose 3x3 neighbourhood reaches
+ * min-score and whose own score is the local maximum. Cells keep each report's
+ * contribution by id, so a re-filed report replaces its earlier one instead of
+ * counting twice.
+ */
+@Service
+public class HotspotScoreService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotspotScoreService.class);
+
+    private static final double KM_PER_DEG = 111.32;
+    private static final long HOUR_MS = 3600_000L;
+    // Cells decayed below this are dropped
+    private static final double MIN_CELL_SCORE = 0.01;
+    // Weight of an F or 6 grade, same as C and 3
+    private static final double UNJUDGED_WEIGHT = 0.6;
+
+    @Autowired
+    private IntelligenceReportRepository reportRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${hotspots.radius-km:5.0}")
+    private double radiusKm = 5.0;
+
+    @Value("${hotspots.half-life-hours:12}")
+    private double halfLifeHours = 12;
+
+    @Value("${hotspots.min-score:1.2}")
+    private double minScore = 1.2;
+
+    @Value("${hotspots.horizon-hours:72}")
+    private long horizonHours = 72;
+
+    private final Map<Long, Cell> cells = new HashMap<>();
+    // Report id -> key of the cell holding its contribution
+    private final Map<String, Long> reportCells = new HashMap<>();
+
+    public HotspotScoreService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Weight of a report by its NATO grades: A/1 = 1 down to E/5 = 0.2. An
+     * ungraded or unjudgeable (F/6) rating counts as the middle grade C/3
+     * (0.6): no evidence of quality must not outweigh "fairly reliable".
+     */
+    public static double weight(IntelligenceReliability reliability, IntelligenceCredibility credibility) {
+        double r = reliability == null || reliability == IntelligenceReliability.F ? UNJUDGED_WEIGHT
+                : 1.0 - 0.2 * reliability.ordinal();
+        double c = credibility == null || credibility == IntelligenceCredibility.SIX ? UNJUDGED_WEIGHT
+                : 1.0 - 0.2 * credibility.ordinal();
+        return r * c;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long now = System.currentTimeMillis();
+        Integer loaded = readOnlyTransaction.execute(status -> {
+            int count = 0;
+            try (Stream<IntelligenceReport> reports = reportRepository
+                    .streamCanonicalByEventTimestampBetween(now - horizonHours * HOUR_MS, Long.MAX_VALUE)) {
+                synchronized (this) {
+                    cells.clear();
+                    reportCells.clear();
+                    Iterator<IntelligenceReport> it = reports.iterator();
+                    while (it.hasNext()) {
+                        IntelligenceReport report = it.next();
+                        if (add(report, now))
+                            count++;
+                        entityManager.detach(report);
+                    }
+                }
+            }
+            return count;
+        });
+        logger.info("Hotspot scores: {} reports in {} cells", loaded, cells.size());
+    }
+
+    /**
+     * Adds new reports and replaces re-filed ones (moved, regraded, or now
+     * flagged as a near-duplicate).
+     */
+    // Before the other listeners, so the geofence watch sees the new scores
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onReportsIngested(IntelReportsIngestedEvent event) {
+        long now = System.currentTimeMillis();
+        for (IntelligenceReport report : event.getReports()) {
+            remove(report.getId(), now);
+            if (report.getDuplicateOf() == null)
+                add(report, now);
+        }
+    }
+
+    /**
+     * Current hotspots, highest score first. intensity is the number of
+     * reports within the horizon in the hotspot's neighbourhood.
+     */
+    public synchronized List<HotspotDTO> getHotspots() {
+        long now = System.currentTimeMillis();
+        long horizonStart = now - horizonHours * HOUR_MS;
+        Iterator<Cell> it = cells.values().iterator();
+        while (it.hasNext()) {
+            Cell cell = it.next();
+            cell.decayTo(now, decayRate());
+            for (String reportId : cell.dropBefore(horizonStart))
+                reportCells.remove(reportId);
+            if (cell.score < MIN_CELL_SCORE || cell.reports.isEmpty()) {
+                reportCells.keySet().removeAll(cell.reports.keySet());
+                it.remove();
+            }
+        }
+
+        List<HotspotDTO> hotspots = new ArrayList<>();
+        for (Map.Entry<Long, Cell> entry : cells.entrySet()) {
+            long key = entry.getKey();
+            Cell center = entry.getValue();
+            int row = (int) (key >> 32), col = (int) key;
+            double score = 0, sumLat = 0, sumLon = 0;
+            int count = 0;
+            boolean localMax = true;
+            for (int dr = -1; dr <= 1 && localMax; dr++) {
+                for (int dc = -1; dc <= 1; dc++) {
+                    long neighbourKey = cellKey(row + dr, col + dc);
+                    Cell neighbour = cells.get(neighbourKey);
+                    if (neighbour == null)
+                        continue;
+                    // Ties go to the lower key, so a plateau yields one hotspot
+                    if (neighbour.score > center.score || neighbour.score == center.score && neighbourKey < key) {
+                        localMax = false;
+                        break;
+                    }
+                    score += neighbour.score;
+                    sumLat += neighbour.sumLat;
+                    sumLon += neighbour.sumLon;
+                    count += neighbour.reports.size();
+                }
+            }
+            if (!localMax || score < minScore)
+                continue;
+            String description = String.format(Locale.ROOT,
+                    "Concentración detectada de %d reportes (puntuación %.1f). Área de riesgo elevado.", count, score);
+            hotspots.add(new HotspotDTO("hotspot:" + row + ":" + col, new GeoLocation(sumLat / score, sumLon / score),
+                    radiusKm, count, score, description));
+        }
+        hotspots.sort(Comparator.comparingDouble(HotspotDTO::getScore).reversed());
+        return hotspots;
+    }
+
+    private boolean add(IntelligenceReport report, long now) {
+        if (report.getLocation() == null)
+            return false;
+        long eventTime = report.getEventTimestamp();
+        if (eventTime < now - horizonHours * HOUR_MS)
+            return false;
+        double lat = report.getLocation().getLat(), lon = report.getLocation().getLon();
+        long key = cellKey(cell(lat), cell(lon));
+        Cell cell = cells.computeIfAbsent(key, k -> new Cell(now));
+        cell.decayTo(now, decayRate());
+        // Future-dated events count as fresh
+        double w = weight(report.getReliability(), report.getCredibility())
+                * Math.exp(-decayRate() * Math.max(0, now - eventTime));
+        cell.add(report.getId(), new Contribution(w, lat, lon, eventTime));
+        reportCells.put(report.getId(), key);
+        return true;
+    }
+
+    private void remove(String reportId, long now) {
+        Long key = reportCells.remove(reportId);
+        Cell cell = key != null ? cells.get(key) : null;
+        if (cell != null) {
+            cell.decayTo(now, decayRate());
+            cell.remove(reportId, decayRate());
+        }
+    }
+
+    private double decayRate() {
+        return Math.log(2) / (halfLifeHours * HOUR_MS);
+    }
+
+    // 3x3 cells span about twice the hotspot radius
+    private int cell(double degrees) {
+        return (int) Math.floor(degrees * KM_PER_DEG / (radiusKm * 2 / 3));
+    }
+
+    private static long cellKey(int row, int col) {
+        return (long) row << 32 | (col & 0xffffffffL);
+    }
+
+    /**
+     * A report's weight as of the time it was added (its cell's ref then).
+     */
+    private static final class Contribution {
+        final double weight;
+        final double lat;
+        final double lon;
+        final long eventTime;
+        long addedAt;
+
+        Contribution(double weight, double lat, double lon, long eventTime) {
+            this.weight = weight;
+            this.lat = lat;
+            this.lon = lon;
+            this.eventTime = eventTime;
+        }
+    }
+
+    /**
+     * Weight sums as of ref; sumLat/sumLon are weighted so their ratio to
+     * score is the cell's centroid. reports holds the contributions within
+     * the horizon, for the count and for replacing a re-filed report.
+     */
+    private static final class Cell {
+        long ref;
+        double score;
+        double sumLat;
+        double sumLon;
+        final Map<String, Contribution> reports = new HashMap<>();
+
+        Cell(long ref) {
+            this.ref = ref;
+        }
+
+        void decayTo(long now, double rate) {
+            if (now <= ref)
+                return;
+            double factor = Math.exp(-rate * (now - ref));
+            score *= factor;
+            sumLat *= factor;
+            sumLon *= factor;
+            ref = now;
+        }
+
+        void add(String reportId, Contribution contribution) {
+            contribution.addedAt = ref;
+            score += contribution.weight;
+            sumLat += contribution.weight * contribution.lat;
+            sumLon += contribution.weight * contribution.lon;
+            reports.put(reportId, contribution);
+        }
+
+        // Call after decayTo, so the contribution is decayed to the same ref
+        void remove(String reportId, double rate) {
+            Contribution contribution = reports.remove(reportId);
+            if (contribution == null)
+                return;
+            if (reports.isEmpty()) {
+                score = sumLat = sumLon = 0;
+                return;
+            }
+            double w = contribution.weight * Math.exp(-rate * (ref - contribution.addedAt));
+            score = Math.max(0, score - w);
+            sumLat -= w * contribution.lat;
+            sumLon -= w * contribution.lon;
+        }
+
+        // Reports past the horizon no longer count; their decayed weight stays
+        List<String> dropBefore(long cutoff) {
+            List<String> dropped = new ArrayList<>();
+            Iterator<Map.Entry<String, Contribution>> it = reports.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, Contribution> entry = it.next();
+                if (entry.getValue().eventTime < cutoff) {
+                    dropped.add(entry.getKey());
+                    it.remove();
+                }
+            }
+            return dropped;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.simcop.service;
+
+import com.simcop.dto.IntelDuplicateClusterDTO;
+import com.simcop.model.IntelligenceReport;
+import com.simcop.model.User;
+import com.simcop.repository.IntelligenceReportRepository;
+import com.simcop.util.GeoUtils;
+import com.simcop.util.SimHash;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Ingest-time near-duplicate detection for intelligence reports. Several
+ * units often file the same event; a new report is compared only with the
+ * reports in its neighbouring space-time buckets (cells about radius-km wide,
+ * slots window-minutes long) and flagged as a duplicate of the closest one whose
+ * SimHash over details and keywords is within max-distance bits. Flagged
+ * reports are kept, but hotspot analysis counts each cluster once.
+ */
+@Service
+public class IntelDedupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IntelDedupService.class);
+
+    private static final double KM_PER_DEG = 111.32;
+    // Keywords are few and deliberate; weigh each like a couple of words of details
+    private static final int KEYWORD_WEIGHT = 2;
+
+    @Autowired
+    private IntelligenceReportRepository reportRepository;
+
+    @Autowired
+    private VisibilityService visibilityService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${intel-dedup.radius-km:2.0}")
+    private double radiusKm = 2.0;
+
+    @Value("${intel-dedup.window-minutes:120}")
+    private long windowMinutes = 120;
+
+    @Value("${intel-dedup.max-distance:10}")
+    private int maxDistance = 10;
+
+    @Value("${intel-dedup.retention-hours:72}")
+    private long retentionHours = 72;
+
+    // Time slot -> spatial cell -> fingerprints; sorted so old slots drop off the head
+    private final TreeMap<Long, Map<Long, List<Fingerprint>>> slots = new TreeMap<>();
+
+    public IntelDedupService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Loads the fingerprints of the reports still inside the retention window.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadRecent() {
+        long from = System.currentTimeMillis() - retentionHours * 3600_000L;
+        Integer loaded = readOnlyTransaction.execute(status -> {
+            int count = 0;
+            try (Stream<IntelligenceReport> reports = reportRepository.streamByEventTimestampBetween(from,
+                    Long.MAX_VALUE)) {
+                Iterator<IntelligenceReport> it = reports.iterator();
+                while (it.hasNext()) {
+                    IntelligenceReport report = it.next();
+                    if (add(report) != null)
+                        count++;
+                    entityManager.detach(report);
+                }
+            }
+            return count;
+        });
+        logger.info("Intel dedup: indexed {} recent reports", loaded);
+    }
+
+    /**
+     * Flags the report (duplicateOf) if it near-duplicates a known one, and
+     * remembers it for the reports that follow. Call before the report is
+     * written; inside a transaction the fingerprint is dropped again on
+     * rollback. Returns the canonical report id, or null.
+     */
+    public synchronized String assign(IntelligenceReport report) {
+        String canonical = findCanonical(report);
+        report.setDuplicateOf(canonical);
+        Fingerprint fingerprint = add(report);
+        if (fingerprint != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK)
+                        remove(fingerprint);
+                }
+            });
+        }
+        return canonical;
+    }
+
+    /**
+     * Reports flagged as duplicates in the event-time window, grouped under
+     * their canonical report, largest clusters first. Scoped users only see
+     * clusters whose canonical report comes from a unit they can see.
+     */
+    public List<IntelDuplicateClusterDTO> getClusters(User user, long from, long to) {
+        Map<String, List<IntelligenceReport>> byCanonical = new LinkedHashMap<>();
+        for (IntelligenceReport duplicate : reportRepository.findByDuplicateOfIsNotNullAndEventTimestampBetween(from,
+                to)) {
+            byCanonical.computeIfAbsent(duplicate.getDuplicateOf(), k -> new ArrayList<>()).add(duplicate);
+        }
+        Set<String> visibleIds = visibilityService.getVisibleUnitIds(user);
+        List<IntelDuplicateClusterDTO> clusters = new ArrayList<>();
+        for (IntelligenceReport canonical : reportRepository.findAllById(byCanonical.keySet())) {
+            if (visibleIds != null && canonical.getReportingUnitId() != null
+                    && !visibleIds.contains(canonical.getReportingUnitId()))
+                continue;
+            clusters.add(new IntelDuplicateClusterDTO(canonical, byCanonical.get(canonical.getId())));
+        }
+        clusters.sort(Comparator.comparingInt(IntelDuplicateClusterDTO::getSize).reversed());
+        return clusters;
+    }
+
+    @Scheduled(fixedDelayString = "${intel-dedup.prune-interval-ms:600000}")
+    public synchronized void prune() {
+        slots.headMap(slotOf(System.currentTimeMillis() - retentionHours * 3600_000L)).clear();
+    }
+
+    private synchronized String findCanonical(IntelligenceReport report) {
+        if (report.getLocation() == null || !hasText(report))
+            return null;
+        double lat = report.getLocation().getLat(), lon = report.getLocation().getLon();
+        long timestamp = report.getEventTimestamp();
+        long windowMs = windowMinutes * 60_000L;
+        long hash = SimHash.of(report.getDetails(), report.getKeywords(), KEYWORD_WEIGHT);
+
+        double dLat = radiusKm / KM_PER_DEG;
+        double dLon = radiusKm / (KM_PER_DEG * Math.max(0.01, Math.cos(Math.toRadians(lat))));
+        long row0 = cell(lat - dLat), row1 = cell(lat + dLat);
+        long col0 = cell(lon - dLon), col1 = cell(lon + dLon);
+
+        Fingerprint best = null;
+        int bestDistance = maxDistance + 1;
+        for (Map<Long, List<Fingerprint>> cells : slots.subMap(slotOf(timestamp - windowMs), true,
+                slotOf(timestamp + windowMs), true).values()) {
+            for (long row = row0; row <= row1; row++) {
+                for (long col = col0; col <= col1; col++) {
+                    List<Fingerprint> candidates = cells.get(cellKey(row, col));
+                    if (candidates == null)
+                        continue;
+                    for (Fingerprint candidate : candidates) {
+                        int distance = SimHash.distance(hash, candidate.hash);
+                        // A re-filed report must not match itself, nor its own duplicates
+                        if (distance >= bestDistance || Math.abs(candidate.timestamp - timestamp) > windowMs
+                                || candidate.reportId.equals(report.getId())
+                                || candidate.canonicalId.equals(report.getId()))
+                            continue;
+                        if (GeoUtils.calculateDistanceKm(lat, lon, candidate.lat, candidate.lon) > radiusKm)
+                            continue;
+                        best = candidate;
+                        bestDistance = distance;
+                    }
+                }
+            }
+        }
+        return best != null ? best.canonicalId : null;
+    }
+
+    private synchronized Fingerprint add(IntelligenceReport report) {
+        if (report.getLocation() == null || report.getId() == null || !hasText(report))
+            return null;
+        Fingerprint fingerprint = new Fingerprint(report.getId(),
+                report.getDuplicateOf() != null ? report.getDuplicateOf() : report.getId(),
+                SimHash.of(report.getDetails(), report.getKeywords(), KEYWORD_WEIGHT),
+                report.getLocation().getLat(), report.getLocation().getLon(), report.getEventTimestamp());
+        slots.computeIfAbsent(slotOf(fingerprint.timestamp), k -> new HashMap<>())
+                .computeIfAbsent(cellKey(cell(fingerprint.lat), cell(fingerprint.lon)), k -> new ArrayList<>())
+                .add(fingerprint);
+        return fingerprint;
+    }
+
+    private synchronized void remove(Fingerprint fingerprint) {
+        Map<Long, List<Fingerprint>> cells = slots.get(slotOf(fingerprint.timestamp));
+        if (cells == null)
+            return;
+        long key = cellKey(cell(fingerprint.lat), cell(fingerprint.lon));
+        List<Fingerprint> list = cells.get(key);
+        if (list != null && list.remove(fingerprint) && list.isEmpty())
+            cells.remove(key);
+    }
+
+    private static boolean hasText(IntelligenceReport report) {
+        return (report.getDetails() != null && !report.getDetails().isBlank())
+                || (report.getKeywords() != null && !report.getKeywords().isEmpty());
+    }
+
+    private long slotOf(long timestamp) {
+        return Math.floorDiv(timestamp, windowMinutes * 60_000L);
+    }
+
+    private long cell(double degrees) {
+        return (long) Math.floor(degrees * KM_PER_DEG / radiusKm);
+    }
+
+    private static long cellKey(long row, long col) {
+        return row << 32 ^ (col & 0xffffffffL);
+    }
+
+    private static final class Fingerprint {
+        final String reportId;
+        final String canonicalId;
+        final long hash;
+        final double lat;
+        final double lon;
+        final long timestamp;
+
+        Fingerprint(String reportId, String canonicalId, long hash, double lat, double lon, long timestamp) {
+            this.reportId = reportId;
+            this.canonicalId = canonicalId;
+            this.hash = hash;
+            this.lat = lat;
+            this.lon = lon;
+            this.timestamp = timestamp;
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package com.simcop.service;
+
+import com.simcop.dto.IntelHeatmapFrameDTO;
+import com.simcop.dto.IntelHeatmapTileDTO;
+import com.simcop.event.IntelReportsIngestedEvent;
+import com.simcop.model.IntelligenceReport;
+import com.simcop.repository.IntelligenceReportRepository;
+import com.simcop.util.TileMath;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Intelligence activity heatmap: report counts per map tile (16x16 bins) and
+ * time bucket (UTC hour or day), for every zoom level up to max-zoom. Counts
+ * are added as reports are ingested, so serving a tile over a time range only
+ * copies its stored frames. Frames are kept sparse (packed bin/count ints), as
+ * most tiles hold a handful of reports per bucket. Counts cover every report,
+ * regardless of the reporting unit; there is no per-scope series. Where each
+ * counted report sits is kept by id, so a re-filed report moves its count and
+ * a report archived by RetentionService drops it, as a rebuild would.
+ */
+@Service
+public class IntelHeatmapService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IntelHeatmapService.class);
+
+    private static final int GRID_BITS = 4;
+    public static final int GRID_SIZE = 1 << GRID_BITS;
+    private static final int GRID_MASK = GRID_SIZE - 1;
+    private static final long DAY_MS = 86_400_000L;
+    // Upper bound for one request, e.g. 31 days of hours
+    private static final int MAX_BUCKETS = 800;
+
+    public enum Resolution {
+        HOUR(3_600_000L), DAY(DAY_MS);
+
+        private final long millis;
+
+        Resolution(long millis) {
+            this.millis = millis;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+    }
+
+    @Autowired
+    private IntelligenceReportRepository reportRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate readOnlyTransaction;
+    private final int maxZoom;
+    private final long hourRetentionMs;
+    private final long dayRetentionMs;
+    private final Map<Resolution, Series> series = new EnumMap<>(Resolution.class);
+    // Report id -> where it is counted
+    private final Map<String, Placement> placements = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public IntelHeatmapService(PlatformTransactionManager transactionManager,
+            @Value("${intel-heatmap.max-zoom:12}") int maxZoom,
+            @Value("${intel-heatmap.hour-retention-days:14}") int hourRetentionDays,
+            @Value("${intel-heatmap.day-retention-days:365}") int dayRetentionDays) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.maxZoom = Math.max(0, Math.min(maxZoom, 30 - GRID_BITS));
+        this.hourRetentionMs = hourRetentionDays * DAY_MS;
+        this.dayRetentionMs = dayRetentionDays * DAY_MS;
+        series.put(Resolution.HOUR, new Series(Resolution.HOUR, hourRetentionMs));
+        series.put(Resolution.DAY, new Series(Resolution.DAY, dayRetentionMs));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long now = System.currentTimeMillis();
+        Integer loaded = readOnlyTransaction.execute(status -> {
+            int count = 0;
+            try (Stream<IntelligenceReport> reports = reportRepository.streamCanonicalByEventTimestampBetween(
+                    now - Math.max(hourRetentionMs, dayRetentionMs), Long.MAX_VALUE)) {
+                lock.writeLock().lock();
+                try {
+                    series.values().forEach(s -> s.buckets.clear());
+                    placements.clear();
+                    Iterator<IntelligenceReport> it = reports.iterator();
+                    while (it.hasNext()) {
+                        IntelligenceReport report = it.next();
+                        if (add(report, now))
+                            count++;
+                        entityManager.detach(report);
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+            return count;
+        });
+        logger.info("Intel heatmap: {} reports over zoom levels 0..{}", loaded, maxZoom);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReportsIngested(IntelReportsIngestedEvent event) {
+        long now = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            for (IntelligenceReport report : event.getReports()) {
+                removeCounts(report.getId());
+                if (report.getDuplicateOf() == null)
+                    add(report, now);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops the counts of deleted (archived) reports once the current
+     * transaction commits.
+     */
+    public void remove(Collection<String> reportIds) {
+        if (reportIds.isEmpty())
+            return;
+        List<String> ids = new ArrayList<>(reportIds);
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                ids.forEach(this::removeCounts);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${intel-heatmap.prune-interval-ms:3600000}")
+    public void prune() {
+        long now = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            for (Series s : series.values()) {
+                s.buckets.headMap(Math.floorDiv(now - s.retentionMs, s.resolution.millis)).clear();
+            }
+            long cutoff = now - Math.max(hourRetentionMs, dayRetentionMs);
+            placements.values().removeIf(placement -> placement.eventTime < cutoff);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Frames of tile z/x/y for the buckets overlapping [from, to] (epoch ms);
+     * buckets without reports in the tile are left out.
+     */
+    public IntelHeatmapTileDTO getTile(int z, int x, int y, Resolution resolution, long from, long to) {
+        int n = z >= 0 && z <= maxZoom ? 1 << z : 0;
+        if (n == 0 || x < 0 || x >= n || y < 0 || y >= n || to < from) {
+            throw new IllegalArgumentException("Invalid tile or range");
+        }
+        long bucketMs = resolution.millis;
+        long first = Math.floorDiv(from, bucketMs), last = Math.floorDiv(to, bucketMs);
+        if (last - first >= MAX_BUCKETS) {
+            throw new IllegalArgumentException("Too many buckets");
+        }
+        long tileKey = TileMath.key(x, y);
+        List<IntelHeatmapFrameDTO> frames = new ArrayList<>();
+        int max = 0;
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<Long, List<Map<Long, Frame>>> bucket : series.get(resolution).buckets
+                    .subMap(first, true, last, true).entrySet()) {
+                Frame frame = bucket.getValue().get(z).get(tileKey);
+                if (frame == null)
+                    continue;
+                int[] counts = new int[GRID_SIZE * GRID_SIZE];
+                int total = 0;
+                for (int i = 0; i < frame.size; i++) {
+                    int count = frame.entries[i] & 0xffffff;
+                    counts[frame.entries[i] >>> 24] = count;
+                    total += count;
+                    max = Math.max(max, count);
+                }
+                frames.add(new IntelHeatmapFrameDTO(bucket.getKey() * bucketMs, total, counts));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new IntelHeatmapTileDTO(z, x, y, resolution.name(), bucketMs, GRID_SIZE, max, frames);
+    }
+
+    public int getMaxZoom() {
+        return maxZoom;
+    }
+
+    private boolean add(IntelligenceReport report, long now) {
+        if (report.getLocation() == null)
+            return false;
+        // Bin coordinates at the deepest level; shallower levels shift them down
+        int level = maxZoom + GRID_BITS;
+        Placement placement = new Placement(TileMath.lonToX(report.getLocation().getLon(), level),
+                TileMath.latToY(report.getLocation().getLat(), level), report.getEventTimestamp());
+        boolean added = false;
+        for (Series s : series.values()) {
+            if (placement.eventTime < now - s.retentionMs)
+                continue;
+            List<Map<Long, Frame>> zooms = s.buckets.computeIfAbsent(
+                    Math.floorDiv(placement.eventTime, s.resolution.millis), k -> newZooms());
+            for (int z = 0; z <= maxZoom; z++) {
+                int shift = maxZoom - z;
+                int bx = placement.px >> shift, by = placement.py >> shift;
+                zooms.get(z).computeIfAbsent(TileMath.key(bx >> GRID_BITS, by >> GRID_BITS), k -> new Frame())
+                        .increment((by & GRID_MASK) * GRID_SIZE + (bx & GRID_MASK));
+            }
+            added = true;
+        }
+        if (added)
+            placements.put(report.getId(), placement);
+        return added;
+    }
+
+    private void removeCounts(String reportId) {
+        Placement placement = placements.remove(reportId);
+        if (placement == null)
+            return;
+        for (Series s : series.values()) {
+            // Already pruned
+            List<Map<Long, Frame>> zooms = s.buckets.get(Math.floorDiv(placement.eventTime, s.resolution.millis));
+            if (zooms == null)
+                continue;
+            for (int z = 0; z <= maxZoom; z++) {
+                int shift = maxZoom - z;
+                int bx = placement.px >> shift, by = placement.py >> shift;
+                long tileKey = TileMath.key(bx >> GRID_BITS, by >> GRID_BITS);
+                Frame frame = zooms.get(z).get(tileKey);
+                if (frame != null && frame.decrement((by & GRID_MASK) * GRID_SIZE + (bx & GRID_MASK)))
+                    zooms.get(z).remove(tileKey);
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private List<Map<Long, Frame>> newZooms() {
+        List<Map<Long, Frame>> zooms = new ArrayList<>(maxZoom + 1);
+        for (int z = 0; z <= maxZoom; z++) {
+            zooms.add(new HashMap<>());
+        }
+        return zooms;
+    }
+
+    /**
+     * Buckets of one resolution: bucket index -> zoom -> tile key -> frame.
+     */
+    private static final class Series {
+        final Resolution resolution;
+        final long retentionMs;
+        final TreeMap<Long, List<Map<Long, Frame>>> buckets = new TreeMap<>();
+
+        Series(Resolution resolution, long retentionMs) {
+            this.resolution = resolution;
+            this.retentionMs = retentionMs;
+        }
+    }
+
+    /**
+     * Deepest-level bin coordinates and event time of a counted report.
+     */
+    private static final class Placement {
+        final int px;
+        final int py;
+        final long eventTime;
+
+        Placement(int px, int py, long eventTime) {
+            this.px = px;
+            this.py = py;
+            this.eventTime = eventTime;
+        }
+    }
+
+    /**
+     * Non-empty bins of one tile in one bucket, each packed as bin << 24 | count.
+     */
+    private static final class Frame {
+        int[] entries = new int[2];
+        int size;
+
+        void increment(int bin) {
+            for (int i = 0; i < size; i++) {
+                if (entries[i] >>> 24 == bin) {
+                    entries[i]++;
+                    return;
+                }
+            }
+            if (size == entries.length)
+                entries = Arrays.copyOf(entries, Math.min(size * 2, GRID_SIZE * GRID_SIZE));
+            entries[size++] = bin << 24 | 1;
+        }
+
+        /**
+         * @return whether the frame is now empty
+         */
+        boolean decrement(int bin) {
+            for (int i = 0; i < size; i++) {
+                if (entries[i] >>> 24 == bin) {
+                    if ((entries[i] & 0xffffff) > 1)
+                        entries[i]--;
+                    else
+                        entries[i] = entries[--size];
+                    break;
+                }
+            }
+            return size == 0;
+        }
+    }
+}
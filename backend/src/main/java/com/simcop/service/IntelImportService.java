@@ -0,0 +1,371 @@
+package com.simcop.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.simcop.dto.IntelImportResultDTO;
+import com.simcop.event.IntelReportsIngestedEvent;
+import com.simcop.model.IntelligenceCredibility;
+import com.simcop.model.IntelligenceReliability;
+import com.simcop.model.IntelligenceReport;
+import com.simcop.model.IntelligenceSourceType;
+import com.simcop.model.embeddable.GeoLocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * Bulk import of intel dumps from partner systems. The body is read record by
+ * record (NDJSON lines or CSV rows, via Jackson's streaming parsers), so only
+ * one batch is ever in memory. Each record is validated and normalized; each
+ * batch is inserted with JDBC batch statements in its own transaction, then
+ * indexed for search and published once (IntelReportsIngestedEvent) to the
+ * hotspot, heatmap and geofence views.
+ */
+@Service
+public class IntelImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IntelImportService.class);
+
+    public enum Format {
+        NDJSON, CSV
+    }
+
+    private static final String INSERT_REPORT_SQL = "INSERT INTO intelligence_reports (id, title, type, "
+            + "source_details, reliability, credibility, lat, lon, event_timestamp, report_timestamp, details, "
+            + "reporting_unit_id, duplicate_of) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_KEYWORD_SQL = "INSERT INTO intelligence_report_keywords "
+            + "(intelligence_report_id, keywords) VALUES (?, ?)";
+
+    private static final int MAX_TEXT = 255;
+    // A CSV parser that keeps failing is not advancing; stop instead of spinning
+    private static final int MAX_CONSECUTIVE_ERRORS = 100;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private IntelSearchService searchService;
+
+    @Autowired
+    private IntelDedupService dedupService;
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    private final TransactionTemplate transactionTemplate;
+    private final CsvMapper csvMapper = new CsvMapper();
+
+    @Value("${intel-import.batch-size:500}")
+    private int batchSize = 500;
+
+    public IntelImportService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * @param reportingUnitId when set, overrides the unit of every record (as
+     *                        in single report creation)
+     */
+    public IntelImportResultDTO importReports(InputStream body, Format format, String reportingUnitId)
+            throws IOException {
+        long start = System.currentTimeMillis();
+        IntelImportResultDTO result = new IntelImportResultDTO();
+        BatchWriter writer = new BatchWriter(result);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+
+        if (format == Format.CSV) {
+            readCsv(reader, reportingUnitId, result, writer);
+        } else {
+            readNdjson(reader, reportingUnitId, result, writer);
+        }
+        writer.flush();
+
+        result.setElapsedMillis(System.currentTimeMillis() - start);
+        logger.info("Intel import: {} imported, {} invalid, {} duplicates in {} batches ({} ms)",
+                result.getImported(), result.getInvalid(), result.getDuplicates(), result.getBatches(),
+                result.getElapsedMillis());
+        return result;
+    }
+
+    private void readNdjson(BufferedReader reader, String reportingUnitId, IntelImportResultDTO result,
+            BatchWriter writer) throws IOException {
+        long record = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank())
+                continue;
+            record++;
+            result.addReceived();
+            try {
+                writer.add(normalize(objectMapper.readTree(line), reportingUnitId));
+            } catch (IOException e) {
+                result.addError(record, "JSON inválido");
+            } catch (IllegalArgumentException e) {
+                result.addError(record, e.getMessage());
+            }
+        }
+    }
+
+    private void readCsv(BufferedReader reader, String reportingUnitId, IntelImportResultDTO result,
+            BatchWriter writer) throws IOException {
+        CsvSchema schema = CsvSchema.emptySchema().withHeader();
+        try (MappingIterator<Map<String, String>> rows = csvMapper.readerForMapOf(String.class).with(schema)
+                .readValues(reader)) {
+            long record = 0;
+            int consecutiveErrors = 0;
+            while (true) {
+                Map<String, String> row;
+                try {
+                    if (!rows.hasNextValue())
+                        break;
+                    row = rows.nextValue();
+                    consecutiveErrors = 0;
+                } catch (IOException | RuntimeException e) {
+                    record++;
+                    result.addReceived();
+                    result.addError(record, "Fila CSV inválida");
+                    if (++consecutiveErrors >= MAX_CONSECUTIVE_ERRORS)
+                        break;
+                    continue;
+                }
+                record++;
+                result.addReceived();
+                try {
+                    writer.add(normalize(csvRowToNode(row), reportingUnitId));
+                } catch (IllegalArgumentException e) {
+                    result.addError(record, e.getMessage());
+                }
+            }
+        }
+    }
+
+    // CSV columns use the JSON field names; keywords are separated by ';'
+    private ObjectNode csvRowToNode(Map<String, String> row) {
+        ObjectNode node = objectMapper.createObjectNode();
+        for (Map.Entry<String, String> column : row.entrySet()) {
+            String name = column.getKey().trim();
+            String value = column.getValue();
+            if (value == null || value.isBlank())
+                continue;
+            if (name.equals("keywords")) {
+                ArrayNode keywords = node.putArray("keywords");
+                for (String keyword : value.split(";")) {
+                    keywords.add(keyword);
+                }
+            } else {
+                node.put(name, value.trim());
+            }
+        }
+        return node;
+    }
+
+    private IntelligenceReport normalize(JsonNode node, String reportingUnitId) {
+        if (node == null || !node.isObject())
+            throw new IllegalArgumentException("se esperaba un objeto");
+
+        IntelligenceReport report = new IntelligenceReport();
+        String id = text(node, "id", MAX_TEXT);
+        report.setId(id != null ? id : UUID.randomUUID().toString());
+
+        String title = text(node, "title", MAX_TEXT);
+        if (title == null)
+            throw new IllegalArgumentException("título requerido");
+        report.setTitle(title);
+        report.setSourceDetails(text(node, "sourceDetails", MAX_TEXT));
+        report.setDetails(text(node, "details", Integer.MAX_VALUE));
+        report.setType(parseEnum(IntelligenceSourceType.class, text(node, "type", MAX_TEXT), "tipo"));
+        report.setReliability(parseEnum(IntelligenceReliability.class, text(node, "reliability", MAX_TEXT),
+                "fiabilidad"));
+        report.setCredibility(parseCredibility(text(node, "credibility", MAX_TEXT)));
+
+        JsonNode location = node.has("location") ? node.get("location") : node;
+        Double lat = number(location, "lat");
+        Double lon = number(location, "lon");
+        if (lat == null || lon == null)
+            throw new IllegalArgumentException("ubicación requerida (lat, lon)");
+        if (lat < -90 || lat > 90 || lon < -180 || lon > 180)
+            throw new IllegalArgumentException("ubicación fuera de rango");
+        report.setLocation(new GeoLocation(lat, lon));
+
+        long now = System.currentTimeMillis();
+        Long reportTimestamp = timestamp(node, "reportTimestamp");
+        Long eventTimestamp = timestamp(node, "eventTimestamp");
+        report.setReportTimestamp(reportTimestamp != null ? reportTimestamp : now);
+        report.setEventTimestamp(eventTimestamp != null ? eventTimestamp : report.getReportTimestamp());
+
+        // Trimmed, without blanks or case-insensitive repeats
+        Map<String, String> keywords = new LinkedHashMap<>();
+        JsonNode keywordNode = node.get("keywords");
+        if (keywordNode != null) {
+            Iterable<JsonNode> values = keywordNode.isArray() ? keywordNode : List.of(keywordNode);
+            for (JsonNode value : values) {
+                String keyword = value.asText("").trim();
+                if (!keyword.isEmpty() && keyword.length() <= MAX_TEXT)
+                    keywords.putIfAbsent(keyword.toLowerCase(Locale.ROOT), keyword);
+            }
+        }
+        report.setKeywords(new ArrayList<>(keywords.values()));
+
+        report.setReportingUnitId(reportingUnitId != null ? reportingUnitId : text(node, "reportingUnitId", MAX_TEXT));
+        return report;
+    }
+
+    private static String text(JsonNode node, String field, int maxLength) {
+        JsonNode value = node.get(field);
+        if (value == null || value.isNull())
+            return null;
+        String text = value.asText().trim();
+        if (text.isEmpty())
+            return null;
+        return text.length() > maxLength ? text.substring(0, maxLength) : text;
+    }
+
+    private static Double number(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        if (value == null || value.isNull())
+            return null;
+        if (value.isNumber())
+            return value.asDouble();
+        try {
+            return Double.parseDouble(value.asText().trim().replace(',', '.'));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " no es numérico");
+        }
+    }
+
+    // Epoch milliseconds or ISO-8601 instant ("2026-10-19T08:30:00Z")
+    private static Long timestamp(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        if (value == null || value.isNull() || value.asText().isBlank())
+            return null;
+        if (value.isNumber())
+            return value.asLong();
+        String text = value.asText().trim();
+        try {
+            return Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            try {
+                return Instant.parse(text).toEpochMilli();
+            } catch (DateTimeParseException ex) {
+                throw new IllegalArgumentException(field + " no es una fecha válida");
+            }
+        }
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String label) {
+        if (value == null)
+            return null;
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(label + " inválido: " + value);
+        }
+    }
+
+    // Accepts the enum name or the 1-6 digit used on intel forms
+    private static IntelligenceCredibility parseCredibility(String value) {
+        if (value != null && value.length() == 1 && value.charAt(0) >= '1' && value.charAt(0) <= '6') {
+            return IntelligenceCredibility.values()[value.charAt(0) - '1'];
+        }
+        return parseEnum(IntelligenceCredibility.class, value, "credibilidad");
+    }
+
+    /**
+     * Collects normalized records and writes them batchSize at a time.
+     */
+    private final class BatchWriter {
+        private final IntelImportResultDTO result;
+        private final Map<String, IntelligenceReport> pending = new LinkedHashMap<>();
+
+        BatchWriter(IntelImportResultDTO result) {
+            this.result = result;
+        }
+
+        void add(IntelligenceReport report) {
+            if (pending.putIfAbsent(report.getId(), report) != null) {
+                result.addDuplicates(1); // Same id twice in one batch: first one wins
+                return;
+            }
+            if (pending.size() >= batchSize)
+                flush();
+        }
+
+        void flush() {
+            if (pending.isEmpty())
+                return;
+            List<IntelligenceReport> batch = new ArrayList<>(pending.values());
+            pending.clear();
+
+            List<IntelligenceReport> inserted = transactionTemplate.execute(status -> insert(batch));
+            inserted = inserted != null ? inserted : List.of();
+            result.addBatch();
+            result.addImported(inserted.size());
+            result.addDuplicates(batch.size() - inserted.size());
+        }
+
+        private List<IntelligenceReport> insert(List<IntelligenceReport> batch) {
+            Set<String> existing = new HashSet<>(jdbcTemplate.queryForList(
+                    "SELECT id FROM intelligence_reports WHERE id IN ("
+                            + String.join(",", Collections.nCopies(batch.size(), "?")) + ")",
+                    String.class, batch.stream().map(IntelligenceReport::getId).toArray()));
+            List<IntelligenceReport> fresh = batch.stream().filter(r -> !existing.contains(r.getId())).toList();
+            if (fresh.isEmpty())
+                return fresh;
+            fresh.forEach(dedupService::assign);
+
+            jdbcTemplate.batchUpdate(INSERT_REPORT_SQL, fresh, batchSize, (ps, r) -> {
+                ps.setString(1, r.getId());
+                ps.setString(2, r.getTitle());
+                ps.setString(3, r.getType() != null ? r.getType().name() : null);
+                ps.setString(4, r.getSourceDetails());
+                ps.setString(5, r.getReliability() != null ? r.getReliability().name() : null);
+                ps.setString(6, r.getCredibility() != null ? r.getCredibility().name() : null);
+                ps.setDouble(7, r.getLocation().getLat());
+                ps.setDouble(8, r.getLocation().getLon());
+                ps.setLong(9, r.getEventTimestamp());
+                ps.setLong(10, r.getReportTimestamp());
+                ps.setString(11, r.getDetails());
+                ps.setString(12, r.getReportingUnitId());
+                ps.setString(13, r.getDuplicateOf());
+            });
+
+            List<String[]> keywordRows = new ArrayList<>();
+            for (IntelligenceReport r : fresh) {
+                for (String keyword : r.getKeywords()) {
+                    keywordRows.add(new String[] { r.getId(), keyword });
+                }
+            }
+            jdbcTemplate.batchUpdate(INSERT_KEYWORD_SQL, keywordRows, batchSize, (ps, row) -> {
+                ps.setString(1, row[0]);
+                ps.setString(2, row[1]);
+            });
+
+            searchService.index(fresh);
+            publisher.publishEvent(new IntelReportsIngestedEvent(fresh));
+            return fresh;
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package com.simcop.service;
+
+import com.simcop.dto.IntelSearchHitDTO;
+import com.simcop.dto.IntelSearchResultDTO;
+import com.simcop.model.IntelligenceReport;
+import com.simcop.model.User;
+import com.simcop.repository.IntelligenceReportRepository;
+import com.simcop.util.SpanishFoldingAnalyzer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.document.*;
+import org.apache.lucene.facet.FacetResult;
+import org.apache.lucene.facet.FacetsCollector;
+import org.apache.lucene.facet.FacetsConfig;
+import org.apache.lucene.facet.LabelAndValue;
+import org.apache.lucene.facet.sortedset.DefaultSortedSetDocValuesReaderState;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetCounts;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.*;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Full-text search over intelligence reports, backed by a Lucene index on the
+ * local disk (intel-search.index-dir). Title, details and keywords are
+ * analyzed as Spanish with accent folding; keywords are also kept as exact
+ * terms for facets and filters. The index follows report creation and
+ * retention after commit, and is rebuilt from the table on startup whenever
+ * the document count disagrees with it.
+ */
+@Service
+public class IntelSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IntelSearchService.class);
+
+    private static final String ID = "id";
+    private static final String TITLE = "title";
+    private static final String DETAILS = "details";
+    private static final String KEYWORDS = "keywords";
+    private static final String KEYWORD = "keyword";
+    private static final String KEYWORD_FACET = "keywordFacet";
+    private static final String UNIT = "unit";
+    private static final String EVENT_TIME = "eventTimestamp";
+    private static final String LOCATION = "location";
+    // Reports filed without a unit are visible to every user, as in GET /api/intel
+    private static final String NO_UNIT = "_none";
+
+    private static final Map<String, Float> FIELD_WEIGHTS = Map.of(TITLE, 3f, KEYWORDS, 2f, DETAILS, 1f);
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_FACETS = 20;
+    private static final int REBUILD_BATCH = 500;
+
+    @Autowired
+    private IntelligenceReportRepository reportRepository;
+
+    @Autowired
+    private VisibilityService visibilityService;
+
+    private final Path indexPath;
+    private final TransactionTemplate transactionTemplate;
+    private final Analyzer analyzer = new SpanishFoldingAnalyzer();
+    private final FacetsConfig facetsConfig = new FacetsConfig();
+
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+
+    public IntelSearchService(@Value("${intel-search.index-dir:index/intel}") String indexDir,
+            PlatformTransactionManager transactionManager) {
+        this.indexPath = Paths.get(indexDir).toAbsolutePath().normalize();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        facetsConfig.setMultiValued(KEYWORD_FACET, true);
+    }
+
+    @PostConstruct
+    public void open() {
+        try {
+            Files.createDirectories(indexPath);
+            directory = FSDirectory.open(indexPath);
+            writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+            searcherManager = new SearcherManager(writer, null);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not open intel search index at " + indexPath, e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void syncIndex() {
+        long rows = reportRepository.count();
+        if (writer.getDocStats().numDocs != rows) {
+            rebuild();
+        }
+    }
+
+    public synchronized void rebuild() {
+        try {
+            writer.deleteAll();
+            int indexed = 0;
+            for (int page = 0;; page++) {
+                PageRequest request = PageRequest.of(page, REBUILD_BATCH,
+                        org.springframework.data.domain.Sort.by(ID));
+                List<Document> docs = transactionTemplate.execute(status -> toDocuments(
+                        reportRepository.findAll(request).getContent()));
+                if (docs == null || docs.isEmpty())
+                    break;
+                writer.addDocuments(docs);
+                indexed += docs.size();
+            }
+            commit();
+            logger.info("Intel search: indexed {} reports", indexed);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not rebuild intel search index", e);
+        }
+    }
+
+    /**
+     * Indexes (or re-indexes) the reports once the current transaction commits.
+     * Documents are built now, while lazy collections can still be read.
+     */
+    public void index(Collection<IntelligenceReport> reports) {
+        List<Document> docs = toDocuments(reports);
+        if (!docs.isEmpty()) {
+            afterCommit(() -> write(docs, List.of()));
+        }
+    }
+
+    public void index(IntelligenceReport report) {
+        index(List.of(report));
+    }
+
+    public void remove(Collection<String> reportIds) {
+        if (!reportIds.isEmpty()) {
+            List<String> ids = new ArrayList<>(reportIds);
+            afterCommit(() -> write(List.of(), ids));
+        }
+    }
+
+    /**
+     * Ranked search (BM25; title weighs more than keywords, keywords more than
+     * details). The query uses simple syntax: "phrases", -exclusions, prefix*.
+     * Without a query, matches come newest first. Only reports of units the
+     * user can see are returned.
+     */
+    public IntelSearchResultDTO search(User user, String text, Long from, Long to, double[] bbox,
+            List<String> keywords, int page, int size) {
+        page = Math.max(0, page);
+        size = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        boolean ranked = text != null && !text.isBlank();
+        if (ranked) {
+            Query parsed = new SimpleQueryParser(analyzer, FIELD_WEIGHTS).parse(text);
+            // Only stop words: nothing can match
+            builder.add(parsed != null ? parsed : new MatchNoDocsQuery(), BooleanClause.Occur.MUST);
+        } else {
+            builder.add(new MatchAllDocsQuery(), BooleanClause.Occur.MUST);
+        }
+        if (from != null || to != null) {
+            builder.add(LongPoint.newRangeQuery(EVENT_TIME, from != null ? from : Long.MIN_VALUE,
+                    to != null ? to : Long.MAX_VALUE), BooleanClause.Occur.FILTER);
+        }
+        if (bbox != null) {
+            if (!(bbox[2] >= bbox[0]) || !(bbox[3] >= bbox[1])) {
+                throw new IllegalArgumentException("Invalid bounding box");
+            }
+            builder.add(LatLonPoint.newBoxQuery(LOCATION, bbox[0], bbox[2], bbox[1], bbox[3]),
+                    BooleanClause.Occur.FILTER);
+        }
+        if (keywords != null) {
+            for (String keyword : keywords) {
+                String label = normalizeKeyword(keyword);
+                if (label != null)
+                    builder.add(new TermQuery(new Term(KEYWORD, label)), BooleanClause.Occur.FILTER);
+            }
+        }
+        Set<String> visibleIds = visibilityService.getVisibleUnitIds(user);
+        if (visibleIds != null) {
+            List<BytesRef> units = new ArrayList<>();
+            units.add(new BytesRef(NO_UNIT));
+            visibleIds.forEach(id -> units.add(new BytesRef(id)));
+            builder.add(new TermInSetQuery(UNIT, units), BooleanClause.Occur.FILTER);
+        }
+        Query query = builder.build();
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                FacetsCollector facets = new FacetsCollector();
+                int wanted = (page + 1) * size;
+                TopDocs top = ranked ? FacetsCollector.search(searcher, query, wanted, facets)
+                        : FacetsCollector.search(searcher, query, wanted,
+                                new Sort(new SortField(EVENT_TIME, SortField.Type.LONG, true)), facets);
+
+                List<String> ids = new ArrayList<>();
+                List<Float> scores = new ArrayList<>();
+                StoredFields stored = searcher.storedFields();
+                for (int i = page * size; i < top.scoreDocs.length; i++) {
+                    ScoreDoc hit = top.scoreDocs[i];
+                    ids.add(stored.document(hit.doc).get(ID));
+                    scores.add(Float.isNaN(hit.score) ? 0f : hit.score);
+                }
+                return new IntelSearchResultDTO(top.totalHits.value, page, size, loadHits(ids, scores),
+                        keywordFacets(searcher, facets));
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Intel search failed", e);
+        }
+    }
+
+    private List<IntelSearchHitDTO> loadHits(List<String> ids, List<Float> scores) {
+        Map<String, IntelligenceReport> byId = new HashMap<>();
+        for (IntelligenceReport report : reportRepository.findAllById(ids)) {
+            byId.put(report.getId(), report);
+        }
+        List<IntelSearchHitDTO> hits = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            IntelligenceReport report = byId.get(ids.get(i));
+            if (report != null) // Deleted after the searcher was opened
+                hits.add(new IntelSearchHitDTO(scores.get(i), report));
+        }
+        return hits;
+    }
+
+    private Map<String, Integer> keywordFacets(IndexSearcher searcher, FacetsCollector collector)
+            throws IOException {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        DefaultSortedSetDocValuesReaderState state;
+        try {
+            state = new DefaultSortedSetDocValuesReaderState(searcher.getIndexReader(), facetsConfig);
+        } catch (IllegalArgumentException e) {
+            return result; // No report has keywords yet
+        }
+        FacetResult top = new SortedSetDocValuesFacetCounts(state, collector).getTopChildren(MAX_FACETS,
+                KEYWORD_FACET);
+        if (top != null) {
+            for (LabelAndValue entry : top.labelValues) {
+                result.put(entry.label, entry.value.intValue());
+            }
+        }
+        return result;
+    }
+
+    private synchronized void write(List<Document> docs, List<String> deletedIds) {
+        try {
+            for (Document doc : docs) {
+                writer.updateDocument(new Term(ID, doc.get(ID)), doc);
+            }
+            for (String id : deletedIds) {
+                writer.deleteDocuments(new Term(ID, id));
+            }
+            commit();
+        } catch (IOException e) {
+            // The report itself is saved; the count check on startup repairs the index
+            logger.error("Intel search: could not update index", e);
+        }
+    }
+
+    private void commit() throws IOException {
+        writer.commit();
+        searcherManager.maybeRefresh();
+    }
+
+    private List<Document> toDocuments(Collection<IntelligenceReport> reports) {
+        List<Document> docs = new ArrayList<>(reports.size());
+        for (IntelligenceReport report : reports) {
+            if (report.getId() != null)
+                docs.add(toDocument(report));
+        }
+        return docs;
+    }
+
+    private Document toDocument(IntelligenceReport report) {
+        Document doc = new Document();
+        doc.add(new StringField(ID, report.getId(), Field.Store.YES));
+        if (report.getTitle() != null)
+            doc.add(new TextField(TITLE, report.getTitle(), Field.Store.NO));
+        if (report.getDetails() != null)
+            doc.add(new TextField(DETAILS, report.getDetails(), Field.Store.NO));
+        Set<String> labels = new LinkedHashSet<>();
+        if (report.getKeywords() != null) {
+            for (String keyword : report.getKeywords()) {
+                String label = normalizeKeyword(keyword);
+                if (label != null && labels.add(label)) {
+                    doc.add(new TextField(KEYWORDS, keyword, Field.Store.NO));
+                    doc.add(new StringField(KEYWORD, label, Field.Store.NO));
+                    doc.add(new SortedSetDocValuesFacetField(KEYWORD_FACET, label));
+                }
+            }
+        }
+        doc.add(new StringField(UNIT, report.getReportingUnitId() != null ? report.getReportingUnitId() : NO_UNIT,
+                Field.Store.NO));
+        doc.add(new LongPoint(EVENT_TIME, report.getEventTimestamp()));
+        doc.add(new NumericDocValuesField(EVENT_TIME, report.getEventTimestamp()));
+        if (report.getLocation() != null) {
+            doc.add(new LatLonPoint(LOCATION, report.getLocation().getLat(), report.getLocation().getLon()));
+        }
+        try {
+            return facetsConfig.build(doc);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not build search document for report " + report.getId(), e);
+        }
+    }
+
+    // Facet labels: trimmed and lowercased, accents kept for display
+    private static String normalizeKeyword(String keyword) {
+        if (keyword == null || keyword.isBlank())
+            return null;
+        return keyword.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
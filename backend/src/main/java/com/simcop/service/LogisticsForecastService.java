@@ -0,0 +1,258 @@
+package com.simcop.service;
+
+import com.simcop.dto.LogisticsPredictionDTO;
+import com.simcop.event.UnitChangedEvent;
+import com.simcop.model.MilitaryUnit;
+import com.simcop.model.UnitType;
+import com.simcop.repository.MilitaryUnitRepository;
+import com.simcop.util.GeoUtils;
+import com.simcop.util.SpatialGrid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps an in-memory depletion forecast per unit. Consumption rates for fuel,
+ * ammo and supplies are learned from successive unit updates (exponentially
+ * smoothed), so logistics predictions are answered without touching the DB.
+ */
+@Service
+public class LogisticsForecastService {
+
+    public static final String STATUS_NORMAL = "NORMAL";
+    public static final String STATUS_LOW = "BAJO";
+    public static final String STATUS_CRITICAL = "CRÍTICO";
+
+    private static final double LOW_THRESHOLD_DAYS = 7.0;
+    private static final double CRITICAL_THRESHOLD_DAYS = 2.0;
+    private static final double HOUR_MS = 60 * 60 * 1000.0;
+    // Weight of the newest observed rate in the moving average
+    private static final double RATE_SMOOTHING = 0.3;
+    // Without observations, daysOfSupply is assumed to drain one day per day
+    private static final double NOMINAL_SUPPLY_RATE_PER_HOUR = 1.0 / 24.0;
+
+    private static final Set<UnitType> SUPPORT_UNIT_TYPES = EnumSet.of(UnitType.BATTALION, UnitType.BRIGADE);
+    // ~55 km cells: a handful of cells covers a typical resupply radius
+    private static final double SUPPORT_INDEX_CELL_DEG = 0.5;
+
+    @Autowired
+    private MilitaryUnitRepository unitRepository;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    private final Map<String, UnitForecast> forecasts = new ConcurrentHashMap<>();
+    private final SpatialGrid<String> supportIndex = new SpatialGrid<>(SUPPORT_INDEX_CELL_DEG);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadForecasts() {
+        for (MilitaryUnit unit : unitRepository.findAll()) {
+            apply(UnitChangedEvent.of(unit), false);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUnitChanged(UnitChangedEvent event) {
+        apply(event, true);
+    }
+
+    /**
+     * Projections drift with time even without updates; re-check thresholds.
+     */
+    @Scheduled(fixedRate = 60000)
+    public void reevaluateThresholds() {
+        long now = System.currentTimeMillis();
+        for (UnitForecast forecast : forecasts.values()) {
+            publishIfCrossed(forecast, now);
+        }
+    }
+
+    public List<LogisticsPredictionDTO> getPredictions() {
+        long now = System.currentTimeMillis();
+        return forecasts.values().stream()
+                .map(f -> toPrediction(f, now))
+                .filter(p -> p.getDaysRemaining() < LOW_THRESHOLD_DAYS)
+                .sorted(Comparator.comparingDouble(LogisticsPredictionDTO::getDaysRemaining))
+                .collect(Collectors.toList());
+    }
+
+    public LogisticsPredictionDTO getPrediction(String unitId) {
+        UnitForecast forecast = forecasts.get(unitId);
+        return forecast != null ? toPrediction(forecast, System.currentTimeMillis()) : null;
+    }
+
+    /**
+     * Nearest battalion/brigade to the point, excluding the given unit.
+     */
+    public SpatialGrid.Entry<String> findClosestSupport(double lat, double lon, String excludeUnitId) {
+        return supportIndex.nearest(lat, lon, e -> !e.getId().equals(excludeUnitId));
+    }
+
+    private void apply(UnitChangedEvent event, boolean notify) {
+        if (event.getUnitId() == null)
+            return;
+
+        if (event.isRemoved()) {
+            forecasts.remove(event.getUnitId());
+            supportIndex.remove(event.getUnitId());
+            return;
+        }
+
+        UnitForecast forecast = forecasts.computeIfAbsent(event.getUnitId(), UnitForecast::new);
+        forecast.update(event);
+
+        if (event.getType() != null) {
+            if (SUPPORT_UNIT_TYPES.contains(event.getType()) && forecast.lat != null && forecast.lon != null) {
+                supportIndex.put(forecast.unitId, forecast.lat, forecast.lon, forecast.name);
+            } else {
+                supportIndex.remove(forecast.unitId);
+            }
+        } else if (event.hasLocation() && supportIndex.get(forecast.unitId) != null) {
+            supportIndex.put(forecast.unitId, forecast.lat, forecast.lon, forecast.name);
+        }
+
+        if (notify) {
+            publishIfCrossed(forecast, event.getTimestamp());
+        } else {
+            forecast.lastStatus = statusFor(forecast.projectedHours(System.currentTimeMillis()) / 24.0);
+        }
+    }
+
+    private void publishIfCrossed(UnitForecast forecast, long now) {
+        LogisticsPredictionDTO prediction = toPrediction(forecast, now);
+        String previous;
+        synchronized (forecast) {
+            previous = forecast.lastStatus;
+            forecast.lastStatus = prediction.getStatus();
+        }
+        if (!prediction.getStatus().equals(previous)) {
+            messagingTemplate.convertAndSend("/topic/logistics", prediction);
+        }
+    }
+
+    private LogisticsPredictionDTO toPrediction(UnitForecast forecast, long now) {
+        double hours;
+        String limitingFactor;
+        String name;
+        Double lat, lon;
+        synchronized (forecast) {
+            hours = forecast.projectedHours(now);
+            limitingFactor = forecast.limitingFactor(now);
+            name = forecast.name;
+            lat = forecast.lat;
+            lon = forecast.lon;
+        }
+
+        double days = Math.max(0, hours / 24.0);
+        String status = statusFor(days);
+        String recommendation = "Programar reabastecimiento urgente.";
+        if (lat != null && lon != null) {
+            SpatialGrid.Entry<String> support = findClosestSupport(lat, lon, forecast.unitId);
+            if (support != null) {
+                recommendation = "Reabastecer desde " + support.getValue() + " ("
+                        + Math.round(GeoUtils.calculateDistanceKm(lat, lon, support.getLat(), support.getLon()))
+                        + " km).";
+            }
+        }
+
+        LogisticsPredictionDTO prediction = new LogisticsPredictionDTO(forecast.unitId, name, days, status,
+                recommendation);
+        prediction.setLimitingFactor(limitingFactor);
+        if (!Double.isInfinite(hours)) {
+            prediction.setProjectedDepletionTimestamp(now + (long) (Math.max(0, hours) * HOUR_MS));
+        }
+        return prediction;
+    }
+
+    private static String statusFor(double days) {
+        if (days < CRITICAL_THRESHOLD_DAYS)
+            return STATUS_CRITICAL;
+        if (days < LOW_THRESHOLD_DAYS)
+            return STATUS_LOW;
+        return STATUS_NORMAL;
+    }
+
+    /**
+     * Level of one resource plus its smoothed consumption rate (units per hour).
+     */
+    private static final class ResourceTrack {
+        Double level;
+        long sampleTimestamp;
+        double ratePerHour = Double.NaN;
+
+        void observe(Double newLevel, long timestamp) {
+            if (newLevel == null)
+                return;
+            if (level != null && newLevel.equals(level))
+                return; // Unchanged: keep the old sample so the next drop spans the full interval
+            if (level != null && newLevel < level && timestamp > sampleTimestamp) {
+                double observed = (level - newLevel) / ((timestamp - sampleTimestamp) / HOUR_MS);
+                ratePerHour = Double.isNaN(ratePerHour) ? observed
+                        : RATE_SMOOTHING * observed + (1 - RATE_SMOOTHING) * ratePerHour;
+            }
+            // Increases are resupplies: keep the learned rate, restart from the new level
+            level = newLevel;
+            sampleTimestamp = timestamp;
+        }
+
+        double hoursRemaining(long now, double defaultRatePerHour) {
+            if (level == null)
+                return Double.POSITIVE_INFINITY;
+            double rate = Double.isNaN(ratePerHour) ? defaultRatePerHour : ratePerHour;
+            if (!(rate > 0))
+                return Double.POSITIVE_INFINITY;
+            return level / rate - (now - sampleTimestamp) / HOUR_MS;
+        }
+    }
+
+    private static final class UnitForecast {
+        final String unitId;
+        String name;
+        Double lat;
+        Double lon;
+        String lastStatus;
+        final ResourceTrack supply = new ResourceTrack();
+        final ResourceTrack fuel = new ResourceTrack();
+        final ResourceTrack ammo = new ResourceTrack();
+
+        UnitForecast(String unitId) {
+            this.unitId = unitId;
+        }
+
+        synchronized void update(UnitChangedEvent event) {
+            if (event.getName() != null)
+                name = event.getName();
+            if (event.hasLocation()) {
+                lat = event.getLat();
+                lon = event.getLon();
+            }
+            supply.observe(event.getDaysOfSupply(), event.getTimestamp());
+            fuel.observe(event.getFuelLevel(), event.getTimestamp());
+            ammo.observe(event.getAmmoLevel(), event.getTimestamp());
+        }
+
+        double projectedHours(long now) {
+            return Math.min(supply.hoursRemaining(now, NOMINAL_SUPPLY_RATE_PER_HOUR),
+                    Math.min(fuel.hoursRemaining(now, 0), ammo.hoursRemaining(now, 0)));
+        }
+
+        String limitingFactor(long now) {
+            double s = supply.hoursRemaining(now, NOMINAL_SUPPLY_RATE_PER_HOUR);
+            double f = fuel.hoursRemaining(now, 0);
+            double a = ammo.hoursRemaining(now, 0);
+            if (Double.isInfinite(Math.min(s, Math.min(f, a))))
+                return null;
+            if (s <= f && s <= a)
+                return "SUMINISTROS";
+            return f <= a ? "COMBUSTIBLE" : "MUNICIÓN";
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.simcop.service;
+
+import com.simcop.dto.PositionIngestResultDTO;
+import com.simcop.dto.PositionIngestStatsDTO;
+import com.simcop.dto.PositionReportDTO;
+import com.simcop.event.UnitChangedEvent;
+import com.simcop.model.embeddable.RoutePoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * High-rate GPS position ingestion. Reports are queued in a bounded buffer
+ * (full queue = rejected, the sender retries) and flushed periodically: each
+ * unit's row gets only its newest fix in one JDBC batch, every fix is appended
+ * to the route history, and the moved units go out on /topic/unit-positions.
+ * A batch whose transaction fails is kept and retried ahead of the queue, up
+ * to max-flush-retries times, as its reports were already accepted.
+ */
+@Service
+public class PositionIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PositionIngestionService.class);
+
+    public static final String TOPIC = "/topic/unit-positions";
+
+    // Late fixes never move a unit backwards in time
+    private static final String UPDATE_POSITION_SQL = "UPDATE military_units SET lat = ?, lon = ?, "
+            + "last_movement_timestamp = ? WHERE id = ? "
+            + "AND (last_movement_timestamp IS NULL OR last_movement_timestamp <= ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RouteHistoryService routeHistoryService;
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<PositionReportDTO> queue;
+    private final int queueCapacity;
+
+    @Value("${positions.max-flush-size:5000}")
+    private int maxFlushSize = 5000;
+
+    @Value("${positions.jdbc-batch-size:200}")
+    private int jdbcBatchSize = 200;
+
+    @Value("${positions.max-flush-retries:10}")
+    private int maxFlushRetries = 10;
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong unitUpdates = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long lastFlushMillis;
+    // Drained batch whose transaction failed, and how many times it has
+    private volatile List<PositionReportDTO> retryBatch;
+    private int retryAttempts;
+
+    public PositionIngestionService(PlatformTransactionManager transactionManager,
+            @Value("${positions.queue-capacity:20000}") int queueCapacity) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queueCapacity = queueCapacity;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    public PositionIngestResultDTO submit(List<PositionReportDTO> reports) {
+        long now = System.currentTimeMillis();
+        int accepted = 0, invalid = 0, full = 0;
+        for (PositionReportDTO report : reports) {
+            if (!isValid(report)) {
+                invalid++;
+                continue;
+            }
+            if (report.getTimestamp() == null) {
+                report.setTimestamp(now);
+            }
+            if (queue.offer(report)) {
+                accepted++;
+            } else {
+                full++;
+            }
+        }
+        received.addAndGet(accepted);
+        rejected.addAndGet(full);
+        return new PositionIngestResultDTO(accepted, invalid, full, queue.size());
+    }
+
+    /**
+     * Retries a failed batch first; while the database keeps failing, the
+     * queue is left alone (and fills up, so senders are told to retry).
+     */
+    @Scheduled(fixedDelayString = "${positions.flush-interval-ms:500}")
+    public synchronized void flush() {
+        if (retryBatch != null && !tryFlush(retryBatch))
+            return;
+        List<PositionReportDTO> drained;
+        do {
+            drained = new ArrayList<>();
+            queue.drainTo(drained, maxFlushSize);
+            if (drained.isEmpty() || !tryFlush(drained))
+                return;
+        } while (drained.size() == maxFlushSize);
+    }
+
+    public PositionIngestStatsDTO getStats() {
+        List<PositionReportDTO> retrying = retryBatch;
+        return new PositionIngestStatsDTO(received.get(), rejected.get(), written.get(), unitUpdates.get(),
+                flushes.get(), failedFlushes.get(), dropped.get(), lastFlushMillis, queue.size(), queueCapacity,
+                retrying != null ? retrying.size() : 0);
+    }
+
+    /**
+     * @return false if the batch failed and is kept (or, past
+     *         max-flush-retries, dropped)
+     */
+    private boolean tryFlush(List<PositionReportDTO> reports) {
+        try {
+            flushBatch(reports);
+            retryBatch = null;
+            retryAttempts = 0;
+            return true;
+        } catch (RuntimeException e) {
+            failedFlushes.incrementAndGet();
+            if (reports != retryBatch) {
+                retryBatch = reports;
+                retryAttempts = 0;
+            }
+            if (++retryAttempts > maxFlushRetries) {
+                logger.error("Position flush failed {} times, dropping {} reports", retryAttempts, reports.size(), e);
+                dropped.addAndGet(reports.size());
+                retryBatch = null;
+                retryAttempts = 0;
+            } else {
+                logger.warn("Position flush failed ({}), {} reports kept for retry {}/{}", e.getMessage(),
+                        reports.size(), retryAttempts, maxFlushRetries);
+            }
+            return false;
+        }
+    }
+
+    private void flushBatch(List<PositionReportDTO> reports) {
+        long start = System.currentTimeMillis();
+
+        // Per-unit coalescing: the unit row only needs its newest fix, the route gets all of them
+        Map<String, PositionReportDTO> latest = new LinkedHashMap<>();
+        Map<String, List<RoutePoint>> routes = new HashMap<>();
+        for (PositionReportDTO report : reports) {
+            latest.merge(report.getUnitId(), report, (a, b) -> b.getTimestamp() >= a.getTimestamp() ? b : a);
+            routes.computeIfAbsent(report.getUnitId(), k -> new ArrayList<>())
+                    .add(new RoutePoint(report.getLat(), report.getLon(), report.getTimestamp()));
+        }
+
+        List<PositionReportDTO> moved = transactionTemplate.execute(status -> {
+            List<PositionReportDTO> units = new ArrayList<>(latest.values());
+            int[][] counts = jdbcTemplate.batchUpdate(UPDATE_POSITION_SQL, units, jdbcBatchSize, (ps, r) -> {
+                ps.setDouble(1, r.getLat());
+                ps.setDouble(2, r.getLon());
+                ps.setLong(3, r.getTimestamp());
+                ps.setString(4, r.getUnitId());
+                ps.setLong(5, r.getTimestamp());
+            });
+
+            // Zero rows: unknown unit or a fix older than the stored one
+            List<PositionReportDTO> updated = new ArrayList<>();
+            int i = 0;
+            for (int[] batch : counts) {
+                for (int count : batch) {
+                    if (count != 0)
+                        updated.add(units.get(i));
+                    i++;
+                }
+            }
+
+            Map<String, List<RoutePoint>> updatedRoutes = new HashMap<>();
+            for (PositionReportDTO r : updated) {
+                updatedRoutes.put(r.getUnitId(), routes.get(r.getUnitId()));
+                publisher.publishEvent(
+                        UnitChangedEvent.positionReport(r.getUnitId(), r.getLat(), r.getLon(), r.getTimestamp()));
+            }
+            written.addAndGet(routeHistoryService.appendAll(updatedRoutes));
+            return updated;
+        });
+
+        if (moved != null && !moved.isEmpty()) {
+            unitUpdates.addAndGet(moved.size());
+            messagingTemplate.convertAndSend(TOPIC, moved);
+        }
+        flushes.incrementAndGet();
+        lastFlushMillis = System.currentTimeMillis() - start;
+    }
+
+    private static boolean isValid(PositionReportDTO report) {
+        return report != null && report.getUnitId() != null
+                && report.getLat() >= -90 && report.getLat() <= 90
+                && report.getLon() >= -180 && report.getLon() <= 180;
+    }
+}
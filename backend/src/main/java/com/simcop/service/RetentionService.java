@@ -0,0 +1,164 @@
+package com.simcop.service;
+
+import com.simcop.model.Alert;
+import com.simcop.model.IntelligenceReport;
+import com.simcop.model.UnitHistoryEvent;
+import com.simcop.repository.AlertRepository;
+import com.simcop.repository.IntelligenceReportRepository;
+import com.simcop.repository.UnitHistoryEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Moves aged (and, for alerts, acknowledged) rows out of the live tables into
+ * the monthly NDJSON archive, so the hot tables stay bounded. Each batch is
+ * archived and deleted in its own transaction.
+ */
+@Service
+public class RetentionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetentionService.class);
+    private static final long DAY_MS = 24 * 60 * 60 * 1000L;
+
+    public static final String ALERTS = "alerts";
+    public static final String UNIT_HISTORY = "unit_history_events";
+    public static final String INTEL = "intelligence_reports";
+
+    @Autowired
+    private AlertRepository alertRepository;
+
+    @Autowired
+    private UnitHistoryEventRepository historyRepository;
+
+    @Autowired
+    private IntelligenceReportRepository intelRepository;
+
+    @Autowired
+    private ArchiveStorageService archiveStorage;
+
+    @Autowired
+    private IntelSearchService intelSearchService;
+
+    @Autowired
+    private IntelHeatmapService intelHeatmapService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${retention.batch-size:500}")
+    private int batchSize;
+
+    @Value("${retention.alerts.enabled:true}")
+    private boolean alertsEnabled;
+
+    @Value("${retention.alerts.acknowledged-age-days:2}")
+    private int alertsAcknowledgedAgeDays;
+
+    @Value("${retention.alerts.max-age-days:30}")
+    private int alertsMaxAgeDays;
+
+    @Value("${retention.unit-history.enabled:true}")
+    private boolean historyEnabled;
+
+    @Value("${retention.unit-history.max-age-days:90}")
+    private int historyMaxAgeDays;
+
+    @Value("${retention.intel.enabled:true}")
+    private boolean intelEnabled;
+
+    @Value("${retention.intel.max-age-days:180}")
+    private int intelMaxAgeDays;
+
+    public RetentionService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${retention.cron:0 0 3 * * *}")
+    public void runRetention() {
+        long now = System.currentTimeMillis();
+
+        if (alertsEnabled) {
+            long ackCutoff = now - alertsAcknowledgedAgeDays * DAY_MS;
+            long maxCutoff = now - alertsMaxAgeDays * DAY_MS;
+            int archived = archiveInBatches(ALERTS,
+                    page -> alertRepository.findByAcknowledgedTrueAndTimestampLessThan(ackCutoff, page),
+                    Alert::getTimestamp, alertRepository::deleteAllInBatch, "timestamp");
+            archived += archiveInBatches(ALERTS,
+                    page -> alertRepository.findByTimestampLessThan(maxCutoff, page),
+                    Alert::getTimestamp, alertRepository::deleteAllInBatch, "timestamp");
+            logArchived(ALERTS, archived);
+        }
+
+        if (historyEnabled) {
+            long cutoff = now - historyMaxAgeDays * DAY_MS;
+            logArchived(UNIT_HISTORY, archiveInBatches(UNIT_HISTORY,
+                    page -> historyRepository.findByTimestampLessThan(cutoff, page),
+                    UnitHistoryEvent::getTimestamp, historyRepository::deleteAllInBatch, "timestamp"));
+        }
+
+        if (intelEnabled) {
+            long cutoff = now - intelMaxAgeDays * DAY_MS;
+            // deleteAll (not in batch) so the keywords element collection is removed too
+            logArchived(INTEL, archiveInBatches(INTEL,
+                    page -> intelRepository.findByEventTimestampLessThan(cutoff, page),
+                    IntelligenceReport::getEventTimestamp, batch -> {
+                        intelRepository.deleteAll(batch);
+                        List<String> ids = batch.stream().map(IntelligenceReport::getId).toList();
+                        intelSearchService.remove(ids);
+                        // Otherwise archived reports stay on the heatmap until the next restart
+                        intelHeatmapService.remove(ids);
+                    }, "eventTimestamp"));
+        }
+    }
+
+    private <T> int archiveInBatches(String entityType, Function<Pageable, List<T>> finder,
+            Function<T, Long> timestampOf, Consumer<List<T>> deleter, String sortField) {
+        Pageable firstPage = PageRequest.of(0, batchSize, Sort.by(sortField));
+        int total = 0;
+        while (true) {
+            Integer moved = transactionTemplate.execute(status -> {
+                List<T> batch = finder.apply(firstPage);
+                if (batch.isEmpty())
+                    return 0;
+                archiveStorage.append(entityType, batch, timestampOf);
+                deleter.accept(batch);
+                return batch.size();
+            });
+            int count = moved != null ? moved : 0;
+            total += count;
+            if (count < batchSize)
+                return total;
+        }
+    }
+
+    private void logArchived(String entityType, int count) {
+        if (count > 0) {
+            logger.info("Retention: archived {} rows from {}", count, entityType);
+        }
+    }
+
+    public List<Alert> getArchivedAlerts() {
+        return archiveStorage.read(ALERTS, Alert.class, Alert::getId, a -> true);
+    }
+
+    public List<UnitHistoryEvent> getArchivedHistory(String unitId) {
+        return archiveStorage.read(UNIT_HISTORY, UnitHistoryEvent.class, UnitHistoryEvent::getId,
+                e -> unitId == null || unitId.equals(e.getUnitId()));
+    }
+
+    public List<IntelligenceReport> getArchivedReports() {
+        return archiveStorage.read(INTEL, IntelligenceReport.class, IntelligenceReport::getId, r -> true);
+    }
+}
@@ -0,0 +1,302 @@
+package com.simcop.service;
+
+import com.simcop.model.MilitaryUnit;
+import com.simcop.model.UnitRoutePoint;
+import com.simcop.model.UnitRouteSegment;
+import com.simcop.model.embeddable.RoutePoint;
+import com.simcop.repository.UnitRoutePointRepository;
+import com.simcop.repository.UnitRouteSegmentRepository;
+import com.simcop.util.RouteCodec;
+import com.simcop.util.RouteSimplifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only route history, stored apart from MilitaryUnit. New points go to
+ * unit_route_points; a scheduled job packs points older than
+ * route-history.compact-after-hours into binary unit_route_segments. The
+ * newest points per unit are cached, so unit reads never scan the route tables.
+ */
+@Service
+public class RouteHistoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RouteHistoryService.class);
+    private static final long HOUR_MS = 60 * 60 * 1000L;
+
+    // Same tail length the map client keeps (MAX_ROUTE_HISTORY_LENGTH)
+    public static final int RECENT_POINTS = 50;
+    // Ids per batched tail query, and segments read per unit when its points run short
+    private static final int PRELOAD_CHUNK = 500;
+    private static final int PRELOAD_SEGMENTS = 2;
+
+    @Autowired
+    private UnitRoutePointRepository pointRepository;
+
+    @Autowired
+    private UnitRouteSegmentRepository segmentRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${route-history.compact-after-hours:24}")
+    private long compactAfterHours;
+
+    @Value("${route-history.max-segment-points:5000}")
+    private int maxSegmentPoints;
+
+    // Newest first
+    private final Map<String, Deque<RoutePoint>> recent = new ConcurrentHashMap<>();
+
+    public RouteHistoryService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Appends the points newer than the unit's latest stored point; older or
+     * repeated points (e.g. a client re-sending its whole list) are ignored.
+     *
+     * @return number of points stored
+     */
+    @Transactional
+    public int append(String unitId, List<RoutePoint> points) {
+        if (unitId == null || points == null || points.isEmpty())
+            return 0;
+
+        Deque<RoutePoint> tail = tailOf(unitId);
+        List<RoutePoint> fresh = new ArrayList<>();
+        synchronized (tail) {
+            long last = tail.isEmpty() ? Long.MIN_VALUE : tail.peekFirst().getTimestamp();
+            for (RoutePoint p : points) {
+                if (p != null && p.getTimestamp() > last)
+                    fresh.add(p);
+            }
+            fresh.sort(Comparator.comparingLong(RoutePoint::getTimestamp));
+            for (RoutePoint p : fresh) {
+                tail.addFirst(p);
+                if (tail.size() > RECENT_POINTS)
+                    tail.removeLast();
+            }
+        }
+        if (fresh.isEmpty())
+            return 0;
+
+        List<UnitRoutePoint> rows = new ArrayList<>(fresh.size());
+        for (RoutePoint p : fresh) {
+            rows.add(new UnitRoutePoint(unitId, p.getLat(), p.getLon(), p.getTimestamp()));
+        }
+        pointRepository.saveAll(rows);
+        evictOnRollback(unitId);
+        return fresh.size();
+    }
+
+    /**
+     * Appends several units' points in one transaction, so the inserts are batched.
+     */
+    @Transactional
+    public int appendAll(Map<String, List<RoutePoint>> pointsByUnit) {
+        int stored = 0;
+        for (Map.Entry<String, List<RoutePoint>> entry : pointsByUnit.entrySet()) {
+            stored += append(entry.getKey(), entry.getValue());
+        }
+        return stored;
+    }
+
+    /**
+     * Latest points of the unit, newest first.
+     */
+    public List<RoutePoint> getRecent(String unitId) {
+        Deque<RoutePoint> tail = tailOf(unitId);
+        synchronized (tail) {
+            return new ArrayList<>(tail);
+        }
+    }
+
+    public MilitaryUnit withRecentRoute(MilitaryUnit unit) {
+        if (unit != null && unit.getId() != null) {
+            unit.setRouteHistory(getRecent(unit.getId()));
+        }
+        return unit;
+    }
+
+    /**
+     * withRecentRoute for a list of units; tails missing from the cache are
+     * loaded with one query per chunk of units instead of one per unit.
+     */
+    public List<MilitaryUnit> withRecentRoutes(List<MilitaryUnit> units) {
+        List<String> unitIds = new ArrayList<>();
+        for (MilitaryUnit unit : units) {
+            if (unit.getId() != null)
+                unitIds.add(unit.getId());
+        }
+        preloadTails(unitIds);
+        units.forEach(this::withRecentRoute);
+        return units;
+    }
+
+    /**
+     * Route between from and to (inclusive), oldest first. With a zoom level the
+     * line is simplified (Douglas-Peucker) to about one pixel of tolerance.
+     */
+    public List<RoutePoint> getRoute(String unitId, long from, long to, Integer zoom) {
+        List<RoutePoint> route = new ArrayList<>();
+        for (UnitRouteSegment segment : segmentRepository.findOverlapping(unitId, from, to)) {
+            for (RoutePoint p : RouteCodec.unpack(segment.getData())) {
+                if (p.getTimestamp() >= from && p.getTimestamp() <= to)
+                    route.add(p);
+            }
+        }
+        for (UnitRoutePoint row : pointRepository.findByUnitIdAndTimestampBetweenOrderByTimestampAsc(unitId, from,
+                to)) {
+            route.add(new RoutePoint(row.getLat(), row.getLon(), row.getTimestamp()));
+        }
+        route.sort(Comparator.comparingLong(RoutePoint::getTimestamp));
+
+        if (zoom != null) {
+            return RouteSimplifier.simplify(route, RouteSimplifier.toleranceForZoom(zoom));
+        }
+        return route;
+    }
+
+    @Transactional
+    public void deleteUnit(String unitId) {
+        pointRepository.deleteByUnit(unitId);
+        segmentRepository.deleteByUnit(unitId);
+        recent.remove(unitId);
+    }
+
+    @Scheduled(cron = "${route-history.compaction-cron:0 20 * * * *}")
+    public void compact() {
+        long cutoff = System.currentTimeMillis() - compactAfterHours * HOUR_MS;
+        int total = 0;
+        for (String unitId : pointRepository.findUnitIdsWithPointsBefore(cutoff)) {
+            while (true) {
+                Integer moved = transactionTemplate.execute(status -> compactBatch(unitId, cutoff));
+                int count = moved != null ? moved : 0;
+                total += count;
+                if (count < maxSegmentPoints)
+                    break;
+            }
+        }
+        if (total > 0) {
+            logger.info("Route history: compacted {} points into segments", total);
+        }
+    }
+
+    private int compactBatch(String unitId, long cutoff) {
+        List<UnitRoutePoint> rows = pointRepository.findByUnitIdAndTimestampLessThanOrderByTimestampAsc(unitId,
+                cutoff, PageRequest.of(0, maxSegmentPoints));
+        if (rows.isEmpty())
+            return 0;
+
+        List<RoutePoint> points = new ArrayList<>(rows.size());
+        for (UnitRoutePoint row : rows) {
+            points.add(new RoutePoint(row.getLat(), row.getLon(), row.getTimestamp()));
+        }
+        UnitRouteSegment segment = new UnitRouteSegment();
+        segment.setUnitId(unitId);
+        segment.setStartTimestamp(points.get(0).getTimestamp());
+        segment.setEndTimestamp(points.get(points.size() - 1).getTimestamp());
+        segment.setPointCount(points.size());
+        segment.setData(RouteCodec.pack(points));
+        segmentRepository.save(segment);
+        pointRepository.deleteAllInBatch(rows);
+        return rows.size();
+    }
+
+    private Deque<RoutePoint> tailOf(String unitId) {
+        return recent.computeIfAbsent(unitId, this::loadTail);
+    }
+
+    private void preloadTails(Collection<String> unitIds) {
+        List<String> missing = new ArrayList<>();
+        for (String unitId : new LinkedHashSet<>(unitIds)) {
+            if (!recent.containsKey(unitId))
+                missing.add(unitId);
+        }
+        for (int from = 0; from < missing.size(); from += PRELOAD_CHUNK) {
+            List<String> chunk = missing.subList(from, Math.min(missing.size(), from + PRELOAD_CHUNK));
+            Map<String, Deque<RoutePoint>> tails = new HashMap<>();
+            for (String unitId : chunk)
+                tails.put(unitId, new ArrayDeque<>());
+            for (Object[] row : pointRepository.findRecentByUnitIds(chunk, RECENT_POINTS)) {
+                tails.get((String) row[0]).addLast(new RoutePoint(((Number) row[1]).doubleValue(),
+                        ((Number) row[2]).doubleValue(), ((Number) row[3]).longValue()));
+            }
+
+            // Quiet units may have everything compacted already: fill from the newest segments
+            List<String> incomplete = new ArrayList<>();
+            for (String unitId : chunk) {
+                if (tails.get(unitId).size() < RECENT_POINTS)
+                    incomplete.add(unitId);
+            }
+            Map<String, Integer> segmentsRead = new HashMap<>();
+            if (!incomplete.isEmpty()) {
+                for (UnitRouteSegment segment : segmentRepository.findRecentByUnitIds(incomplete, PRELOAD_SEGMENTS)) {
+                    Deque<RoutePoint> tail = tails.get(segment.getUnitId());
+                    segmentsRead.merge(segment.getUnitId(), 1, Integer::sum);
+                    List<RoutePoint> points = RouteCodec.unpack(segment.getData());
+                    for (int i = points.size() - 1; i >= 0 && tail.size() < RECENT_POINTS; i--) {
+                        tail.addLast(points.get(i));
+                    }
+                }
+            }
+
+            for (Map.Entry<String, Deque<RoutePoint>> entry : tails.entrySet()) {
+                // Still short with more segments left (tiny segments): the per-unit path pages through them
+                if (entry.getValue().size() < RECENT_POINTS
+                        && segmentsRead.getOrDefault(entry.getKey(), 0) == PRELOAD_SEGMENTS)
+                    recent.computeIfAbsent(entry.getKey(), this::loadTail);
+                else
+                    recent.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private Deque<RoutePoint> loadTail(String unitId) {
+        Deque<RoutePoint> tail = new ArrayDeque<>();
+        for (UnitRoutePoint row : pointRepository.findByUnitIdOrderByTimestampDesc(unitId,
+                PageRequest.of(0, RECENT_POINTS))) {
+            tail.addLast(new RoutePoint(row.getLat(), row.getLon(), row.getTimestamp()));
+        }
+        // Quiet units may have everything compacted already: fill from the newest segments
+        int page = 0;
+        while (tail.size() < RECENT_POINTS) {
+            List<UnitRouteSegment> segments = segmentRepository.findByUnitIdOrderByStartTimestampDesc(unitId,
+                    PageRequest.of(page++, 4));
+            if (segments.isEmpty())
+                break;
+            for (UnitRouteSegment segment : segments) {
+                List<RoutePoint> points = RouteCodec.unpack(segment.getData());
+                for (int i = points.size() - 1; i >= 0 && tail.size() < RECENT_POINTS; i--) {
+                    tail.addLast(points.get(i));
+                }
+            }
+        }
+        return tail;
+    }
+
+    private void evictOnRollback(String unitId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive())
+            return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    recent.remove(unitId); // Reloaded from the DB on next access
+                }
+            }
+        });
+    }
+}
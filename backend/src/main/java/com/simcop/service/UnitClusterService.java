@@ -0,0 +1,313 @@
+package com.simcop.service;
+
+import com.simcop.dto.UnitClusterDTO;
+import com.simcop.event.UnitChangedEvent;
+import com.simcop.model.UnitStatus;
+import com.simcop.model.UnitType;
+import com.simcop.model.User;
+import com.simcop.repository.MilitaryUnitRepository;
+import com.simcop.util.SpatialGrid;
+import com.simcop.util.TileMath;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Server-side unit clustering for the map overview. Every positioned unit is
+ * counted in one cluster cell per zoom level (a tile pyramid of counts,
+ * per-status counts and coordinate sums), kept up to date from committed
+ * UnitChangedEvents, so a clustering request only reads the cells in view.
+ */
+@Service
+public class UnitClusterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UnitClusterService.class);
+
+    // 4x4 cluster cells per 256px map tile, i.e. about one cluster per 64px
+    private static final int CELL_BITS = 2;
+    private static final UnitStatus[] STATUSES = UnitStatus.values();
+    private static final double INDEX_CELL_DEG = 0.1;
+
+    @Autowired
+    private MilitaryUnitRepository unitRepository;
+
+    @Autowired
+    private VisibilityService visibilityService;
+
+    private final int maxZoom;
+    // levels.get(z): cluster cells at zoom z, keyed by tile at zoom z + CELL_BITS
+    private final List<Map<Long, Cell>> levels = new ArrayList<>();
+    private final Map<String, UnitState> units = new HashMap<>();
+    // Resolves the members of small cells without walking every level
+    private final SpatialGrid<UnitState> index = new SpatialGrid<>(INDEX_CELL_DEG);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public UnitClusterService(@Value("${unit-clusters.max-zoom:16}") int maxZoom) {
+        this.maxZoom = Math.max(0, Math.min(maxZoom, 30 - CELL_BITS));
+        for (int z = 0; z <= this.maxZoom; z++) {
+            levels.add(new HashMap<>());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadPyramid() {
+        List<Object[]> rows = unitRepository.findMapState();
+        lock.writeLock().lock();
+        try {
+            levels.forEach(Map::clear);
+            units.clear();
+            index.clear();
+            for (Object[] row : rows) {
+                UnitState state = new UnitState((String) row[0], (String) row[1], (UnitType) row[2],
+                        (Double) row[3], (Double) row[4], (UnitStatus) row[5]);
+                units.put(state.id, state);
+                add(state);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Unit clusters: indexed {} units over {} zoom levels", rows.size(), maxZoom + 1);
+    }
+
+    /**
+     * Moves the unit between cells on every committed change (PATCH, PUT,
+     * position ingestion, create, delete). Partial events keep the fields
+     * they do not carry.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUnitChanged(UnitChangedEvent event) {
+        if (event.getUnitId() == null)
+            return;
+        lock.writeLock().lock();
+        try {
+            UnitState previous = units.get(event.getUnitId());
+            if (event.isRemoved()) {
+                if (previous != null) {
+                    units.remove(previous.id);
+                    remove(previous);
+                }
+                return;
+            }
+            UnitState next = previous != null ? previous.merge(event)
+                    : new UnitState(event.getUnitId(), event.getName(), event.getType(), event.getLat(),
+                            event.getLon(), event.getStatus());
+            units.put(next.id, next);
+            move(previous, next);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Clusters inside the bounding box at the given map zoom. Cells holding at
+     * most expand units come back as individual units. Users below army level
+     * only get their own subtree, aggregated on the fly (those sets are small).
+     */
+    public List<UnitClusterDTO> getClusters(User user, int zoom, double minLat, double minLon, double maxLat,
+            double maxLon, int expand) {
+        if (!(maxLat > minLat) || !(maxLon > minLon)) {
+            throw new IllegalArgumentException("Invalid bounding box");
+        }
+        int z = Math.max(0, Math.min(zoom, maxZoom));
+        int level = z + CELL_BITS;
+        int x0 = TileMath.lonToX(minLon, level), x1 = TileMath.lonToX(maxLon, level);
+        int y0 = TileMath.latToY(maxLat, level), y1 = TileMath.latToY(minLat, level);
+
+        Set<String> visibleIds = visibilityService.getVisibleUnitIds(user);
+        lock.readLock().lock();
+        try {
+            Map<Long, Cell> cells = visibleIds == null ? levels.get(z) : aggregate(visibleIds, level);
+            List<UnitClusterDTO> result = new ArrayList<>();
+            long area = (long) (x1 - x0 + 1) * (y1 - y0 + 1);
+            if (area <= cells.size()) {
+                for (int x = x0; x <= x1; x++) {
+                    for (int y = y0; y <= y1; y++) {
+                        Cell cell = cells.get(TileMath.key(x, y));
+                        if (cell != null)
+                            emit(result, z, x, y, cell, expand, visibleIds);
+                    }
+                }
+            } else {
+                for (Map.Entry<Long, Cell> entry : cells.entrySet()) {
+                    int x = TileMath.keyX(entry.getKey()), y = TileMath.keyY(entry.getKey());
+                    if (x >= x0 && x <= x1 && y >= y0 && y <= y1)
+                        emit(result, z, x, y, entry.getValue(), expand, visibleIds);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void emit(List<UnitClusterDTO> result, int z, int x, int y, Cell cell, int expand,
+            Set<String> visibleIds) {
+        String key = z + "/" + x + "/" + y;
+        if (cell.count > expand) {
+            result.add(new UnitClusterDTO(key, cell.count, cell.sumLat / cell.count, cell.sumLon / cell.count,
+                    cell.breakdown()));
+            return;
+        }
+        int level = z + CELL_BITS;
+        // Cell edges are shared with neighbours; the tile check keeps each unit in one cell
+        for (SpatialGrid.Entry<UnitState> entry : index.withinBounds(TileMath.yToLat(y + 1, level),
+                TileMath.xToLon(x, level), TileMath.yToLat(y, level), TileMath.xToLon(x + 1, level))) {
+            UnitState unit = entry.getValue();
+            if (visibleIds != null && !visibleIds.contains(unit.id))
+                continue;
+            if (TileMath.lonToX(unit.lon, level) != x || TileMath.latToY(unit.lat, level) != y)
+                continue;
+            Map<UnitStatus, Integer> breakdown = new EnumMap<>(UnitStatus.class);
+            if (unit.status != null)
+                breakdown.put(unit.status, 1);
+            result.add(UnitClusterDTO.single(key + "/" + unit.id, unit.id, unit.name, unit.type, unit.lat,
+                    unit.lon, breakdown));
+        }
+    }
+
+    private Map<Long, Cell> aggregate(Set<String> unitIds, int level) {
+        Map<Long, Cell> cells = new HashMap<>();
+        for (String id : unitIds) {
+            UnitState unit = units.get(id);
+            if (unit != null && unit.isPositioned()) {
+                cells.computeIfAbsent(unit.cellKey(level), k -> new Cell()).add(unit);
+            }
+        }
+        return cells;
+    }
+
+    private void move(UnitState previous, UnitState next) {
+        if (previous == null || !previous.isPositioned()) {
+            add(next);
+            return;
+        }
+        if (!next.isPositioned()) {
+            remove(previous);
+            return;
+        }
+        for (int z = 0; z <= maxZoom; z++) {
+            long from = previous.cellKey(z + CELL_BITS), to = next.cellKey(z + CELL_BITS);
+            Map<Long, Cell> cells = levels.get(z);
+            if (from == to) {
+                Cell cell = cells.get(from);
+                cell.remove(previous);
+                cell.add(next);
+            } else {
+                removeFrom(cells, from, previous);
+                cells.computeIfAbsent(to, k -> new Cell()).add(next);
+            }
+        }
+        index.put(next.id, next.lat, next.lon, next);
+    }
+
+    private void add(UnitState unit) {
+        if (!unit.isPositioned())
+            return;
+        for (int z = 0; z <= maxZoom; z++) {
+            levels.get(z).computeIfAbsent(unit.cellKey(z + CELL_BITS), k -> new Cell()).add(unit);
+        }
+        index.put(unit.id, unit.lat, unit.lon, unit);
+    }
+
+    private void remove(UnitState unit) {
+        if (!unit.isPositioned())
+            return;
+        for (int z = 0; z <= maxZoom; z++) {
+            removeFrom(levels.get(z), unit.cellKey(z + CELL_BITS), unit);
+        }
+        index.remove(unit.id);
+    }
+
+    private static void removeFrom(Map<Long, Cell> cells, long key, UnitState unit) {
+        Cell cell = cells.get(key);
+        if (cell != null) {
+            cell.remove(unit);
+            if (cell.count <= 0)
+                cells.remove(key);
+        }
+    }
+
+    private static int statusSlot(UnitStatus status) {
+        return status != null ? status.ordinal() : STATUSES.length;
+    }
+
+    /**
+     * Running totals of one cluster cell; the last status slot counts units
+     * without a status.
+     */
+    private static final class Cell {
+        int count;
+        double sumLat;
+        double sumLon;
+        final int[] byStatus = new int[STATUSES.length + 1];
+
+        void add(UnitState unit) {
+            count++;
+            sumLat += unit.lat;
+            sumLon += unit.lon;
+            byStatus[statusSlot(unit.status)]++;
+        }
+
+        void remove(UnitState unit) {
+            count--;
+            sumLat -= unit.lat;
+            sumLon -= unit.lon;
+            byStatus[statusSlot(unit.status)]--;
+        }
+
+        Map<UnitStatus, Integer> breakdown() {
+            Map<UnitStatus, Integer> breakdown = new EnumMap<>(UnitStatus.class);
+            for (UnitStatus status : STATUSES) {
+                if (byStatus[status.ordinal()] > 0)
+                    breakdown.put(status, byStatus[status.ordinal()]);
+            }
+            return breakdown;
+        }
+    }
+
+    /**
+     * Immutable snapshot of the fields the map overview needs.
+     */
+    private static final class UnitState {
+        final String id;
+        final String name;
+        final UnitType type;
+        final Double lat;
+        final Double lon;
+        final UnitStatus status;
+
+        UnitState(String id, String name, UnitType type, Double lat, Double lon, UnitStatus status) {
+            this.id = id;
+            this.name = name;
+            this.type = type;
+            this.lat = lat;
+            this.lon = lon;
+            this.status = status;
+        }
+
+        UnitState merge(UnitChangedEvent event) {
+            return new UnitState(id,
+                    event.getName() != null ? event.getName() : name,
+                    event.getType() != null ? event.getType() : type,
+                    event.hasLocation() ? event.getLat() : lat,
+                    event.hasLocation() ? event.getLon() : lon,
+                    event.getStatus() != null ? event.getStatus() : status);
+        }
+
+        boolean isPositioned() {
+            return lat != null && lon != null;
+        }
+
+        long cellKey(int level) {
+            return TileMath.key(TileMath.lonToX(lon, level), TileMath.latToY(lat, level));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.simcop.service;
+
+import com.simcop.event.UnitChangedEvent;
+import com.simcop.model.UnitStatus;
+import com.simcop.model.embeddable.RoutePoint;
+import com.simcop.repository.MilitaryUnitRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Partial updates of a unit's constantly changing fields (location, status,
+ * logistics levels) as single-column UPDATEs; a location change also appends
+ * one point to the route history store. Unlike the full-aggregate PUT, these
+ * never load the unit at all.
+ */
+@Service
+public class UnitHotFieldService {
+
+    public static final String TOPIC = "/topic/units";
+
+    @Autowired
+    private MilitaryUnitRepository unitRepository;
+
+    @Autowired
+    private RouteHistoryService routeHistoryService;
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    /**
+     * @return the published change, or null if the unit does not exist
+     */
+    @Transactional
+    public UnitChangedEvent updateLocation(String unitId, double lat, double lon) {
+        long now = System.currentTimeMillis();
+        if (unitRepository.updateLocation(unitId, lat, lon, now) == 0)
+            return null;
+        routeHistoryService.append(unitId, List.of(new RoutePoint(lat, lon, now)));
+        return publish(new UnitChangedEvent(unitId, null, null, lat, lon, null, null, null, null, now, false));
+    }
+
+    @Transactional
+    public UnitChangedEvent updateStatus(String unitId, UnitStatus status) {
+        if (unitRepository.updateStatus(unitId, status) == 0)
+            return null;
+        return publish(new UnitChangedEvent(unitId, null, null, null, null, status, null, null, null,
+                System.currentTimeMillis(), false));
+    }
+
+    @Transactional
+    public UnitChangedEvent updateLogistics(String unitId, Double fuelLevel, Double ammoLevel, Double daysOfSupply) {
+        if (unitRepository.updateLogistics(unitId, fuelLevel, ammoLevel, daysOfSupply) == 0)
+            return null;
+        return publish(new UnitChangedEvent(unitId, null, null, null, null, null, fuelLevel, ammoLevel,
+                daysOfSupply, System.currentTimeMillis(), false));
+    }
+
+    /**
+     * Every committed unit change (PATCH, PUT, create, delete) goes out on
+     * /topic/units; batched GPS fixes have their own topic.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void broadcast(UnitChangedEvent event) {
+        if (event.isPositionReport())
+            return;
+        messagingTemplate.convertAndSend(TOPIC, event);
+    }
+
+    private UnitChangedEvent publish(UnitChangedEvent event) {
+        publisher.publishEvent(event);
+        return event;
+    }
+}
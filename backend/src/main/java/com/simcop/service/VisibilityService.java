@@ -79,6 +79,45 @@ public class VisibilityService {
         return visibleUnits;
     }
 
+    /**
+     * Ids of the units the user can see, or null when the user sees every unit.
+     * Walks the hierarchy without loading full units.
+     */
+    public Set<String> getVisibleUnitIds(User user) {
+        if (user.getRole() == UserRole.ADMINISTRATOR || user.getRole() == UserRole.COMANDANTE_EJERCITO) {
+            return null;
+        }
+        if (user.getAssignedUnitId() == null) {
+            return new HashSet<>();
+        }
+        return getSubordinateIds(user.getAssignedUnitId());
+    }
+
+    /**
+     * The unit and all its descendants; empty if the unit does not exist.
+     */
+    public Set<String> getSubordinateIds(String unitId) {
+        Map<String, List<String>> children = new HashMap<>();
+        boolean found = false;
+        for (Object[] row : unitRepository.findHierarchy()) {
+            found |= unitId.equals(row[0]);
+            if (row[1] != null) {
+                children.computeIfAbsent((String) row[1], k -> new ArrayList<>()).add((String) row[0]);
+            }
+        }
+        Set<String> result = new HashSet<>();
+        if (!found)
+            return result;
+        Deque<String> pending = new ArrayDeque<>(List.of(unitId));
+        while (!pending.isEmpty()) {
+            String id = pending.pop();
+            if (result.add(id)) {
+                pending.addAll(children.getOrDefault(id, List.of()));
+            }
+        }
+        return result;
+    }
+
     private void collectDescendants(MilitaryUnit current, Map<String, List<MilitaryUnit>> childrenMap,
             List<MilitaryUnit> result) {
         result.add(current);
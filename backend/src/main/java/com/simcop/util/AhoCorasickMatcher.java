@@ -0,0 +1,127 @@
+package com.simcop.util;
+
+import java.util.*;
+
+/**
+ * Aho-Corasick automaton over a fixed set of patterns: one left-to-right pass
+ * over a text tells whether any pattern occurs in it as a substring, however
+ * many patterns there are. Built as a dense DFA over the characters that
+ * appear in the patterns; any other character sends the scan back to the root.
+ */
+public final class AhoCorasickMatcher {
+
+    private static final int ASCII = 128;
+
+    private final int[] asciiIndex = new int[ASCII];
+    private final Map<Character, Integer> otherIndex = new HashMap<>();
+    private final int alphabetSize;
+    // transitions[state * alphabetSize + symbol]; symbol 0 = not in any pattern
+    private final int[] transitions;
+    private final boolean[] accepting;
+
+    private AhoCorasickMatcher(Collection<String> patterns) {
+        int symbols = 1;
+        for (String pattern : patterns) {
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                if (c < ASCII) {
+                    if (asciiIndex[c] == 0)
+                        asciiIndex[c] = symbols++;
+                } else if (!otherIndex.containsKey(c)) {
+                    otherIndex.put(c, symbols++);
+                }
+            }
+        }
+        alphabetSize = symbols;
+
+        // Trie with -1 for missing edges
+        List<int[]> trie = new ArrayList<>();
+        List<Boolean> terminal = new ArrayList<>();
+        trie.add(newRow());
+        terminal.add(false);
+        for (String pattern : patterns) {
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                int symbol = symbol(pattern.charAt(i));
+                if (trie.get(state)[symbol] < 0) {
+                    trie.get(state)[symbol] = trie.size();
+                    trie.add(newRow());
+                    terminal.add(false);
+                }
+                state = trie.get(state)[symbol];
+            }
+            terminal.set(state, true);
+        }
+
+        // Breadth-first: fill missing edges from the failure state and inherit its matches
+        int states = trie.size();
+        transitions = new int[states * alphabetSize];
+        accepting = new boolean[states];
+        int[] failure = new int[states];
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 0; symbol < alphabetSize; symbol++) {
+            int next = trie.get(0)[symbol];
+            transitions[symbol] = next < 0 ? 0 : next;
+            if (next > 0) {
+                failure[next] = 0;
+                queue.add(next);
+            }
+        }
+        accepting[0] = terminal.get(0);
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            accepting[state] = terminal.get(state) || accepting[failure[state]];
+            for (int symbol = 0; symbol < alphabetSize; symbol++) {
+                int next = trie.get(state)[symbol];
+                if (next < 0) {
+                    transitions[state * alphabetSize + symbol] = transitions[failure[state] * alphabetSize + symbol];
+                } else {
+                    transitions[state * alphabetSize + symbol] = next;
+                    failure[next] = transitions[failure[state] * alphabetSize + symbol];
+                    queue.add(next);
+                }
+            }
+        }
+    }
+
+    /**
+     * Matcher for the non-empty patterns; with none, nothing ever matches.
+     */
+    public static AhoCorasickMatcher of(Collection<String> patterns) {
+        List<String> nonEmpty = new ArrayList<>();
+        for (String pattern : patterns) {
+            if (pattern != null && !pattern.isEmpty())
+                nonEmpty.add(pattern);
+        }
+        return new AhoCorasickMatcher(nonEmpty);
+    }
+
+    public boolean isEmpty() {
+        return transitions.length == alphabetSize;
+    }
+
+    public boolean matchesAny(CharSequence text) {
+        if (text == null || isEmpty())
+            return false;
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = transitions[state * alphabetSize + symbol(text.charAt(i))];
+            if (accepting[state])
+                return true;
+        }
+        return false;
+    }
+
+    private int symbol(char c) {
+        if (c < ASCII)
+            return asciiIndex[c];
+        Integer index = otherIndex.get(c);
+        return index != null ? index : 0;
+    }
+
+    private int[] newRow() {
+        int[] row = new int[alphabetSize];
+        Arrays.fill(row, -1);
+        return row;
+    }
+}
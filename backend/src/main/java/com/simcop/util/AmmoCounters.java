@@ -0,0 +1,57 @@
+package com.simcop.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Lock-free per-key round counters. Decrements use compare-and-set, so
+ * concurrent consumers can never take the count below zero or lose updates.
+ */
+public class AmmoCounters {
+
+    private final ConcurrentHashMap<String, AtomicInteger> counters = new ConcurrentHashMap<>();
+
+    public static String key(String pieceId, Object ammoType) {
+        return pieceId + ":" + ammoType;
+    }
+
+    /**
+     * Takes amount rounds if available, loading the counter on first use.
+     *
+     * @return the remaining count after the draw, or -1 if not enough rounds
+     */
+    public int tryConsume(String key, int amount, Supplier<Integer> loader) {
+        AtomicInteger counter = counters.computeIfAbsent(key, k -> new AtomicInteger(loader.get()));
+        while (true) {
+            int current = counter.get();
+            if (current < amount)
+                return -1;
+            if (counter.compareAndSet(current, current - amount))
+                return current - amount;
+        }
+    }
+
+    public void refund(String key, int amount) {
+        AtomicInteger counter = counters.get(key);
+        if (counter != null) {
+            counter.addAndGet(amount);
+        }
+    }
+
+    public void set(String key, int value) {
+        counters.computeIfAbsent(key, k -> new AtomicInteger()).set(value);
+    }
+
+    public Integer get(String key) {
+        AtomicInteger counter = counters.get(key);
+        return counter != null ? counter.get() : null;
+    }
+
+    /**
+     * Forgets every counter of a piece, e.g. after its stock was edited directly.
+     */
+    public void invalidatePiece(String pieceId) {
+        counters.keySet().removeIf(k -> k.startsWith(pieceId + ":"));
+    }
+}
@@ -0,0 +1,83 @@
+package com.simcop.util;
+
+import java.util.Arrays;
+
+/**
+ * Minimum-cost assignment (Hungarian algorithm, O(n^2 * m)) for a rectangular
+ * cost matrix with n rows and m columns, n <= m.
+ */
+public class AssignmentSolver {
+
+    private AssignmentSolver() {
+    }
+
+    /**
+     * @return for each row, the index of its assigned column
+     */
+    public static int[] solve(double[][] cost) {
+        int n = cost.length;
+        if (n == 0)
+            return new int[0];
+        int m = cost[0].length;
+        if (n > m) {
+            throw new IllegalArgumentException("Assignment needs at least as many columns as rows");
+        }
+
+        // 1-indexed potentials; p[j] = row matched to column j, way[] = augmenting path
+        double[] u = new double[n + 1];
+        double[] v = new double[m + 1];
+        int[] p = new int[m + 1];
+        int[] way = new int[m + 1];
+        double[] minv = new double[m + 1];
+        boolean[] used = new boolean[m + 1];
+
+        for (int i = 1; i <= n; i++) {
+            p[0] = i;
+            int j0 = 0;
+            Arrays.fill(minv, Double.POSITIVE_INFINITY);
+            Arrays.fill(used, false);
+            do {
+                used[j0] = true;
+                int i0 = p[j0];
+                double delta = Double.POSITIVE_INFINITY;
+                int j1 = 0;
+                double[] row = cost[i0 - 1];
+                for (int j = 1; j <= m; j++) {
+                    if (used[j])
+                        continue;
+                    double cur = row[j - 1] - u[i0] - v[j];
+                    if (cur < minv[j]) {
+                        minv[j] = cur;
+                        way[j] = j0;
+                    }
+                    if (minv[j] < delta) {
+                        delta = minv[j];
+                        j1 = j;
+                    }
+                }
+                for (int j = 0; j <= m; j++) {
+                    if (used[j]) {
+                        u[p[j]] += delta;
+                        v[j] -= delta;
+                    } else {
+                        minv[j] -= delta;
+                    }
+                }
+                j0 = j1;
+            } while (p[j0] != 0);
+            do {
+                int j1 = way[j0];
+                p[j0] = p[j1];
+                j0 = j1;
+            } while (j0 != 0);
+        }
+
+        int[] assignment = new int[n];
+        for (int j = 1; j <= m; j++) {
+            if (p[j] != 0) {
+                assignment[p[j] - 1] = j - 1;
+            }
+        }
+        return assignment;
+    }
+}
@@ -0,0 +1,165 @@
+package com.simcop.util;
+
+import java.util.*;
+
+/**
+ * Circular zones and unit positions, both held in spatial grids, plus which
+ * units are currently inside which zone. Moving a unit or putting a zone only
+ * looks at the nearby cells of the other grid and reports the new entries
+ * (unit was outside, is now inside), so callers alert once per entry.
+ */
+public class GeofenceIndex<Z> {
+
+    private static final double CELL_DEG = 0.05;
+
+    public static final class Zone<Z> {
+        private final String id;
+        private final double lat;
+        private final double lon;
+        private final double radiusKm;
+        private final Z value;
+
+        public Zone(String id, double lat, double lon, double radiusKm, Z value) {
+            this.id = id;
+            this.lat = lat;
+            this.lon = lon;
+            this.radiusKm = radiusKm;
+            this.value = value;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public double getLat() {
+            return lat;
+        }
+
+        public double getLon() {
+            return lon;
+        }
+
+        public double getRadiusKm() {
+            return radiusKm;
+        }
+
+        public Z getValue() {
+            return value;
+        }
+
+        boolean contains(double pointLat, double pointLon) {
+            return GeoUtils.calculateDistanceKm(lat, lon, pointLat, pointLon) <= radiusKm;
+        }
+    }
+
+    private final SpatialGrid<Zone<Z>> zones = new SpatialGrid<>(CELL_DEG);
+    private final SpatialGrid<Boolean> units = new SpatialGrid<>(CELL_DEG);
+    private final Map<String, Set<String>> zonesByUnit = new HashMap<>();
+    private final Map<String, Set<String>> unitsByZone = new HashMap<>();
+    // Only grows, so zone lookups around a unit stay conservative
+    private double maxRadiusKm = 0;
+
+    /**
+     * Moves (or adds) a unit and returns the zones it has just entered.
+     */
+    public synchronized List<Zone<Z>> moveUnit(String unitId, double lat, double lon) {
+        units.put(unitId, lat, lon, Boolean.TRUE);
+        Set<String> previous = new HashSet<>(zonesByUnit.getOrDefault(unitId, Set.of()));
+        Set<String> current = new HashSet<>();
+        List<Zone<Z>> entered = new ArrayList<>();
+        for (SpatialGrid.Entry<Zone<Z>> entry : zones.withinRadius(lat, lon, maxRadiusKm)) {
+            Zone<Z> zone = entry.getValue();
+            if (!zone.contains(lat, lon))
+                continue;
+            current.add(zone.id);
+            if (!previous.contains(zone.id))
+                entered.add(zone);
+        }
+        for (String zoneId : previous) {
+            if (!current.contains(zoneId))
+                unlink(unitId, zoneId);
+        }
+        for (Zone<Z> zone : entered) {
+            link(unitId, zone.id);
+        }
+        return entered;
+    }
+
+    public synchronized void removeUnit(String unitId) {
+        units.remove(unitId);
+        for (String zoneId : new ArrayList<>(zonesByUnit.getOrDefault(unitId, Set.of()))) {
+            unlink(unitId, zoneId);
+        }
+    }
+
+    /**
+     * Adds, moves or resizes a zone and returns the ids of the units that are
+     * now inside it and were not before.
+     */
+    public synchronized List<String> putZone(Zone<Z> zone) {
+        zones.put(zone.id, zone.lat, zone.lon, zone);
+        maxRadiusKm = Math.max(maxRadiusKm, zone.radiusKm);
+        Set<String> previous = new HashSet<>(unitsByZone.getOrDefault(zone.id, Set.of()));
+        Set<String> current = new HashSet<>();
+        List<String> entered = new ArrayList<>();
+        for (SpatialGrid.Entry<Boolean> entry : units.withinRadius(zone.lat, zone.lon, zone.radiusKm)) {
+            current.add(entry.getId());
+            if (!previous.contains(entry.getId()))
+                entered.add(entry.getId());
+        }
+        for (String unitId : previous) {
+            if (!current.contains(unitId))
+                unlink(unitId, zone.id);
+        }
+        for (String unitId : entered) {
+            link(unitId, zone.id);
+        }
+        return entered;
+    }
+
+    public synchronized void removeZone(String zoneId) {
+        zones.remove(zoneId);
+        for (String unitId : new ArrayList<>(unitsByZone.getOrDefault(zoneId, Set.of()))) {
+            unlink(unitId, zoneId);
+        }
+    }
+
+    public synchronized Zone<Z> getZone(String zoneId) {
+        SpatialGrid.Entry<Zone<Z>> entry = zones.get(zoneId);
+        return entry != null ? entry.getValue() : null;
+    }
+
+    public synchronized List<Zone<Z>> getZones() {
+        List<Zone<Z>> result = new ArrayList<>();
+        for (SpatialGrid.Entry<Zone<Z>> entry : zones.values()) {
+            result.add(entry.getValue());
+        }
+        return result;
+    }
+
+    public synchronized int unitCount() {
+        return units.size();
+    }
+
+    public synchronized void clear() {
+        zones.clear();
+        units.clear();
+        zonesByUnit.clear();
+        unitsByZone.clear();
+        maxRadiusKm = 0;
+    }
+
+    private void link(String unitId, String zoneId) {
+        zonesByUnit.computeIfAbsent(unitId, k -> new HashSet<>()).add(zoneId);
+        unitsByZone.computeIfAbsent(zoneId, k -> new HashSet<>()).add(unitId);
+    }
+
+    private void unlink(String unitId, String zoneId) {
+        Set<String> unitZones = zonesByUnit.get(unitId);
+        if (unitZones != null && unitZones.remove(zoneId) && unitZones.isEmpty())
+            zonesByUnit.remove(unitId);
+        Set<String> zoneUnits = unitsByZone.get(zoneId);
+        if (zoneUnits != null && zoneUnits.remove(unitId) && zoneUnits.isEmpty())
+            unitsByZone.remove(zoneId);
+    }
+}
@@ -0,0 +1,111 @@
+package com.simcop.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Minimum-cost flow by successive shortest paths (Dijkstra with Johnson
+ * potentials). Edge costs must be non-negative. Unlike AssignmentSolver it
+ * handles capacities on inner nodes, e.g. a per-type stock cap nested inside
+ * a per-piece queue cap.
+ */
+public class MinCostFlow {
+
+    private static final double EPS = 1e-9;
+
+    private final int nodes;
+    private final List<List<Integer>> adjacency = new ArrayList<>();
+    // Edge arrays; edge e and its reverse e ^ 1 are stored side by side
+    private int[] to = new int[16];
+    private int[] capacity = new int[16];
+    private double[] cost = new double[16];
+    private int edges;
+
+    public MinCostFlow(int nodes) {
+        this.nodes = nodes;
+        for (int i = 0; i < nodes; i++)
+            adjacency.add(new ArrayList<>());
+    }
+
+    /**
+     * @return the edge id, for reading its flow after solve
+     */
+    public int addEdge(int from, int target, int cap, double edgeCost) {
+        if (edgeCost < 0) {
+            throw new IllegalArgumentException("Edge costs must be non-negative");
+        }
+        if (edges + 2 > to.length) {
+            to = Arrays.copyOf(to, to.length * 2);
+            capacity = Arrays.copyOf(capacity, capacity.length * 2);
+            cost = Arrays.copyOf(cost, cost.length * 2);
+        }
+        int id = edges;
+        to[id] = target;
+        capacity[id] = cap;
+        cost[id] = edgeCost;
+        to[id + 1] = from;
+        capacity[id + 1] = 0;
+        cost[id + 1] = -edgeCost;
+        adjacency.get(from).add(id);
+        adjacency.get(target).add(id + 1);
+        edges += 2;
+        return id;
+    }
+
+    /**
+     * Sends up to maxFlow units from source to sink at minimum total cost.
+     *
+     * @return the flow sent
+     */
+    public int solve(int source, int sink, int maxFlow) {
+        double[] potential = new double[nodes];
+        double[] dist = new double[nodes];
+        int[] viaEdge = new int[nodes];
+        int flow = 0;
+        while (flow < maxFlow) {
+            Arrays.fill(dist, Double.POSITIVE_INFINITY);
+            Arrays.fill(viaEdge, -1);
+            dist[source] = 0;
+            PriorityQueue<double[]> queue = new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+            queue.add(new double[] { 0, source });
+            while (!queue.isEmpty()) {
+                double[] head = queue.poll();
+                int u = (int) head[1];
+                if (head[0] > dist[u] + EPS)
+                    continue;
+                for (int e : adjacency.get(u)) {
+                    if (capacity[e] <= 0)
+                        continue;
+                    int v = to[e];
+                    double next = dist[u] + cost[e] + potential[u] - potential[v];
+                    if (next < dist[v] - EPS) {
+                        dist[v] = next;
+                        viaEdge[v] = e;
+                        queue.add(new double[] { next, v });
+                    }
+                }
+            }
+            if (viaEdge[sink] < 0)
+                break;
+            for (int i = 0; i < nodes; i++) {
+                if (dist[i] < Double.POSITIVE_INFINITY)
+                    potential[i] += dist[i];
+            }
+            int push = maxFlow - flow;
+            for (int v = sink; v != source; v = to[viaEdge[v] ^ 1])
+                push = Math.min(push, capacity[viaEdge[v]]);
+            for (int v = sink; v != source; v = to[viaEdge[v] ^ 1]) {
+                capacity[viaEdge[v]] -= push;
+                capacity[viaEdge[v] ^ 1] += push;
+            }
+            flow += push;
+        }
+        return flow;
+    }
+
+    public int getFlow(int edge) {
+        return capacity[edge ^ 1];
+    }
+}
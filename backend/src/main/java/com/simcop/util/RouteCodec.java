@@ -0,0 +1,57 @@
+package com.simcop.util;
+
+import com.simcop.model.embeddable.RoutePoint;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Packs route points into a columnar byte array: a point count, then all
+ * timestamps (long ms), then latitudes and longitudes as int microdegrees
+ * (~0.1 m). 16 bytes per point instead of a table row each.
+ */
+public class RouteCodec {
+
+    private static final byte VERSION = 1;
+    private static final double MICRODEGREES = 1_000_000.0;
+
+    private RouteCodec() {
+    }
+
+    /**
+     * @param points sorted by timestamp ascending
+     */
+    public static byte[] pack(List<RoutePoint> points) {
+        int n = points.size();
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 4 + n * 16);
+        buffer.put(VERSION);
+        buffer.putInt(n);
+        for (RoutePoint p : points)
+            buffer.putLong(p.getTimestamp());
+        for (RoutePoint p : points)
+            buffer.putInt((int) Math.round(p.getLat() * MICRODEGREES));
+        for (RoutePoint p : points)
+            buffer.putInt((int) Math.round(p.getLon() * MICRODEGREES));
+        return buffer.array();
+    }
+
+    public static List<RoutePoint> unpack(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unknown route segment version " + version);
+        }
+        int n = buffer.getInt();
+        long[] timestamps = new long[n];
+        for (int i = 0; i < n; i++)
+            timestamps[i] = buffer.getLong();
+        int[] lats = new int[n];
+        for (int i = 0; i < n; i++)
+            lats[i] = buffer.getInt();
+        List<RoutePoint> points = new ArrayList<>(n);
+        for (int i = 0; i < n; i++)
+            points.add(new RoutePoint(lats[i] / MICRODEGREES, buffer.getInt() / MICRODEGREES, timestamps[i]));
+        return points;
+    }
+}
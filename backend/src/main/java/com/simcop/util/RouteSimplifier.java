@@ -0,0 +1,84 @@
+package com.simcop.util;
+
+import com.simcop.model.embeddable.RoutePoint;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Douglas-Peucker line simplification for unit routes, with the tolerance
+ * derived from a web-map zoom level (about one screen pixel).
+ */
+public class RouteSimplifier {
+
+    // Web Mercator ground resolution at zoom 0 (meters per 256px-tile pixel at the equator)
+    private static final double METERS_PER_PIXEL_Z0 = 156543.03;
+    private static final double METERS_PER_DEGREE = Math.toRadians(6371000.0);
+
+    private RouteSimplifier() {
+    }
+
+    public static double toleranceForZoom(int zoom) {
+        return METERS_PER_PIXEL_Z0 / Math.pow(2, Math.max(0, Math.min(zoom, 22)));
+    }
+
+    /**
+     * Keeps the first and last point and every point farther than toleranceMeters
+     * from the simplified line. Iterative, so long routes cannot overflow the stack.
+     */
+    public static List<RoutePoint> simplify(List<RoutePoint> points, double toleranceMeters) {
+        int n = points.size();
+        if (n <= 2 || toleranceMeters <= 0)
+            return points;
+
+        // Local equirectangular projection in meters, good enough at route scale
+        double cosLat = Math.cos(Math.toRadians(points.get(0).getLat()));
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = points.get(i).getLon() * METERS_PER_DEGREE * cosLat;
+            y[i] = points.get(i).getLat() * METERS_PER_DEGREE;
+        }
+
+        boolean[] keep = new boolean[n];
+        keep[0] = keep[n - 1] = true;
+        double toleranceSq = toleranceMeters * toleranceMeters;
+        Deque<int[]> stack = new ArrayDeque<>();
+        stack.push(new int[] { 0, n - 1 });
+        while (!stack.isEmpty()) {
+            int[] range = stack.pop();
+            int first = range[0], last = range[1];
+            double maxSq = -1;
+            int index = -1;
+            for (int i = first + 1; i < last; i++) {
+                double d = segmentDistanceSq(x[i], y[i], x[first], y[first], x[last], y[last]);
+                if (d > maxSq) {
+                    maxSq = d;
+                    index = i;
+                }
+            }
+            if (index >= 0 && maxSq > toleranceSq) {
+                keep[index] = true;
+                stack.push(new int[] { first, index });
+                stack.push(new int[] { index, last });
+            }
+        }
+
+        List<RoutePoint> result = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (keep[i])
+                result.add(points.get(i));
+        }
+        return result;
+    }
+
+    private static double segmentDistanceSq(double px, double py, double ax, double ay, double bx, double by) {
+        double dx = bx - ax, dy = by - ay;
+        double lengthSq = dx * dx + dy * dy;
+        double t = lengthSq == 0 ? 0 : Math.max(0, Math.min(1, ((px - ax) * dx + (py - ay) * dy) / lengthSq));
+        double ex = px - (ax + t * dx), ey = py - (ay + t * dy);
+        return ex * ex + ey * ey;
+    }
+}
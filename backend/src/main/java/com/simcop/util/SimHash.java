@@ -0,0 +1,63 @@
+package com.simcop.util;
+
+import java.util.Collection;
+
+/**
+ * 64-bit SimHash (Charikar) of weighted text features: similar feature sets
+ * give fingerprints that differ in few bits, so near-duplicate texts are found
+ * by Hamming distance instead of pairwise text comparison.
+ */
+public final class SimHash {
+
+    private SimHash() {
+    }
+
+    /**
+     * Fingerprint of normalized free text (word unigrams and bigrams, words of
+     * fewer than 3 characters skipped) plus tags (whole entries, weighted
+     * tagWeight).
+     */
+    public static long of(String text, Collection<String> tags, int tagWeight) {
+        int[] weights = new int[64];
+        String previous = null;
+        for (String word : TextNormalizer.normalize(text).split(" ")) {
+            if (word.length() < 3)
+                continue;
+            add(weights, hash(word), 1);
+            if (previous != null)
+                add(weights, hash(previous + ' ' + word), 1);
+            previous = word;
+        }
+        for (String tag : TextNormalizer.normalizeAll(tags)) {
+            add(weights, hash(tag), tagWeight);
+        }
+        long fingerprint = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (weights[bit] > 0)
+                fingerprint |= 1L << bit;
+        }
+        return fingerprint;
+    }
+
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    private static void add(int[] weights, long hash, int weight) {
+        for (int bit = 0; bit < 64; bit++) {
+            weights[bit] += (hash >>> bit & 1L) != 0 ? weight : -weight;
+        }
+    }
+
+    // FNV-1a with a splitmix64 finalizer, so similar words spread over all bits
+    private static long hash(String feature) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < feature.length(); i++) {
+            h ^= feature.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return h ^ (h >>> 31);
+    }
+}
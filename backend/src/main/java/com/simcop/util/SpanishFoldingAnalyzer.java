@@ -0,0 +1,35 @@
+package com.simcop.util;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.StopFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.es.SpanishAnalyzer;
+import org.apache.lucene.analysis.es.SpanishLightStemFilter;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+
+/**
+ * Spanish text analysis for intel search: lowercase, Spanish stop words,
+ * accent folding (so "emboscada en Bogotá" matches "bogota") and a light
+ * plural/gender stemmer.
+ */
+public class SpanishFoldingAnalyzer extends Analyzer {
+
+    @Override
+    protected TokenStreamComponents createComponents(String fieldName) {
+        Tokenizer source = new StandardTokenizer();
+        TokenStream result = new LowerCaseFilter(source);
+        // Stop words are matched before folding, the set is accented ("él", "más")
+        result = new StopFilter(result, SpanishAnalyzer.getDefaultStopSet());
+        result = new ASCIIFoldingFilter(result);
+        result = new SpanishLightStemFilter(result);
+        return new TokenStreamComponents(source, result);
+    }
+
+    @Override
+    protected TokenStream normalize(String fieldName, TokenStream in) {
+        return new ASCIIFoldingFilter(new LowerCaseFilter(in));
+    }
+}
@@ -0,0 +1,262 @@
+package com.simcop.util;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Uniform lat/lon grid index for point entities, keyed by id so entries can be
+ * moved or removed incrementally. Safe for concurrent readers and writers.
+ */
+public class SpatialGrid<T> {
+
+    // Same earth radius as GeoUtils, so bounds agree with the distances we compare
+    private static final double KM_PER_DEGREE = Math.toRadians(6371.0);
+    // Slack for great-circle vs. parallel-arc differences in longitude bounds
+    private static final double LON_SLACK = 0.9;
+
+    public static final class Entry<T> {
+        private final String id;
+        private final double lat;
+        private final double lon;
+        private final T value;
+
+        Entry(String id, double lat, double lon, T value) {
+            this.id = id;
+            this.lat = lat;
+            this.lon = lon;
+            this.value = value;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public double getLat() {
+            return lat;
+        }
+
+        public double getLon() {
+            return lon;
+        }
+
+        public T getValue() {
+            return value;
+        }
+    }
+
+    private final double cellSizeDeg;
+    private final Map<Long, Map<String, Entry<T>>> cells = new HashMap<>();
+    private final Map<String, Entry<T>> entries = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Bounds of every cell ever occupied; only used to stop ring searches
+    private int minRow = Integer.MAX_VALUE, maxRow = Integer.MIN_VALUE;
+    private int minCol = Integer.MAX_VALUE, maxCol = Integer.MIN_VALUE;
+    private double maxAbsLat = 0;
+
+    public SpatialGrid(double cellSizeDeg) {
+        if (cellSizeDeg <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive");
+        }
+        this.cellSizeDeg = cellSizeDeg;
+    }
+
+    public double getCellSizeDeg() {
+        return cellSizeDeg;
+    }
+
+    /**
+     * Inserts or moves an entry.
+     */
+    public void put(String id, double lat, double lon, T value) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            Entry<T> entry = new Entry<>(id, lat, lon, value);
+            int row = row(lat);
+            int col = col(lon);
+            cells.computeIfAbsent(key(row, col), k -> new HashMap<>()).put(id, entry);
+            entries.put(id, entry);
+            minRow = Math.min(minRow, row);
+            maxRow = Math.max(maxRow, row);
+            minCol = Math.min(minCol, col);
+            maxCol = Math.max(maxCol, col);
+            maxAbsLat = Math.max(maxAbsLat, Math.abs(lat));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            cells.clear();
+            entries.clear();
+            minRow = minCol = Integer.MAX_VALUE;
+            maxRow = maxCol = Integer.MIN_VALUE;
+            maxAbsLat = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Entry<T> get(String id) {
+        lock.readLock().lock();
+        try {
+            return entries.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Entry<T>> values() {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(entries.values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Entries whose great-circle distance to the point is at most radiusKm.
+     */
+    public List<Entry<T>> withinRadius(double lat, double lon, double radiusKm) {
+        double dLat = radiusKm / KM_PER_DEGREE;
+        double dLon = radiusKm / (KM_PER_DEGREE * lonScale(Math.abs(lat) + dLat) * LON_SLACK);
+        List<Entry<T>> result = new ArrayList<>();
+        for (Entry<T> entry : withinBounds(lat - dLat, lon - dLon, lat + dLat, lon + dLon)) {
+            if (GeoUtils.calculateDistanceKm(lat, lon, entry.lat, entry.lon) <= radiusKm) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Entries inside the lat/lon bounding box (inclusive).
+     */
+    public List<Entry<T>> withinBounds(double minLat, double minLon, double maxLat, double maxLon) {
+        lock.readLock().lock();
+        try {
+            List<Entry<T>> result = new ArrayList<>();
+            if (entries.isEmpty())
+                return result;
+            int r0 = Math.max(row(minLat), minRow), r1 = Math.min(row(maxLat), maxRow);
+            int c0 = Math.max(col(minLon), minCol), c1 = Math.min(col(maxLon), maxCol);
+            for (int r = r0; r <= r1; r++) {
+                for (int c = c0; c <= c1; c++) {
+                    Map<String, Entry<T>> cell = cells.get(key(r, c));
+                    if (cell == null)
+                        continue;
+                    for (Entry<T> entry : cell.values()) {
+                        if (entry.lat >= minLat && entry.lat <= maxLat && entry.lon >= minLon
+                                && entry.lon <= maxLon) {
+                            result.add(entry);
+                        }
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Closest entry accepted by the filter, searching outward ring by ring and
+     * stopping once no unvisited cell can hold anything closer.
+     */
+    public Entry<T> nearest(double lat, double lon, Predicate<Entry<T>> filter) {
+        lock.readLock().lock();
+        try {
+            if (entries.isEmpty())
+                return null;
+
+            int r0 = row(lat), c0 = col(lon);
+            int maxRing = Math.max(Math.max(Math.abs(r0 - minRow), Math.abs(maxRow - r0)),
+                    Math.max(Math.abs(c0 - minCol), Math.abs(maxCol - c0)));
+            // Conservative km per cell: use the most poleward latitude we may touch
+            double kmPerCell = cellSizeDeg * KM_PER_DEGREE
+                    * lonScale(Math.max(Math.abs(lat), maxAbsLat) + cellSizeDeg) * LON_SLACK;
+
+            Entry<T> best = null;
+            double bestDist = Double.MAX_VALUE;
+            for (int k = 0; k <= maxRing; k++) {
+                for (int r = r0 - k; r <= r0 + k; r++) {
+                    boolean edgeRow = r == r0 - k || r == r0 + k;
+                    for (int c = c0 - k; c <= c0 + k; c += edgeRow ? 1 : 2 * k) {
+                        Map<String, Entry<T>> cell = cells.get(key(r, c));
+                        if (cell != null) {
+                            for (Entry<T> entry : cell.values()) {
+                                if (!filter.test(entry))
+                                    continue;
+                                double d = GeoUtils.calculateDistanceKm(lat, lon, entry.lat, entry.lon);
+                                if (d < bestDist) {
+                                    bestDist = d;
+                                    best = entry;
+                                }
+                            }
+                        }
+                        if (k == 0)
+                            break;
+                    }
+                }
+                // Anything in ring k+1 or beyond is at least k whole cells away
+                if (best != null && bestDist <= k * kmPerCell)
+                    break;
+            }
+            return best;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeInternal(String id) {
+        Entry<T> previous = entries.remove(id);
+        if (previous != null) {
+            long key = key(row(previous.lat), col(previous.lon));
+            Map<String, Entry<T>> cell = cells.get(key);
+            if (cell != null) {
+                cell.remove(id);
+                if (cell.isEmpty())
+                    cells.remove(key);
+            }
+        }
+    }
+
+    private int row(double lat) {
+        return (int) Math.floor(lat / cellSizeDeg);
+    }
+
+    private int col(double lon) {
+        return (int) Math.floor(lon / cellSizeDeg);
+    }
+
+    private static long key(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+
+    private static double lonScale(double absLat) {
+        return Math.max(0.01, Math.cos(Math.toRadians(Math.min(absLat, 89.0))));
+    }
+}
@@ -0,0 +1,65 @@
+package com.simcop.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Lowercase, accent-folded, single-spaced form of free text, used to compare
+ * capabilities and keywords typed by different people ("Contraexplosivos",
+ * "contra-explosivos", "CONTRAEXPLOSIVOS ").
+ */
+public final class TextNormalizer {
+
+    // Never produced by normalize(), so it separates entries of a joined list
+    public static final char SEPARATOR = '|';
+
+    private TextNormalizer() {
+    }
+
+    public static String normalize(String text) {
+        if (text == null)
+            return "";
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder out = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK)
+                continue; // Accents and tildes split off by NFD
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && out.length() > 0)
+                    out.append(' ');
+                pendingSpace = false;
+                out.append(Character.toLowerCase(c));
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Normalized non-empty entries.
+     */
+    public static List<String> normalizeAll(Collection<String> texts) {
+        List<String> result = new ArrayList<>();
+        if (texts != null) {
+            for (String text : texts) {
+                String normalized = normalize(text);
+                if (!normalized.isEmpty())
+                    result.add(normalized);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Normalized entries joined with SEPARATOR, so a pattern can never match
+     * across two entries.
+     */
+    public static String normalizeJoined(Collection<String> texts) {
+        return String.join(String.valueOf(SEPARATOR), normalizeAll(texts));
+    }
+}
@@ -0,0 +1,54 @@
+package com.simcop.util;
+
+/**
+ * Web Mercator (slippy map) tile arithmetic, matching the tile grid the map
+ * client uses: at zoom z the world is 2^z x 2^z tiles, x grows eastward and
+ * y grows southward from the north edge.
+ */
+public final class TileMath {
+
+    public static final double MAX_LAT = 85.05112878;
+
+    private TileMath() {
+    }
+
+    public static int lonToX(double lon, int zoom) {
+        int n = 1 << zoom;
+        int x = (int) Math.floor((lon + 180.0) / 360.0 * n);
+        return Math.max(0, Math.min(n - 1, x));
+    }
+
+    public static int latToY(double lat, int zoom) {
+        int n = 1 << zoom;
+        double rad = Math.toRadians(Math.max(-MAX_LAT, Math.min(MAX_LAT, lat)));
+        int y = (int) Math.floor((1 - Math.log(Math.tan(rad) + 1 / Math.cos(rad)) / Math.PI) / 2 * n);
+        return Math.max(0, Math.min(n - 1, y));
+    }
+
+    /**
+     * Western edge of tile column x.
+     */
+    public static double xToLon(int x, int zoom) {
+        return x / (double) (1 << zoom) * 360.0 - 180.0;
+    }
+
+    /**
+     * Northern edge of tile row y.
+     */
+    public static double yToLat(int y, int zoom) {
+        double n = Math.PI - 2.0 * Math.PI * y / (1 << zoom);
+        return Math.toDegrees(Math.atan(Math.sinh(n)));
+    }
+
+    public static long key(int x, int y) {
+        return ((long) x << 32) | (y & 0xffffffffL);
+    }
+
+    public static int keyX(long key) {
+        return (int) (key >>> 32);
+    }
+
+    public static int keyY(long key) {
+        return (int) key;
+    }
+}
@@ -0,0 +1,24 @@
+-- Keyed ammunition inventory: one row per (piece_id, ammo_type)
+-- Created on 2026-10-19
+
+CREATE TABLE IF NOT EXISTS artillery_ammo_inventory (
+    piece_id VARCHAR(255) NOT NULL,
+    ammo_type VARCHAR(50) NOT NULL,
+    quantity INTEGER,
+    PRIMARY KEY (piece_id, ammo_type)
+);
+
+-- Legacy element-collection table; only created so the copy below also runs on a fresh database
+CREATE TABLE IF NOT EXISTS artillery_ammo (
+    artillery_id VARCHAR(255) NOT NULL,
+    type VARCHAR(50),
+    quantity INTEGER NOT NULL
+);
+
+INSERT INTO artillery_ammo_inventory (piece_id, ammo_type, quantity)
+SELECT a.artillery_id, a.type, SUM(a.quantity)
+FROM artillery_ammo a
+WHERE a.type IS NOT NULL
+  AND NOT EXISTS (SELECT 1 FROM artillery_ammo_inventory i
+                  WHERE i.piece_id = a.artillery_id AND i.ammo_type = a.type)
+GROUP BY a.artillery_id, a.type;
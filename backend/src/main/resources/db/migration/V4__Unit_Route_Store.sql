@@ -0,0 +1,35 @@
+-- Append-only route history store, split out of the unit_route_history element collection
+-- Created on 2026-10-19
+
+CREATE TABLE IF NOT EXISTS unit_route_points (
+    id VARCHAR(255) PRIMARY KEY,
+    unit_id VARCHAR(255),
+    lat DOUBLE PRECISION NOT NULL,
+    lon DOUBLE PRECISION NOT NULL,
+    timestamp BIGINT NOT NULL
+);
+
+CREATE INDEX idx_route_points_unit_ts ON unit_route_points (unit_id, timestamp);
+
+CREATE TABLE IF NOT EXISTS unit_route_segments (
+    id VARCHAR(255) PRIMARY KEY,
+    unit_id VARCHAR(255),
+    start_timestamp BIGINT NOT NULL,
+    end_timestamp BIGINT NOT NULL,
+    point_count INTEGER NOT NULL,
+    data LONGBLOB
+);
+
+CREATE INDEX idx_route_segments_unit_ts ON unit_route_segments (unit_id, start_timestamp);
+
+-- Legacy element-collection table; only created so the copy below also runs on a fresh database
+CREATE TABLE IF NOT EXISTS unit_route_history (
+    unit_id VARCHAR(255) NOT NULL,
+    lat DOUBLE PRECISION NOT NULL,
+    lon DOUBLE PRECISION NOT NULL,
+    timestamp BIGINT NOT NULL
+);
+
+INSERT INTO unit_route_points (id, unit_id, lat, lon, timestamp)
+SELECT UUID(), h.unit_id, h.lat, h.lon, h.timestamp
+FROM unit_route_history h;
@@ -0,0 +1,20 @@
+-- Index for event-time window queries on intelligence reports (hotspots, retention)
+-- Created on 2026-10-19
+
+-- Table is otherwise created by Hibernate; defined here so the index also applies on a fresh database
+CREATE TABLE IF NOT EXISTS intelligence_reports (
+    id VARCHAR(255) PRIMARY KEY,
+    title VARCHAR(255),
+    type VARCHAR(50),
+    source_details VARCHAR(255),
+    reliability VARCHAR(50),
+    credibility VARCHAR(50),
+    lat DOUBLE PRECISION,
+    lon DOUBLE PRECISION,
+    event_timestamp BIGINT NOT NULL,
+    report_timestamp BIGINT NOT NULL,
+    details TEXT,
+    reporting_unit_id VARCHAR(255)
+);
+
+CREATE INDEX idx_intel_event_ts ON intelligence_reports (event_timestamp);
@@ -0,0 +1,6 @@
+-- Near-duplicate flag on intelligence reports, set at ingest by IntelDedupService
+-- Created on 2026-10-19
+
+ALTER TABLE intelligence_reports ADD COLUMN duplicate_of VARCHAR(255);
+
+CREATE INDEX idx_intel_duplicate_of ON intelligence_reports (duplicate_of);
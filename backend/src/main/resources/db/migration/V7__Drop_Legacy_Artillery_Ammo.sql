@@ -0,0 +1,6 @@
+-- V3 copied the legacy element-collection rows into artillery_ammo_inventory;
+-- nothing maps artillery_ammo any more, so drop it (also the empty copy V3
+-- creates on a fresh database)
+-- Created on 2026-10-19
+
+DROP TABLE IF EXISTS artillery_ammo;
@@ -0,0 +1,6 @@
+-- V4 copied the legacy element-collection rows into unit_route_points;
+-- nothing maps unit_route_history any more, so drop it (also the empty copy
+-- V4 creates on a fresh database)
+-- Created on 2026-10-19
+
+DROP TABLE IF EXISTS unit_route_history;
@@ -0,0 +1,178 @@
+package com.simcop.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Load run for POST /api/positions against the application on in-memory H2:
+ * sends position reports for 300 test units at a fixed rate (1,000/s) in
+ * small batches, then waits for the ingestion queue to drain and prints
+ * request latency and server-side ingestion stats.
+ *
+ * Run: mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest=PositionIngestionLoadBenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class PositionIngestionLoadBenchmark {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final HttpClient http = HttpClient.newHttpClient();
+
+    private static final int RATE = 1000;
+    private static final int SECONDS = 20;
+    private static final int BATCH_SIZE = 50;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void sustainedIngestion() throws Exception {
+        String baseUrl = "http://localhost:" + port;
+        int rate = RATE;
+        int seconds = SECONDS;
+        int batchSize = BATCH_SIZE;
+
+        String token = login(baseUrl, "admin", "password");
+        List<String> unitIds = createUnits(baseUrl, token, 300);
+        System.out.printf("Sending %d reports/s for %d s in batches of %d across %d units%n", rate, seconds,
+                batchSize, unitIds.size());
+
+        // Each unit drifts from a random start in the Colombian theatre
+        Random random = new Random(7);
+        Map<String, double[]> positions = new HashMap<>();
+        for (String id : unitIds) {
+            positions.put(id, new double[] { -4.0 + random.nextDouble() * 16.0, -79.0 + random.nextDouble() * 12.0 });
+        }
+
+        long periodMicros = 1_000_000L * batchSize / rate;
+        int totalBatches = (int) ((long) rate * seconds / batchSize);
+        List<Long> latenciesMicros = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong accepted = new AtomicLong(), rejected = new AtomicLong(), failed = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(totalBatches);
+        List<String> ids = unitIds;
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        AtomicLong sentBatches = new AtomicLong();
+        long start = System.nanoTime();
+        ScheduledFuture<?> task = scheduler.scheduleAtFixedRate(() -> {
+            if (sentBatches.getAndIncrement() >= totalBatches)
+                return;
+            ArrayNode batch = mapper.createArrayNode();
+            long now = System.currentTimeMillis();
+            for (int i = 0; i < batchSize; i++) {
+                String id = ids.get(random.nextInt(ids.size()));
+                double[] p = positions.get(id);
+                p[0] += (random.nextDouble() - 0.5) * 0.001;
+                p[1] += (random.nextDouble() - 0.5) * 0.001;
+                ObjectNode report = batch.addObject();
+                report.put("unitId", id);
+                report.put("lat", p[0]);
+                report.put("lon", p[1]);
+                report.put("timestamp", now);
+            }
+            long sentAt = System.nanoTime();
+            http.sendAsync(post(baseUrl + "/api/positions", token, batch.toString()),
+                    HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> {
+                        latenciesMicros.add((System.nanoTime() - sentAt) / 1000);
+                        if (error != null || response.statusCode() >= 500 && response.statusCode() != 503) {
+                            failed.incrementAndGet();
+                        } else {
+                            try {
+                                JsonNode result = mapper.readTree(response.body());
+                                accepted.addAndGet(result.path("accepted").asLong());
+                                rejected.addAndGet(result.path("rejected").asLong());
+                            } catch (Exception e) {
+                                failed.incrementAndGet();
+                            }
+                        }
+                        done.countDown();
+                    });
+        }, 0, periodMicros, TimeUnit.MICROSECONDS);
+
+        done.await(seconds + 60L, TimeUnit.SECONDS);
+        task.cancel(false);
+        scheduler.shutdown();
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        List<Long> sorted = new ArrayList<>(latenciesMicros);
+        Collections.sort(sorted);
+        System.out.printf("Sent %d batches in %.1f s: %.0f reports/s accepted, %d rejected (queue full), %d failed%n",
+                sorted.size(), elapsed, accepted.get() / elapsed, rejected.get(), failed.get());
+        if (!sorted.isEmpty()) {
+            System.out.printf("POST latency ms: p50 %.1f, p95 %.1f, p99 %.1f, max %.1f%n", pct(sorted, 0.50),
+                    pct(sorted, 0.95), pct(sorted, 0.99), sorted.get(sorted.size() - 1) / 1000.0);
+        }
+
+        // Wait for the server to drain its queue
+        JsonNode stats = null;
+        for (int i = 0; i < 60; i++) {
+            stats = getJson(baseUrl + "/api/positions/stats", token);
+            if (stats.path("queueDepth").asInt() == 0)
+                break;
+            Thread.sleep(500);
+        }
+        System.out.println("Server stats: " + stats);
+        assertEquals(0, failed.get(), "failed requests");
+        assertEquals(0, stats.path("queueDepth").asInt(), "queue did not drain");
+    }
+
+    private static double pct(List<Long> sorted, double p) {
+        return sorted.get(Math.min(sorted.size() - 1, (int) Math.ceil(p * sorted.size()) - 1)) / 1000.0;
+    }
+
+    private static String login(String baseUrl, String username, String password) throws Exception {
+        ObjectNode body = mapper.createObjectNode();
+        body.put("username", username);
+        body.put("hashedPassword", password);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/users/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString())).build();
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        return mapper.readTree(response.body()).path("token").asText();
+    }
+
+    private static List<String> createUnits(String baseUrl, String token, int count) throws Exception {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ObjectNode unit = mapper.createObjectNode();
+            unit.put("name", "CARGA-" + i);
+            unit.put("type", "PLATOON");
+            HttpResponse<String> response = http.send(post(baseUrl + "/api/units", token, unit.toString()),
+                    HttpResponse.BodyHandlers.ofString());
+            ids.add(mapper.readTree(response.body()).path("id").asText());
+        }
+        return ids;
+    }
+
+    private static JsonNode getJson(String url, String token) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).header("Authorization", "Bearer " + token)
+                .GET().build();
+        return mapper.readTree(http.send(request, HttpResponse.BodyHandlers.ofString()).body());
+    }
+
+    private static HttpRequest post(String url, String token, String json) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer " + token)
+                .POST(HttpRequest.BodyPublishers.ofString(json)).build();
+    }
+}
@@ -0,0 +1,144 @@
+package com.simcop.service;
+
+import com.simcop.model.AmmoExpenditure;
+import com.simcop.model.AmmoType;
+import com.simcop.model.ArtilleryPiece;
+import com.simcop.model.ArtilleryStatus;
+import com.simcop.model.embeddable.AmmoStock;
+import com.simcop.model.embeddable.GeoLocation;
+import com.simcop.repository.AmmoExpenditureRepository;
+import com.simcop.repository.ArtilleryPieceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Concurrent draws through the real service and database: the conditional
+ * UPDATE must never take stock below zero or lose a decrement, and the
+ * journal must hold exactly one row per successful draw.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class AmmunitionLedgerServiceTest {
+
+    private static final int PIECES = 4;
+    private static final AmmoType[] TYPES = { AmmoType.HE, AmmoType.SMOKE };
+    private static final int INITIAL_ROUNDS = 300;
+    private static final int THREADS = 16;
+    private static final int ACTIVATIONS = 4000;
+
+    @Autowired
+    private AmmunitionLedgerService ledgerService;
+
+    @Autowired
+    private ArtilleryPieceRepository artilleryRepository;
+
+    @Autowired
+    private AmmoExpenditureRepository expenditureRepository;
+
+    @BeforeEach
+    void setUp() {
+        expenditureRepository.deleteAll();
+        artilleryRepository.deleteAll();
+        for (int p = 0; p < PIECES; p++) {
+            artilleryRepository.save(piece(p, INITIAL_ROUNDS));
+            ledgerService.invalidate(pieceId(p));
+        }
+    }
+
+    @Test
+    void concurrentDrawsNeverOverdrawOrLoseUpdates() throws Exception {
+        int keys = PIECES * TYPES.length;
+        AtomicIntegerArray drawn = new AtomicIntegerArray(keys);
+        AtomicInteger successes = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        Queue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < ACTIVATIONS; i++) {
+            futures.add(pool.submit(() -> {
+                go.await();
+                int k = ThreadLocalRandom.current().nextInt(keys);
+                int amount = 1 + ThreadLocalRandom.current().nextInt(3);
+                try {
+                    AmmoExpenditure expenditure = ledgerService.consume(pieceId(k / TYPES.length),
+                            TYPES[k % TYPES.length], amount, null);
+                    assertTrue(expenditure.getRemainingAfter() >= 0);
+                    drawn.addAndGet(k, amount);
+                    successes.incrementAndGet();
+                } catch (RuntimeException e) {
+                    if ("Artillery out of ammo!".equals(e.getMessage()))
+                        rejected.incrementAndGet();
+                    else
+                        unexpected.add(e);
+                }
+                return null;
+            }));
+        }
+        go.countDown();
+        for (Future<?> future : futures)
+            future.get(2, TimeUnit.MINUTES);
+        pool.shutdown();
+
+        assertTrue(unexpected.isEmpty(), () -> "Unexpected failures: " + unexpected.peek());
+        assertEquals(ACTIVATIONS, successes.get() + rejected.get());
+        // Demand exceeds stock, so the exhaustion path is exercised
+        assertTrue(rejected.get() > 0);
+
+        List<AmmoExpenditure> journal = expenditureRepository.findAll();
+        assertEquals(successes.get(), journal.size(), "one journal row per successful draw");
+        for (int k = 0; k < keys; k++) {
+            String pieceId = pieceId(k / TYPES.length);
+            AmmoType type = TYPES[k % TYPES.length];
+            int quantity = artilleryRepository.findAmmoQuantity(pieceId, type.name()).get(0).intValue();
+            assertTrue(quantity >= 0, "stock below zero for " + pieceId + " " + type);
+            assertEquals(INITIAL_ROUNDS - drawn.get(k), quantity, "lost update on " + pieceId + " " + type);
+            int journaled = journal.stream()
+                    .filter(e -> e.getArtilleryId().equals(pieceId) && e.getAmmoType() == type)
+                    .mapToInt(AmmoExpenditure::getQuantity).sum();
+            assertEquals(drawn.get(k), journaled, "journal total for " + pieceId + " " + type);
+        }
+    }
+
+    @Test
+    void staleCounterIsResyncedFromTheDatabase() {
+        ledgerService.consume(pieceId(0), AmmoType.HE, 1, null);
+        // Stock written elsewhere without invalidating the counter
+        artilleryRepository.save(piece(0, 2));
+
+        ledgerService.consume(pieceId(0), AmmoType.HE, 2, null);
+        assertThrows(RuntimeException.class, () -> ledgerService.consume(pieceId(0), AmmoType.HE, 1, null));
+        assertEquals(0, artilleryRepository.findAmmoQuantity(pieceId(0), "HE").get(0).intValue());
+        assertEquals(2, expenditureRepository.findByArtilleryIdOrderByTimestampDesc(pieceId(0)).size());
+    }
+
+    private static ArtilleryPiece piece(int p, int rounds) {
+        ArtilleryPiece piece = new ArtilleryPiece();
+        piece.setId(pieceId(p));
+        piece.setName("Pieza " + p);
+        piece.setStatus(ArtilleryStatus.READY);
+        piece.setLocation(new GeoLocation(4.0, -74.0));
+        piece.setMinRange(1000);
+        piece.setMaxRange(20000);
+        List<AmmoStock> stock = new ArrayList<>();
+        for (AmmoType type : TYPES)
+            stock.add(new AmmoStock(type, rounds));
+        piece.setAmmunition(stock);
+        return piece;
+    }
+
+    private static String pieceId(int p) {
+        return "ledger-test-" + p;
+    }
+}
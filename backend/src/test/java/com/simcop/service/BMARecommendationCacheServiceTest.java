@@ -0,0 +1,109 @@
+package com.simcop.service;
+
+import com.simcop.dto.BMARecommendationDTO;
+import com.simcop.event.UnitChangedEvent;
+import com.simcop.model.IntelligenceReport;
+import com.simcop.model.UnitStatus;
+import com.simcop.model.embeddable.GeoLocation;
+import com.simcop.repository.IntelligenceReportRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BMARecommendationCacheServiceTest {
+
+    private BMARecommendationCacheService cache;
+    private BMAService bmaService;
+    private IntelligenceReport threat;
+    // Run inside the next computation, as if the event committed while it ran
+    private Runnable duringCompute;
+
+    @BeforeEach
+    void setUp() {
+        cache = new BMARecommendationCacheService();
+        bmaService = mock(BMAService.class);
+        IntelligenceReportRepository intelRepository = mock(IntelligenceReportRepository.class);
+        ReflectionTestUtils.setField(cache, "bmaService", bmaService);
+        ReflectionTestUtils.setField(cache, "intelRepository", intelRepository);
+        ReflectionTestUtils.setField(cache, "registry", new SimpleMeterRegistry());
+        cache.registerMeters();
+
+        threat = new IntelligenceReport();
+        threat.setId("threat-1");
+        threat.setLocation(new GeoLocation(4.60, -74.08));
+        when(intelRepository.findById("threat-1")).thenReturn(Optional.of(threat));
+        when(bmaService.recommendResponse(threat)).thenAnswer(invocation -> {
+            if (duringCompute != null) {
+                Runnable change = duringCompute;
+                duringCompute = null;
+                change.run();
+            }
+            List<BMARecommendationDTO> recommendations = new ArrayList<>();
+            for (int i = 0; i < BMAService.RECOMMENDATION_LIMIT; i++)
+                recommendations.add(new BMARecommendationDTO("ranked-" + i, "Unidad " + i, "", 90, 10));
+            return recommendations;
+        });
+    }
+
+    @Test
+    void changeDuringComputeThatAffectsTheRankingIsNotCached() {
+        // A unit moves next to the threat: it could now beat the N-th score
+        duringCompute = () -> cache.onUnitChanged(position("newcomer", 4.60, -74.08));
+        cache.getRecommendations("threat-1");
+        cache.getRecommendations("threat-1");
+        verify(bmaService, times(2)).recommendResponse(threat);
+        cache.getRecommendations("threat-1");
+        verify(bmaService, times(2)).recommendResponse(threat);
+    }
+
+    @Test
+    void changeDuringComputeToARankedUnitIsNotCached() {
+        duringCompute = () -> cache.onUnitChanged(new UnitChangedEvent("ranked-2", null, null, null, null,
+                UnitStatus.MAINTENANCE, null, null, null, System.currentTimeMillis(), false));
+        cache.getRecommendations("threat-1");
+        cache.getRecommendations("threat-1");
+        verify(bmaService, times(2)).recommendResponse(threat);
+    }
+
+    @Test
+    void unrelatedChangeDuringComputeKeepsTheEntry() {
+        // Too far away to reach the N-th score
+        duringCompute = () -> cache.onUnitChanged(position("far", 6.60, -74.08));
+        cache.getRecommendations("threat-1");
+        cache.getRecommendations("threat-1");
+        verify(bmaService, times(1)).recommendResponse(threat);
+    }
+
+    @Test
+    void changeAfterComputeInvalidatesTheEntry() {
+        cache.getRecommendations("threat-1");
+        cache.onUnitChanged(position("newcomer", 4.61, -74.08));
+        cache.getRecommendations("threat-1");
+        verify(bmaService, times(2)).recommendResponse(threat);
+    }
+
+    @Test
+    void overwrittenChangeLogInvalidatesTheEntry() {
+        // More far-away changes than the log holds: the oldest can no longer be checked
+        duringCompute = () -> {
+            for (int i = 0; i < 5000; i++)
+                cache.onUnitChanged(position("far-" + i, 6.60, -74.08));
+        };
+        cache.getRecommendations("threat-1");
+        cache.getRecommendations("threat-1");
+        verify(bmaService, times(2)).recommendResponse(threat);
+        assertEquals(1, cache.getStats().getInvalidations());
+    }
+
+    private static UnitChangedEvent position(String unitId, double lat, double lon) {
+        return UnitChangedEvent.positionReport(unitId, lat, lon, System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,142 @@
+package com.simcop.service;
+
+import com.simcop.dto.FireMissionAssignmentPlanDTO;
+import com.simcop.model.AmmoType;
+import com.simcop.model.ArtilleryPiece;
+import com.simcop.model.ArtilleryStatus;
+import com.simcop.model.FireMission;
+import com.simcop.model.embeddable.AmmoStock;
+import com.simcop.model.embeddable.GeoLocation;
+import com.simcop.util.GeoUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FireMissionAssignmentServiceTest {
+
+    // Mirrors the service's cost model: 0.5 per queue position, 1e6 per unassigned mission
+    private static final double QUEUE_WEIGHT = 0.5;
+    private static final double UNASSIGNED_COST = 1e6;
+    private static final int MAX_QUEUE = 3;
+
+    private final FireMissionAssignmentService service = new FireMissionAssignmentService();
+
+    @Test
+    void missionSpillsToNextPieceWhenClosestRunsOutOfAmmo() {
+        ArtilleryPiece close = piece("A", 4.000, -74.000, 1, 0);
+        ArtilleryPiece far = piece("B", 4.050, -74.000, 10, 0);
+        List<FireMission> missions = List.of(mission("M1", 4.010, -74.0, "HE"), mission("M2", 4.011, -74.0, "HE"));
+
+        FireMissionAssignmentPlanDTO plan = service.solve(missions, List.of(close, far), Map.of());
+
+        assertTrue(plan.getUnassignedMissionIds().isEmpty());
+        Map<String, Long> perPiece = new HashMap<>();
+        plan.getAssignments().forEach(a -> perPiece.merge(a.getArtilleryId(), 1L, Long::sum));
+        assertEquals(Map.of("A", 1L, "B", 1L), perPiece);
+    }
+
+    @Test
+    void stockOfOneTypeDoesNotCoverAnother() {
+        ArtilleryPiece piece = piece("A", 4.0, -74.0, 5, 0);
+        FireMissionAssignmentPlanDTO plan = service.solve(List.of(mission("M1", 4.01, -74.0, "SMOKE")),
+                List.of(piece), Map.of());
+        assertEquals(List.of("M1"), plan.getUnassignedMissionIds());
+    }
+
+    @Test
+    void matchesBruteForceOnSmallInstances() {
+        Random random = new Random(3);
+        for (int round = 0; round < 300; round++) {
+            List<ArtilleryPiece> pieces = new ArrayList<>();
+            for (int p = 0; p < 1 + random.nextInt(3); p++) {
+                pieces.add(piece("P" + p, 4.0 + random.nextDouble() * 0.2, -74.0 + random.nextDouble() * 0.2,
+                        random.nextInt(3), random.nextInt(2)));
+            }
+            List<FireMission> missions = new ArrayList<>();
+            for (int m = 0; m < 1 + random.nextInt(5); m++) {
+                missions.add(mission("M" + m, 4.0 + random.nextDouble() * 0.2, -74.0 + random.nextDouble() * 0.2,
+                        random.nextDouble() < 0.7 ? "HE" : "SMOKE"));
+            }
+            Map<String, Integer> load = new HashMap<>();
+            for (ArtilleryPiece piece : pieces)
+                load.put(piece.getId(), random.nextInt(MAX_QUEUE + 1));
+
+            FireMissionAssignmentPlanDTO plan = service.solve(missions, pieces, load);
+
+            assertEquals(missions.size(), plan.getAssignments().size() + plan.getUnassignedMissionIds().size());
+            Map<String, ArtilleryPiece> byId = new HashMap<>();
+            pieces.forEach(p -> byId.put(p.getId(), p));
+            Map<String, FireMission> missionsById = new HashMap<>();
+            missions.forEach(m -> missionsById.put(m.getId(), m));
+            ArtilleryPiece[] choice = new ArtilleryPiece[missions.size()];
+            for (FireMissionAssignmentPlanDTO.Assignment assignment : plan.getAssignments()) {
+                choice[missions.indexOf(missionsById.get(assignment.getMissionId()))] = byId
+                        .get(assignment.getArtilleryId());
+            }
+            double planCost = cost(missions, choice, load);
+            assertTrue(planCost < Double.POSITIVE_INFINITY, "plan violates range, stock or queue limits");
+            assertEquals(bruteForce(missions, pieces, load, new ArtilleryPiece[missions.size()], 0), planCost, 1e-6,
+                    "round " + round);
+        }
+    }
+
+    private double bruteForce(List<FireMission> missions, List<ArtilleryPiece> pieces, Map<String, Integer> load,
+            ArtilleryPiece[] choice, int i) {
+        if (i == missions.size())
+            return cost(missions, choice, load);
+        double best = Double.POSITIVE_INFINITY;
+        for (ArtilleryPiece piece : pieces) {
+            choice[i] = piece;
+            best = Math.min(best, bruteForce(missions, pieces, load, choice, i + 1));
+        }
+        choice[i] = null;
+        return Math.min(best, bruteForce(missions, pieces, load, choice, i + 1));
+    }
+
+    // Total cost of a choice, or infinity if it breaks a range, stock or queue limit
+    private static double cost(List<FireMission> missions, ArtilleryPiece[] choice, Map<String, Integer> load) {
+        double total = 0;
+        Map<String, Integer> used = new HashMap<>();
+        Map<String, Integer> queued = new HashMap<>();
+        for (int i = 0; i < choice.length; i++) {
+            ArtilleryPiece piece = choice[i];
+            if (piece == null) {
+                total += UNASSIGNED_COST;
+                continue;
+            }
+            FireMission mission = missions.get(i);
+            AmmoType type = AmmoType.fromName(mission.getProjectileType());
+            double dist = GeoUtils.calculateDistanceMeters(piece.getLocation(), mission.getTargetLocation());
+            int typeUsed = used.merge(piece.getId() + ":" + type, 1, Integer::sum);
+            int position = load.getOrDefault(piece.getId(), 0) + queued.merge(piece.getId(), 1, Integer::sum) - 1;
+            if (dist > piece.getMaxRange() || dist < piece.getMinRange() || typeUsed > piece.getAmmo(type)
+                    || position >= MAX_QUEUE)
+                return Double.POSITIVE_INFINITY;
+            total += dist / piece.getMaxRange() + QUEUE_WEIGHT * position;
+        }
+        return total;
+    }
+
+    private static ArtilleryPiece piece(String id, double lat, double lon, int he, int smoke) {
+        ArtilleryPiece piece = new ArtilleryPiece();
+        piece.setId(id);
+        piece.setName("Pieza " + id);
+        piece.setStatus(ArtilleryStatus.READY);
+        piece.setLocation(new GeoLocation(lat, lon));
+        piece.setMinRange(500);
+        piece.setMaxRange(15000);
+        piece.setAmmunition(new ArrayList<>(List.of(new AmmoStock(AmmoType.HE, he),
+                new AmmoStock(AmmoType.SMOKE, smoke))));
+        return piece;
+    }
+
+    private static FireMission mission(String id, double lat, double lon, String projectile) {
+        FireMission mission = new FireMission();
+        mission.setId(id);
+        mission.setTargetLocation(new GeoLocation(lat, lon));
+        mission.setProjectileType(projectile);
+        return mission;
+    }
+}
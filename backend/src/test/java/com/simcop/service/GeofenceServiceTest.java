@@ -0,0 +1,66 @@
+package com.simcop.service;
+
+import com.simcop.dto.HotspotDTO;
+import com.simcop.event.UnitChangedEvent;
+import com.simcop.model.Alert;
+import com.simcop.model.UnitStatus;
+import com.simcop.model.embeddable.GeoLocation;
+import com.simcop.repository.AlertRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class GeofenceServiceTest {
+
+    private GeofenceService geofence;
+    private HotspotScoreService hotspotScores;
+    private AlertRepository alertRepository;
+
+    @BeforeEach
+    void setUp() {
+        geofence = new GeofenceService(mock(PlatformTransactionManager.class));
+        hotspotScores = mock(HotspotScoreService.class);
+        alertRepository = mock(AlertRepository.class);
+        ReflectionTestUtils.setField(geofence, "hotspotScores", hotspotScores);
+        ReflectionTestUtils.setField(geofence, "alertRepository", alertRepository);
+        when(hotspotScores.getHotspots()).thenReturn(List.of());
+        geofence.onUnitChanged(new UnitChangedEvent("unit-1", "1er Batallón", null, 4.60, -74.08,
+                UnitStatus.OPERATIONAL, null, null, null, System.currentTimeMillis(), false));
+    }
+
+    @Test
+    void driftingHotspotDoesNotRealertUnitsInside() {
+        when(hotspotScores.getHotspots()).thenReturn(List.of(hotspot("hotspot:41:-66", 4.60, -74.08, 5)));
+        geofence.refresh();
+        verify(alertRepository, times(1)).save(any(Alert.class));
+
+        // The peak moves to a neighbouring cell: new DTO id, same hotspot about 2 km away
+        when(hotspotScores.getHotspots()).thenReturn(List.of(hotspot("hotspot:42:-66", 4.62, -74.08, 7)));
+        geofence.refresh();
+        when(hotspotScores.getHotspots()).thenReturn(List.of(hotspot("hotspot:41:-66", 4.61, -74.07, 6)));
+        geofence.refresh();
+        verify(alertRepository, times(1)).save(any(Alert.class));
+    }
+
+    @Test
+    void distantHotspotIsANewZone() {
+        when(hotspotScores.getHotspots()).thenReturn(List.of(hotspot("hotspot:41:-66", 4.60, -74.08, 5)));
+        geofence.refresh();
+        // A second hotspot further than the radius from the first, with the unit moved into it
+        when(hotspotScores.getHotspots()).thenReturn(List.of(hotspot("hotspot:41:-66", 4.60, -74.08, 5),
+                hotspot("hotspot:45:-66", 4.75, -74.08, 4)));
+        geofence.refresh();
+        geofence.onUnitChanged(UnitChangedEvent.positionReport("unit-1", 4.75, -74.08, System.currentTimeMillis()));
+        verify(alertRepository, times(2)).save(any(Alert.class));
+    }
+
+    private static HotspotDTO hotspot(String id, double lat, double lon, int intensity) {
+        return new HotspotDTO(id, new GeoLocation(lat, lon), 5.0, intensity, intensity, "test");
+    }
+}
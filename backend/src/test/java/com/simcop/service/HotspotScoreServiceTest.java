@@ -0,0 +1,127 @@
+package com.simcop.service;
+
+import com.simcop.dto.HotspotDTO;
+import com.simcop.event.IntelReportsIngestedEvent;
+import com.simcop.model.IntelligenceCredibility;
+import com.simcop.model.IntelligenceReliability;
+import com.simcop.model.IntelligenceReport;
+import com.simcop.model.embeddable.GeoLocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class HotspotScoreServiceTest {
+
+    private static final long HOUR_MS = 3600_000L;
+
+    private HotspotScoreService scores;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        // Defaults: 5 km radius, 12 h half-life, min-score 1.2, 72 h horizon
+        scores = new HotspotScoreService(mock(PlatformTransactionManager.class));
+        now = System.currentTimeMillis();
+    }
+
+    @Test
+    void weightFollowsTheNatoGrades() {
+        assertEquals(1.0, HotspotScoreService.weight(IntelligenceReliability.A, IntelligenceCredibility.ONE), 1e-9);
+        assertEquals(0.36, HotspotScoreService.weight(IntelligenceReliability.C, IntelligenceCredibility.THREE), 1e-9);
+        assertEquals(0.04, HotspotScoreService.weight(IntelligenceReliability.E, IntelligenceCredibility.FIVE), 1e-9);
+        // Unjudgeable or missing grades count as the middle one
+        assertEquals(0.36, HotspotScoreService.weight(IntelligenceReliability.F, IntelligenceCredibility.SIX), 1e-9);
+        assertEquals(0.6, HotspotScoreService.weight(null, IntelligenceCredibility.ONE), 1e-9);
+    }
+
+    @Test
+    void twoCredibleReportsMakeAHotspot() {
+        ingest(report("r1", 4.600, -74.080, IntelligenceReliability.A, IntelligenceCredibility.ONE, now));
+        assertTrue(scores.getHotspots().isEmpty());
+        ingest(report("r2", 4.601, -74.081, IntelligenceReliability.A, IntelligenceCredibility.ONE, now));
+        List<HotspotDTO> hotspots = scores.getHotspots();
+        assertEquals(1, hotspots.size());
+        assertEquals(2, hotspots.get(0).getIntensity());
+        assertEquals(2.0, hotspots.get(0).getScore(), 1e-6);
+        assertEquals(4.6005, hotspots.get(0).getCenter().getLat(), 1e-6);
+    }
+
+    @Test
+    void lowGradesNeedMoreReports() {
+        for (int i = 0; i < 3; i++)
+            ingest(report("c" + i, 4.600, -74.080, IntelligenceReliability.C, IntelligenceCredibility.THREE, now));
+        assertTrue(scores.getHotspots().isEmpty(), "3 x 0.36 is below min-score");
+        ingest(report("c3", 4.600, -74.080, IntelligenceReliability.C, IntelligenceCredibility.THREE, now));
+        assertEquals(1.44, scores.getHotspots().get(0).getScore(), 1e-6);
+    }
+
+    @Test
+    void reportsHalveEveryHalfLife() {
+        ingest(report("old1", 4.600, -74.080, IntelligenceReliability.A, IntelligenceCredibility.ONE, now - 12 * HOUR_MS),
+                report("old2", 4.600, -74.080, IntelligenceReliability.A, IntelligenceCredibility.ONE, now - 12 * HOUR_MS));
+        assertTrue(scores.getHotspots().isEmpty(), "2 x 0.5 is below min-score");
+
+        ingest(report("six1", 4.700, -74.080, IntelligenceReliability.A, IntelligenceCredibility.ONE, now - 6 * HOUR_MS),
+                report("six2", 4.700, -74.080, IntelligenceReliability.A, IntelligenceCredibility.ONE, now - 6 * HOUR_MS));
+        List<HotspotDTO> hotspots = scores.getHotspots();
+        assertEquals(1, hotspots.size());
+        assertEquals(2 * Math.sqrt(0.5), hotspots.get(0).getScore(), 1e-3);
+
+        // Past the horizon a report is not counted at all
+        ingest(report("stale", 4.700, -74.080, IntelligenceReliability.A, IntelligenceCredibility.ONE,
+                now - 80 * HOUR_MS));
+        assertEquals(2, scores.getHotspots().get(0).getIntensity());
+    }
+
+    @Test
+    void refiledReportReplacesItsContribution() {
+        IntelligenceReport report = report("r1", 4.600, -74.080, IntelligenceReliability.A,
+                IntelligenceCredibility.ONE, now);
+        ingest(report);
+        ingest(report);
+        ingest(report);
+        assertTrue(scores.getHotspots().isEmpty(), "one report filed three times is still one report");
+
+        ingest(report("r2", 4.600, -74.080, IntelligenceReliability.A, IntelligenceCredibility.ONE, now));
+        assertEquals(2, scores.getHotspots().get(0).getIntensity());
+
+        // Regraded down: 1.0 + 0.04 is below min-score
+        ingest(report("r1", 4.600, -74.080, IntelligenceReliability.E, IntelligenceCredibility.FIVE, now));
+        assertTrue(scores.getHotspots().isEmpty());
+
+        // Moved next to r3 and r4, away from r2
+        ingest(report("r3", 5.000, -74.080, IntelligenceReliability.A, IntelligenceCredibility.ONE, now));
+        ingest(report("r1", 5.000, -74.080, IntelligenceReliability.A, IntelligenceCredibility.ONE, now));
+        List<HotspotDTO> hotspots = scores.getHotspots();
+        assertEquals(1, hotspots.size());
+        assertEquals(5.0, hotspots.get(0).getCenter().getLat(), 1e-6);
+        assertEquals(2, hotspots.get(0).getIntensity());
+
+        // Flagged as a near-duplicate: it no longer counts
+        IntelligenceReport duplicate = report("r1", 5.000, -74.080, IntelligenceReliability.A,
+                IntelligenceCredibility.ONE, now);
+        duplicate.setDuplicateOf("r3");
+        ingest(duplicate);
+        assertTrue(scores.getHotspots().isEmpty());
+    }
+
+    private void ingest(IntelligenceReport... reports) {
+        scores.onReportsIngested(new IntelReportsIngestedEvent(List.of(reports)));
+    }
+
+    private static IntelligenceReport report(String id, double lat, double lon, IntelligenceReliability reliability,
+            IntelligenceCredibility credibility, long eventTime) {
+        IntelligenceReport report = new IntelligenceReport();
+        report.setId(id);
+        report.setLocation(new GeoLocation(lat, lon));
+        report.setReliability(reliability);
+        report.setCredibility(credibility);
+        report.setEventTimestamp(eventTime);
+        return report;
+    }
+}
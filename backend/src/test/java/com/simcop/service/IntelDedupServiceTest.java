@@ -0,0 +1,111 @@
+package com.simcop.service;
+
+import com.simcop.model.IntelligenceReport;
+import com.simcop.model.embeddable.GeoLocation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class IntelDedupServiceTest {
+
+    private static final long MINUTE_MS = 60_000L;
+    private static final String DETAILS = "Se observa un grupo armado de unos veinte hombres cruzando el río "
+            + "cerca del puente de la vereda El Carmen, con fusiles y dos vehículos";
+    private static final List<String> KEYWORDS = List.of("grupo armado", "río", "vehículos");
+    // About 1 km north of the first report
+    private static final double KM_LAT = 1 / 111.32;
+
+    private IntelDedupService dedup;
+    private long t0;
+
+    @BeforeEach
+    void setUp() {
+        dedup = new IntelDedupService(mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(dedup, "radiusKm", 2.0);
+        ReflectionTestUtils.setField(dedup, "windowMinutes", 120L);
+        ReflectionTestUtils.setField(dedup, "maxDistance", 10);
+        t0 = System.currentTimeMillis();
+        assertNull(dedup.assign(report("A", 4.60, -74.08, t0, DETAILS)));
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+            TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void nearDuplicateWithinRadiusAndWindowIsFlagged() {
+        IntelligenceReport b = report("B", 4.60 + KM_LAT, -74.08, t0 + 30 * MINUTE_MS,
+                DETAILS.replace("veinte", "20"));
+        assertEquals("A", dedup.assign(b));
+        assertEquals("A", b.getDuplicateOf());
+        // Earlier than the canonical report works the same way
+        assertEquals("A", dedup.assign(report("C", 4.60, -74.08 + 0.005, t0 - 90 * MINUTE_MS, DETAILS)));
+        // A duplicate of a duplicate points at the canonical report
+        assertEquals("A", dedup.assign(report("D", 4.60 + 2.5 * KM_LAT, -74.08, t0 + 60 * MINUTE_MS, DETAILS)),
+                "D is 1.5 km from B, which is a duplicate of A");
+    }
+
+    @Test
+    void outsideRadiusOrWindowIsNotFlagged() {
+        assertNull(dedup.assign(report("far", 4.60 + 3 * KM_LAT, -74.08, t0, DETAILS)));
+        assertNull(dedup.assign(report("late", 4.60 - 3 * KM_LAT, -74.08, t0 + 150 * MINUTE_MS, DETAILS)));
+        assertNull(dedup.assign(report("early", 4.60 - 6 * KM_LAT, -74.08, t0 - 121 * MINUTE_MS, DETAILS)));
+    }
+
+    @Test
+    void differentTextIsNotFlagged() {
+        assertNull(dedup.assign(report("other", 4.60, -74.08, t0,
+                "Explosión de un artefacto en la estación de policía; dos heridos y daños en la fachada")));
+        // Without details or keywords there is nothing to compare
+        IntelligenceReport empty = report("empty", 4.60, -74.08, t0, null);
+        empty.setKeywords(List.of());
+        assertNull(dedup.assign(empty));
+    }
+
+    @Test
+    void refiledReportDoesNotMatchItself() {
+        assertNull(dedup.assign(report("A", 4.60, -74.08, t0, DETAILS)));
+        // Not even through its own duplicate
+        assertEquals("A", dedup.assign(report("B", 4.60 + KM_LAT, -74.08, t0, DETAILS)));
+        assertNull(dedup.assign(report("A", 4.60, -74.08, t0, DETAILS)));
+    }
+
+    @Test
+    void fingerprintIsDroppedOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        assertNull(dedup.assign(report("R", 5.50, -73.50, t0, DETAILS)));
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations())
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        TransactionSynchronizationManager.clearSynchronization();
+        assertNull(dedup.assign(report("S", 5.50, -73.50, t0, DETAILS)), "R was never written");
+
+        // Committed: the fingerprint stays
+        TransactionSynchronizationManager.initSynchronization();
+        assertEquals("S", dedup.assign(report("T", 5.50, -73.50, t0, DETAILS)));
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations())
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        TransactionSynchronizationManager.clearSynchronization();
+        assertEquals("S", dedup.assign(report("U", 5.50, -73.50, t0, DETAILS)));
+    }
+
+    private static IntelligenceReport report(String id, double lat, double lon, long eventTime, String details) {
+        IntelligenceReport report = new IntelligenceReport();
+        report.setId(id);
+        report.setLocation(new GeoLocation(lat, lon));
+        report.setEventTimestamp(eventTime);
+        report.setDetails(details);
+        report.setKeywords(KEYWORDS);
+        return report;
+    }
+}
@@ -0,0 +1,96 @@
+package com.simcop.service;
+
+import com.simcop.dto.IntelHeatmapFrameDTO;
+import com.simcop.event.IntelReportsIngestedEvent;
+import com.simcop.model.IntelligenceReport;
+import com.simcop.model.embeddable.GeoLocation;
+import com.simcop.util.TileMath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class IntelHeatmapServiceTest {
+
+    private static final long DAY_MS = 86_400_000L;
+    private static final int ZOOM = 8;
+
+    private IntelHeatmapService heatmap;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        heatmap = new IntelHeatmapService(mock(PlatformTransactionManager.class), 12, 14, 365);
+        now = System.currentTimeMillis();
+    }
+
+    @Test
+    void refiledReportIsCountedOnce() {
+        IntelligenceReport report = report("r1", 4.60, -74.08, now);
+        ingest(report);
+        ingest(report);
+        ingest(report("r2", 4.60, -74.08, now));
+        assertEquals(2, total(IntelHeatmapService.Resolution.HOUR, 4.60, -74.08));
+        assertEquals(2, total(IntelHeatmapService.Resolution.DAY, 4.60, -74.08));
+        assertEquals(2, worldTotal(IntelHeatmapService.Resolution.DAY));
+    }
+
+    @Test
+    void refiledReportMovesItsCount() {
+        ingest(report("r1", 4.60, -74.08, now));
+        // Moved to another tile and two days back
+        ingest(report("r1", 10.40, -75.50, now - 2 * DAY_MS));
+        assertEquals(0, total(IntelHeatmapService.Resolution.DAY, 4.60, -74.08));
+        assertEquals(1, total(IntelHeatmapService.Resolution.DAY, 10.40, -75.50));
+        assertEquals(1, worldTotal(IntelHeatmapService.Resolution.DAY));
+
+        IntelligenceReport duplicate = report("r1", 10.40, -75.50, now - 2 * DAY_MS);
+        duplicate.setDuplicateOf("r0");
+        ingest(duplicate);
+        assertEquals(0, worldTotal(IntelHeatmapService.Resolution.DAY));
+        assertEquals(0, worldTotal(IntelHeatmapService.Resolution.HOUR));
+    }
+
+    @Test
+    void removedReportsLeaveTheHeatmap() {
+        ingest(report("old", 4.60, -74.08, now - 200 * DAY_MS), report("new", 4.60, -74.08, now));
+        assertEquals(2, worldTotal(IntelHeatmapService.Resolution.DAY));
+        // Archived by retention; outside a transaction the counts drop right away
+        heatmap.remove(List.of("old", "missing"));
+        assertEquals(1, worldTotal(IntelHeatmapService.Resolution.DAY));
+        assertEquals(1, total(IntelHeatmapService.Resolution.DAY, 4.60, -74.08));
+    }
+
+    private int total(IntelHeatmapService.Resolution resolution, double lat, double lon) {
+        int x = TileMath.lonToX(lon, ZOOM), y = TileMath.latToY(lat, ZOOM);
+        return sum(heatmap.getTile(ZOOM, x, y, resolution, now - 10 * DAY_MS, now).getFrames());
+    }
+
+    private int worldTotal(IntelHeatmapService.Resolution resolution) {
+        long from = resolution == IntelHeatmapService.Resolution.HOUR ? now - 14 * DAY_MS : now - 365 * DAY_MS;
+        return sum(heatmap.getTile(0, 0, 0, resolution, from, now).getFrames());
+    }
+
+    private static int sum(List<IntelHeatmapFrameDTO> frames) {
+        int total = 0;
+        for (IntelHeatmapFrameDTO frame : frames)
+            total += frame.getTotal();
+        return total;
+    }
+
+    private void ingest(IntelligenceReport... reports) {
+        heatmap.onReportsIngested(new IntelReportsIngestedEvent(List.of(reports)));
+    }
+
+    private static IntelligenceReport report(String id, double lat, double lon, long eventTime) {
+        IntelligenceReport report = new IntelligenceReport();
+        report.setId(id);
+        report.setLocation(new GeoLocation(lat, lon));
+        report.setEventTimestamp(eventTime);
+        return report;
+    }
+}
@@ -0,0 +1,162 @@
+package com.simcop.service;
+
+import com.simcop.dto.IntelImportResultDTO;
+import com.simcop.event.IntelReportsIngestedEvent;
+import com.simcop.model.IntelligenceCredibility;
+import com.simcop.model.IntelligenceReliability;
+import com.simcop.model.IntelligenceReport;
+import com.simcop.model.IntelligenceSourceType;
+import com.simcop.model.embeddable.GeoLocation;
+import com.simcop.repository.IntelligenceReportRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+@RecordApplicationEvents
+class IntelImportServiceTest {
+
+    @Autowired
+    private IntelImportService importService;
+
+    @Autowired
+    private IntelligenceReportRepository reportRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    private Object batchSize;
+
+    @BeforeEach
+    void smallBatches() {
+        batchSize = ReflectionTestUtils.getField(importService, "batchSize");
+        ReflectionTestUtils.setField(importService, "batchSize", 2);
+    }
+
+    @AfterEach
+    void restoreBatchSize() {
+        ReflectionTestUtils.setField(importService, "batchSize", batchSize);
+    }
+
+    @Test
+    void importsMixedNdjson() throws IOException {
+        String body = String.join("\n",
+                "{\"id\":\"imp-n1\",\"title\":\"Artefacto explosivo\",\"type\":\"humint\",\"reliability\":\"b\","
+                        + "\"credibility\":\"2\",\"lat\":4.60,\"lon\":-74.08,\"eventTimestamp\":1760000000000,"
+                        + "\"keywords\":[\"IED\",\" ied \",\"\",\"Explosivos\"]}",
+                "{not json",
+                "{\"id\":\"imp-bad-title\",\"lat\":4.61,\"lon\":-74.08}",
+                "",
+                "{\"id\":\"imp-n2\",\"title\":\"Retén ilegal\",\"credibility\":\"SIX\","
+                        + "\"location\":{\"lat\":4.90,\"lon\":-74.30},\"eventTimestamp\":\"2026-10-19T08:30:00Z\"}",
+                "{\"id\":\"imp-bad-lat\",\"title\":\"Fuera de rango\",\"lat\":95,\"lon\":-74.08}",
+                // Second batch: imp-n2 is already in the table
+                "{\"id\":\"imp-n2\",\"title\":\"Retén ilegal (reenvío)\",\"lat\":4.90,\"lon\":-74.30}",
+                "{\"id\":\"imp-bad-cred\",\"title\":\"Credibilidad\",\"credibility\":\"7\",\"lat\":4.6,\"lon\":-74}",
+                "{\"id\":\"imp-n3\",\"title\":\"Francotirador\",\"lat\":5.20,\"lon\":-73.90}",
+                // Third batch: the same id twice, the first one wins
+                "{\"id\":\"imp-n4\",\"title\":\"Campo minado\",\"lat\":5.50,\"lon\":-73.50}",
+                "{\"id\":\"imp-n4\",\"title\":\"Campo minado (copia)\",\"lat\":5.50,\"lon\":-73.50}");
+
+        IntelImportResultDTO result = importService.importReports(stream(body), IntelImportService.Format.NDJSON,
+                null);
+
+        assertEquals(10, result.getReceived());
+        assertEquals(4, result.getImported());
+        assertEquals(4, result.getInvalid());
+        assertEquals(2, result.getDuplicates());
+        assertEquals(3, result.getBatches());
+        assertEquals(List.of("Registro 2: JSON inválido", "Registro 3: título requerido",
+                "Registro 5: ubicación fuera de rango", "Registro 7: credibilidad inválido: 7"), result.getErrors());
+        // One event per batch that inserted something
+        assertEquals(List.of(2, 1, 1), events.stream(IntelReportsIngestedEvent.class)
+                .map(event -> event.getReports().size()).toList());
+
+        IntelligenceReport n1 = reportRepository.findById("imp-n1").orElseThrow();
+        assertEquals(IntelligenceSourceType.HUMINT, n1.getType());
+        assertEquals(IntelligenceReliability.B, n1.getReliability());
+        assertEquals(IntelligenceCredibility.TWO, n1.getCredibility());
+        assertEquals(1760000000000L, n1.getEventTimestamp());
+        assertEquals(Set.of("IED", "Explosivos"), keywords("imp-n1"));
+
+        IntelligenceReport n2 = reportRepository.findById("imp-n2").orElseThrow();
+        assertEquals("Retén ilegal", n2.getTitle());
+        assertEquals(IntelligenceCredibility.SIX, n2.getCredibility());
+        assertEquals(Instant.parse("2026-10-19T08:30:00Z").toEpochMilli(), n2.getEventTimestamp());
+        assertEquals(4.90, n2.getLocation().getLat(), 1e-9);
+        assertEquals("Campo minado", reportRepository.findById("imp-n4").orElseThrow().getTitle());
+        assertFalse(reportRepository.existsById("imp-bad-cred"));
+    }
+
+    @Test
+    void importsCsvAndSkipsExistingIds() throws IOException {
+        IntelligenceReport existing = new IntelligenceReport();
+        existing.setId("imp-existing");
+        existing.setTitle("Ya existe");
+        existing.setLocation(new GeoLocation(3.0, -76.0));
+        reportRepository.save(existing);
+
+        String body = String.join("\n",
+                "id,title,type,reliability,credibility,lat,lon,eventTimestamp,keywords",
+                "imp-c1,Movimiento de tropas,HUMINT,A,1,4.70,-74.10,1760000000000,tropas;movimiento",
+                "imp-c2,,HUMINT,A,1,4.71,-74.10,,",
+                "imp-c3,Retén en la vía,SIGINT,C,3,\"4,72\",-74.10,2026-10-19T08:30:00Z,retén;;vía",
+                "imp-existing,Ya existe (reenvío),HUMINT,A,1,3.0,-76.0,,",
+                "imp-c4,Sin ubicación,HUMINT,A,1,,,,",
+                "imp-c5,Fecha inválida,HUMINT,A,1,4.80,-74.10,ayer,",
+                "imp-c6,Mando sin credibilidad,IMINT,F,,4.90,-74.10,,");
+
+        IntelImportResultDTO result = importService.importReports(stream(body), IntelImportService.Format.CSV,
+                "unit-import");
+
+        assertEquals(7, result.getReceived());
+        assertEquals(3, result.getImported());
+        assertEquals(3, result.getInvalid());
+        assertEquals(1, result.getDuplicates());
+        assertEquals(2, result.getBatches());
+        assertEquals(List.of("Registro 2: título requerido", "Registro 5: ubicación requerida (lat, lon)",
+                "Registro 6: eventTimestamp no es una fecha válida"), result.getErrors());
+        assertEquals(List.of(2, 1), events.stream(IntelReportsIngestedEvent.class)
+                .map(event -> event.getReports().size()).toList());
+
+        IntelligenceReport c3 = reportRepository.findById("imp-c3").orElseThrow();
+        assertEquals(4.72, c3.getLocation().getLat(), 1e-9);
+        assertEquals(IntelligenceCredibility.THREE, c3.getCredibility());
+        assertEquals("unit-import", c3.getReportingUnitId());
+        assertEquals(Set.of("retén", "vía"), keywords("imp-c3"));
+        assertNull(reportRepository.findById("imp-c6").orElseThrow().getCredibility());
+        assertEquals("Ya existe", reportRepository.findById("imp-existing").orElseThrow().getTitle());
+    }
+
+    private Set<String> keywords(String reportId) {
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT keywords FROM intelligence_report_keywords WHERE intelligence_report_id = ?", String.class,
+                reportId));
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
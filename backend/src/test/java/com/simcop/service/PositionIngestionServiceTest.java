@@ -0,0 +1,108 @@
+package com.simcop.service;
+
+import com.simcop.dto.PositionIngestStatsDTO;
+import com.simcop.dto.PositionReportDTO;
+import com.simcop.model.embeddable.RoutePoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PositionIngestionServiceTest {
+
+    private PositionIngestionService ingestion;
+    private JdbcTemplate jdbcTemplate;
+    private RouteHistoryService routeHistoryService;
+    private boolean databaseDown;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ingestion = new PositionIngestionService(mock(PlatformTransactionManager.class), 1000);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        routeHistoryService = mock(RouteHistoryService.class);
+        ReflectionTestUtils.setField(ingestion, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(ingestion, "routeHistoryService", routeHistoryService);
+        ReflectionTestUtils.setField(ingestion, "publisher", mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(ingestion, "messagingTemplate", mock(SimpMessagingTemplate.class));
+        ReflectionTestUtils.setField(ingestion, "maxFlushSize", 50);
+        ReflectionTestUtils.setField(ingestion, "maxFlushRetries", 3);
+
+        // Every unit row exists and is updated
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class))).thenAnswer(invocation -> {
+                    if (databaseDown)
+                        throw new TransientDataAccessResourceException("Connection lost");
+                    int[] counts = new int[invocation.<Collection<?>>getArgument(1).size()];
+                    Arrays.fill(counts, 1);
+                    return new int[][] { counts };
+                });
+        when(routeHistoryService.appendAll(anyMap())).thenAnswer(invocation -> invocation
+                .<Map<String, List<RoutePoint>>>getArgument(0).values().stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    void failedFlushKeepsTheBatchForTheNextOne() {
+        ingestion.submit(reports("a", 0, 30));
+        databaseDown = true;
+        ingestion.flush();
+        // More reports arrive while the batch waits
+        ingestion.submit(reports("b", 0, 80));
+        ingestion.flush();
+        PositionIngestStatsDTO stats = ingestion.getStats();
+        assertEquals(2, stats.getFailedFlushes());
+        assertEquals(30, stats.getRetryDepth());
+        assertEquals(80, stats.getQueueDepth(), "the queue is left alone while the database fails");
+        assertEquals(0, stats.getWritten());
+
+        databaseDown = false;
+        ingestion.flush();
+        stats = ingestion.getStats();
+        assertEquals(110, stats.getWritten());
+        assertEquals(0, stats.getRetryDepth());
+        assertEquals(0, stats.getQueueDepth());
+        assertEquals(0, stats.getDropped());
+
+        // The failed batch went first, then the queue in max-flush-size chunks
+        ArgumentCaptor<Map<String, List<RoutePoint>>> routes = ArgumentCaptor.forClass(Map.class);
+        verify(routeHistoryService, times(3)).appendAll(routes.capture());
+        assertEquals(Set.of("a"), routes.getAllValues().get(0).keySet());
+        assertEquals(30, routes.getAllValues().get(0).get("a").size());
+    }
+
+    @Test
+    void batchIsDroppedAfterMaxRetries() {
+        ingestion.submit(reports("a", 0, 30));
+        databaseDown = true;
+        for (int i = 0; i < 4; i++)
+            ingestion.flush();
+        PositionIngestStatsDTO stats = ingestion.getStats();
+        assertEquals(30, stats.getDropped());
+        assertEquals(0, stats.getRetryDepth());
+
+        // The next flush moves on to the queue
+        ingestion.submit(reports("b", 0, 10));
+        databaseDown = false;
+        ingestion.flush();
+        assertEquals(10, ingestion.getStats().getWritten());
+    }
+
+    private static List<PositionReportDTO> reports(String unitId, long from, int count) {
+        List<PositionReportDTO> reports = new ArrayList<>();
+        for (int i = 0; i < count; i++)
+            reports.add(new PositionReportDTO(unitId, 4.6 + i * 1e-4, -74.08, from + i * 1000L));
+        return reports;
+    }
+}
@@ -0,0 +1,86 @@
+package com.simcop.service;
+
+import com.simcop.model.MilitaryUnit;
+import com.simcop.model.UnitRoutePoint;
+import com.simcop.model.embeddable.RoutePoint;
+import com.simcop.repository.UnitRoutePointRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class RouteHistoryServiceTest {
+
+    private static final long HOUR_MS = 3600_000L;
+
+    @Autowired
+    private RouteHistoryService routeHistoryService;
+
+    @Autowired
+    private UnitRoutePointRepository pointRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void coldTailsForAUnitListLoadInTwoQueries() {
+        long now = System.currentTimeMillis();
+        List<UnitRoutePoint> rows = new ArrayList<>();
+        // A: more fresh points than the tail keeps
+        for (int i = 0; i < 80; i++)
+            rows.add(new UnitRoutePoint("route-test-A", 4.0 + i * 1e-4, -74.0, now - i * 1000L));
+        // B: a few fresh points, the rest old enough to be compacted into a segment
+        for (int i = 0; i < 5; i++)
+            rows.add(new UnitRoutePoint("route-test-B", 5.0, -74.0 + i * 1e-4, now - i * 1000L));
+        for (int i = 0; i < 30; i++)
+            rows.add(new UnitRoutePoint("route-test-B", 5.1, -74.0 + i * 1e-4, now - 48 * HOUR_MS - i * 1000L));
+        pointRepository.saveAll(rows);
+        routeHistoryService.compact();
+
+        List<MilitaryUnit> units = new ArrayList<>();
+        for (String id : List.of("route-test-A", "route-test-B", "route-test-C")) {
+            MilitaryUnit unit = new MilitaryUnit();
+            unit.setId(id);
+            units.add(unit);
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        routeHistoryService.withRecentRoutes(units);
+        assertEquals(2, statistics.getPrepareStatementCount(), "one point query and one segment query");
+
+        List<RoutePoint> a = units.get(0).getRouteHistory();
+        assertEquals(RouteHistoryService.RECENT_POINTS, a.size());
+        assertEquals(now, a.get(0).getTimestamp());
+        assertNewestFirst(a);
+
+        List<RoutePoint> b = units.get(1).getRouteHistory();
+        assertEquals(35, b.size());
+        assertEquals(now, b.get(0).getTimestamp());
+        assertEquals(now - 48 * HOUR_MS, b.get(5).getTimestamp());
+        assertNewestFirst(b);
+
+        assertTrue(units.get(2).getRouteHistory().isEmpty());
+
+        // Warm now: no further queries
+        statistics.clear();
+        routeHistoryService.withRecentRoutes(units);
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    private static void assertNewestFirst(List<RoutePoint> points) {
+        for (int i = 1; i < points.size(); i++)
+            assertTrue(points.get(i - 1).getTimestamp() > points.get(i).getTimestamp());
+    }
+}
@@ -0,0 +1,84 @@
+package com.simcop.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AhoCorasickMatcherTest {
+
+    @Test
+    void findsAnyPatternAsSubstring() {
+        AhoCorasickMatcher matcher = AhoCorasickMatcher.of(List.of("explosivos", "minas"));
+        assertTrue(matcher.matchesAny("desactivacion de explosivos"));
+        assertTrue(matcher.matchesAny("contraexplosivos"));
+        assertTrue(matcher.matchesAny("campo de minas"));
+        assertFalse(matcher.matchesAny("explosivo"));
+        assertFalse(matcher.matchesAny(""));
+        assertFalse(matcher.matchesAny(null));
+    }
+
+    @Test
+    void overlappingAndNestedPatterns() {
+        // "he" inside "she", "hers" sharing a prefix with "her": classic failure-link cases
+        AhoCorasickMatcher matcher = AhoCorasickMatcher.of(List.of("he", "she", "his", "hers"));
+        assertTrue(matcher.matchesAny("ushers"));
+        assertTrue(matcher.matchesAny("xsh e the"));
+        assertFalse(matcher.matchesAny("hi s"));
+
+        // The match is only reachable through a failure link: "abcd" fails into "bce"
+        AhoCorasickMatcher suffix = AhoCorasickMatcher.of(List.of("abcd", "bce"));
+        assertTrue(suffix.matchesAny("abce"));
+        assertFalse(suffix.matchesAny("abcx"));
+
+        AhoCorasickMatcher repeated = AhoCorasickMatcher.of(List.of("aab"));
+        assertTrue(repeated.matchesAny("aaab"));
+    }
+
+    @Test
+    void nonAsciiCharactersArePartOfTheAlphabet() {
+        AhoCorasickMatcher matcher = AhoCorasickMatcher.of(List.of("niño", "antiaérea"));
+        assertTrue(matcher.matchesAny("defensa antiaérea"));
+        assertFalse(matcher.matchesAny("defensa antiaerea"));
+        assertTrue(matcher.matchesAny("el niño"));
+        assertFalse(matcher.matchesAny("el nino"));
+    }
+
+    @Test
+    void emptyPatternsNeverMatch() {
+        AhoCorasickMatcher matcher = AhoCorasickMatcher.of(Arrays.asList("", null));
+        assertTrue(matcher.isEmpty());
+        assertFalse(matcher.matchesAny("cualquier texto"));
+        assertFalse(AhoCorasickMatcher.of(List.of()).matchesAny("texto"));
+    }
+
+    @Test
+    void patternsDoNotMatchAcrossSeparator() {
+        String joined = TextNormalizer.normalizeJoined(List.of("Contra", "Explosivos"));
+        assertEquals("contra|explosivos", joined);
+        assertFalse(AhoCorasickMatcher.of(List.of("contraexplosivos", "contra explosivos")).matchesAny(joined));
+        assertTrue(AhoCorasickMatcher.of(List.of("explosivos")).matchesAny(joined));
+    }
+
+    @Test
+    void agreesWithContainsOnRandomInput() {
+        Random random = new Random(13);
+        String alphabet = "abcñé |";
+        for (int round = 0; round < 2000; round++) {
+            List<String> patterns = new ArrayList<>();
+            for (int p = 0; p < 1 + random.nextInt(5); p++)
+                patterns.add(randomText(random, alphabet.substring(0, 5), 1 + random.nextInt(4)));
+            String text = randomText(random, alphabet, random.nextInt(30));
+            boolean expected = patterns.stream().anyMatch(text::contains);
+            assertEquals(expected, AhoCorasickMatcher.of(patterns).matchesAny(text), patterns + " in " + text);
+        }
+    }
+
+    private static String randomText(Random random, String alphabet, int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++)
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        return text.toString();
+    }
+}
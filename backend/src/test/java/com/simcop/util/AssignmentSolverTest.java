@@ -0,0 +1,96 @@
+package com.simcop.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AssignmentSolverTest {
+
+    private static final double INFEASIBLE = 1e9;
+
+    @Test
+    void squareMatrixWithKnownOptimum() {
+        double[][] cost = {
+                { 4, 1, 3 },
+                { 2, 0, 5 },
+                { 3, 2, 2 } };
+        int[] match = AssignmentSolver.solve(cost);
+        assertArrayEquals(new int[] { 1, 0, 2 }, match);
+        assertEquals(5, total(cost, match));
+    }
+
+    @Test
+    void rectangularMatrixLeavesColumnsFree() {
+        double[][] cost = {
+                { 10, 3, 8, 9 },
+                { 7, 4, 2, 6 } };
+        int[] match = AssignmentSolver.solve(cost);
+        assertArrayEquals(new int[] { 1, 2 }, match);
+    }
+
+    @Test
+    void avoidsInfeasibleCellsWhenAFeasibleMatchingExists() {
+        // Row 0 can only take column 0; the greedy choice for row 1 would block it
+        double[][] cost = {
+                { 5, INFEASIBLE, INFEASIBLE },
+                { 1, 4, INFEASIBLE },
+                { INFEASIBLE, 2, 3 } };
+        int[] match = AssignmentSolver.solve(cost);
+        assertArrayEquals(new int[] { 0, 1, 2 }, match);
+        assertEquals(12, total(cost, match));
+    }
+
+    @Test
+    void handlesNegativeCosts() {
+        // Maximizing scores through negated costs, as the batch recommendations do
+        double[][] cost = {
+                { -90, -80 },
+                { -85, -10 } };
+        assertArrayEquals(new int[] { 1, 0 }, AssignmentSolver.solve(cost));
+    }
+
+    @Test
+    void emptyAndInvalidInput() {
+        assertEquals(0, AssignmentSolver.solve(new double[0][0]).length);
+        assertThrows(IllegalArgumentException.class, () -> AssignmentSolver.solve(new double[][] { { 1 }, { 2 } }));
+    }
+
+    @Test
+    void matchesBruteForceOnRandomRectangularMatrices() {
+        Random random = new Random(5);
+        for (int round = 0; round < 200; round++) {
+            int n = 1 + random.nextInt(5), m = n + random.nextInt(3);
+            double[][] cost = new double[n][m];
+            for (double[] row : cost) {
+                for (int j = 0; j < m; j++)
+                    row[j] = random.nextDouble() < 0.15 ? INFEASIBLE : random.nextInt(100);
+            }
+            int[] match = AssignmentSolver.solve(cost);
+            assertEquals(n, Arrays.stream(match).distinct().count(), "columns must be distinct");
+            assertEquals(bruteForce(cost, 0, new boolean[m]), total(cost, match), 1e-9);
+        }
+    }
+
+    private static double bruteForce(double[][] cost, int row, boolean[] used) {
+        if (row == cost.length)
+            return 0;
+        double best = Double.POSITIVE_INFINITY;
+        for (int j = 0; j < used.length; j++) {
+            if (used[j])
+                continue;
+            used[j] = true;
+            best = Math.min(best, cost[row][j] + bruteForce(cost, row + 1, used));
+            used[j] = false;
+        }
+        return best;
+    }
+
+    private static double total(double[][] cost, int[] match) {
+        double sum = 0;
+        for (int i = 0; i < match.length; i++)
+            sum += cost[i][match[i]];
+        return sum;
+    }
+}
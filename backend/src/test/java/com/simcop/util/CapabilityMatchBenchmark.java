@@ -0,0 +1,129 @@
+package com.simcop.util;
+
+import com.simcop.model.MilitaryUnit;
+import com.simcop.service.CapabilityDictionaryService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Timing of the BMA capability-match step: the previous nested
+ * toLowerCase/contains loop against the normalized capability dictionary plus
+ * a per-threat Aho-Corasick matcher, over the same units and threats.
+ *
+ * Run: mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest=CapabilityMatchBenchmark
+ */
+@Tag("benchmark")
+class CapabilityMatchBenchmark {
+
+    private static final String[] CAPABILITIES = {
+            "Contraexplosivos", "Desminado humanitario", "Fuerzas especiales", "Asalto aéreo",
+            "Operaciones nocturnas", "Francotiradores", "Guerra en montaña", "Operaciones fluviales",
+            "Inteligencia de combate", "Reconocimiento de largo alcance", "Comunicaciones satelitales",
+            "Defensa antiaérea", "Apoyo de fuegos indirectos", "Morteros 81mm", "Morteros 120mm",
+            "Ingenieros de combate", "Sanidad en combate", "Evacuación aeromédica", "Guerra electrónica",
+            "Control de disturbios", "Operaciones psicológicas", "Antisecuestro y antiextorsión",
+            "Interdicción marítima", "Operaciones en selva", "Vehículos blindados", "Caballería mecanizada",
+            "Policía militar", "Drones tácticos", "Búsqueda y rescate", "Contrainsurgencia",
+            "Protección de infraestructura", "Escolta de convoyes", "Control de área", "Combate urbano",
+            "Buceo táctico", "Paracaidismo", "Logística avanzada", "Transporte pesado",
+            "Observadores adelantados", "Desactivación de artefactos explosivos" };
+
+    private static final String[] KEYWORDS = {
+            "explosivos", "EXPLOSIVO", "minas", "desminado", "emboscada", "francotirador", "montaña",
+            "fluvial", "río", "secuestro", "extorsión", "blindado", "dron", "drones", "urbano", "selva",
+            "convoy", "convoyes", "rescate", "antiaérea", "helicóptero", "nocturna", "insurgencia",
+            "infraestructura", "oleoducto", "torre", "marítima", "Combate", "morteros", "artefacto" };
+
+    @Test
+    void matchThreatsAgainstUnits() {
+        int unitCount = 3000;
+        int threatCount = 500;
+        Random random = new Random(7);
+
+        List<MilitaryUnit> units = new ArrayList<>();
+        for (int i = 0; i < unitCount; i++) {
+            MilitaryUnit unit = new MilitaryUnit();
+            unit.setId("U" + i);
+            List<String> capabilities = new ArrayList<>();
+            int count = 4 + random.nextInt(9);
+            for (int c = 0; c < count; c++) {
+                capabilities.add(CAPABILITIES[random.nextInt(CAPABILITIES.length)]);
+            }
+            unit.setCapabilities(capabilities);
+            units.add(unit);
+        }
+        List<List<String>> threats = new ArrayList<>();
+        for (int i = 0; i < threatCount; i++) {
+            List<String> keywords = new ArrayList<>();
+            int count = 3 + random.nextInt(8);
+            for (int k = 0; k < count; k++) {
+                keywords.add(KEYWORDS[random.nextInt(KEYWORDS.length)]);
+            }
+            threats.add(keywords);
+        }
+
+        // Units are normalized when saved; here, once up front
+        CapabilityDictionaryService dictionary = new CapabilityDictionaryService();
+        units.forEach(dictionary::update);
+
+        for (int warmup = 0; warmup < 3; warmup++) {
+            runNestedLoop(units, threats);
+            runMatcher(units, threats, dictionary);
+        }
+
+        long start = System.nanoTime();
+        long nestedMatches = runNestedLoop(units, threats);
+        long nestedNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        long matcherMatches = runMatcher(units, threats, dictionary);
+        long matcherNanos = System.nanoTime() - start;
+
+        System.out.println("Units: " + unitCount + " (4-12 capabilities), threats: " + threatCount
+                + " (3-10 keywords)");
+        System.out.printf("Nested toLowerCase/contains: %.3f ms per threat, %d unit matches%n",
+                nestedNanos / 1e6 / threatCount, nestedMatches);
+        System.out.printf("Dictionary + Aho-Corasick:   %.3f ms per threat, %d unit matches%n",
+                matcherNanos / 1e6 / threatCount, matcherMatches);
+        // The accent-folded matcher also finds e.g. "antiaerea" in "Defensa antiaérea"
+        System.out.println("Extra accent/case-insensitive matches: " + (matcherMatches - nestedMatches));
+        assertTrue(matcherMatches >= nestedMatches, "the folded matcher must find every plain substring match");
+    }
+
+    private static long runNestedLoop(List<MilitaryUnit> units, List<List<String>> threats) {
+        long matches = 0;
+        for (List<String> keywords : threats) {
+            for (MilitaryUnit unit : units) {
+                boolean match = false;
+                for (String cap : unit.getCapabilities()) {
+                    for (String key : keywords) {
+                        if (cap.toLowerCase().contains(key.toLowerCase())) {
+                            match = true;
+                            break;
+                        }
+                    }
+                }
+                if (match)
+                    matches++;
+            }
+        }
+        return matches;
+    }
+
+    private static long runMatcher(List<MilitaryUnit> units, List<List<String>> threats,
+            CapabilityDictionaryService dictionary) {
+        long matches = 0;
+        for (List<String> keywords : threats) {
+            AhoCorasickMatcher matcher = AhoCorasickMatcher.of(TextNormalizer.normalizeAll(keywords));
+            for (MilitaryUnit unit : units) {
+                if (matcher.matchesAny(dictionary.normalizedCapabilities(unit)))
+                    matches++;
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,73 @@
+package com.simcop.util;
+
+import com.simcop.dto.FireMissionAssignmentPlanDTO;
+import com.simcop.model.AmmoType;
+import com.simcop.model.ArtilleryPiece;
+import com.simcop.model.ArtilleryStatus;
+import com.simcop.model.FireMission;
+import com.simcop.model.embeddable.AmmoStock;
+import com.simcop.model.embeddable.GeoLocation;
+import com.simcop.service.FireMissionAssignmentService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Timing of FireMissionAssignmentService.solve for a surge of pending
+ * missions against a brigade's worth of artillery.
+ *
+ * Run: mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest=FireMissionAssignmentBenchmark
+ */
+@Tag("benchmark")
+class FireMissionAssignmentBenchmark {
+
+    @Test
+    void solveSurge() {
+        int missionCount = 500;
+        int pieceCount = 120;
+        Random random = new Random(7);
+
+        List<ArtilleryPiece> pieces = new ArrayList<>();
+        for (int i = 0; i < pieceCount; i++) {
+            ArtilleryPiece piece = new ArtilleryPiece();
+            piece.setId("P" + i);
+            piece.setName("Pieza " + i);
+            piece.setStatus(random.nextDouble() < 0.85 ? ArtilleryStatus.READY : ArtilleryStatus.MAINTENANCE);
+            piece.setLocation(new GeoLocation(3.0 + random.nextDouble() * 2.0, -75.0 + random.nextDouble() * 2.0));
+            piece.setMinRange(1000 + random.nextInt(2000));
+            piece.setMaxRange(12000 + random.nextInt(18000));
+            piece.setAmmunition(new ArrayList<>(List.of(
+                    new AmmoStock(AmmoType.HE, random.nextInt(20)),
+                    new AmmoStock(AmmoType.SMOKE, random.nextInt(5)))));
+            pieces.add(piece);
+        }
+
+        List<FireMission> missions = new ArrayList<>();
+        for (int i = 0; i < missionCount; i++) {
+            FireMission mission = new FireMission();
+            mission.setId("M" + i);
+            mission.setTargetLocation(new GeoLocation(3.0 + random.nextDouble() * 2.0,
+                    -75.0 + random.nextDouble() * 2.0));
+            mission.setProjectileType(random.nextDouble() < 0.8 ? "HE" : "SMOKE");
+            missions.add(mission);
+        }
+
+        FireMissionAssignmentService service = new FireMissionAssignmentService();
+        for (int warmup = 0; warmup < 3; warmup++) {
+            service.solve(missions, pieces, Map.of());
+        }
+
+        long start = System.nanoTime();
+        FireMissionAssignmentPlanDTO plan = service.solve(missions, pieces, Map.of());
+        long elapsed = System.nanoTime() - start;
+
+        System.out.println("Missions: " + missionCount + ", pieces: " + pieceCount);
+        System.out.println("Assigned: " + plan.getAssignments().size() + ", unassigned: "
+                + plan.getUnassignedMissionIds().size());
+        System.out.printf("Solve time: %.2f ms%n", elapsed / 1e6);
+        assertEquals(missionCount, plan.getAssignments().size() + plan.getUnassignedMissionIds().size());
+    }
+}
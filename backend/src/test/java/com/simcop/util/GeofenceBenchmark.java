@@ -0,0 +1,89 @@
+package com.simcop.util;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Timing of the geofence watch: cost of one unit position update
+ * and of one new threat zone against the index, with the units and zones
+ * spread over the Colombian theatre. For comparison it also times the
+ * previous approach, a distance check from the moved unit to every zone.
+ *
+ * Run: mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest=GeofenceBenchmark
+ */
+@Tag("benchmark")
+class GeofenceBenchmark {
+
+    @Test
+    void unitUpdatesAndNewZones() {
+        int unitCount = 10_000;
+        int zoneCount = 1_000;
+        int updates = 200_000;
+        Random random = new Random(7);
+
+        GeofenceIndex<Integer> index = new GeofenceIndex<>();
+        List<GeofenceIndex.Zone<Integer>> zones = new ArrayList<>();
+        for (int i = 0; i < zoneCount; i++) {
+            // Hotspots (5 km) and report areas (2 km)
+            GeofenceIndex.Zone<Integer> zone = new GeofenceIndex.Zone<>("Z" + i, -4.0 + random.nextDouble() * 16.0,
+                    -79.0 + random.nextDouble() * 12.0, i % 4 == 0 ? 5.0 : 2.0, i);
+            zones.add(zone);
+            index.putZone(zone);
+        }
+        double[][] positions = new double[unitCount][];
+        for (int i = 0; i < unitCount; i++) {
+            positions[i] = new double[] { -4.0 + random.nextDouble() * 16.0, -79.0 + random.nextDouble() * 12.0 };
+            index.moveUnit("U" + i, positions[i][0], positions[i][1]);
+        }
+
+        // Warm-up, then measured runs of the same movement pattern (about 100 m steps)
+        long entries = 0;
+        for (int round = 0; round < 2; round++) {
+            entries = 0;
+            long start = System.nanoTime();
+            for (int u = 0; u < updates; u++) {
+                int i = random.nextInt(unitCount);
+                positions[i][0] += (random.nextDouble() - 0.5) * 0.002;
+                positions[i][1] += (random.nextDouble() - 0.5) * 0.002;
+                entries += index.moveUnit("U" + i, positions[i][0], positions[i][1]).size();
+            }
+            long nanos = System.nanoTime() - start;
+            if (round == 1) {
+                System.out.printf("Units: %d, zones: %d%n", unitCount, zoneCount);
+                System.out.printf("Indexed unit update:   %.2f us per update, %d zone entries%n",
+                        nanos / 1e3 / updates, entries);
+            }
+        }
+
+        long start = System.nanoTime();
+        long inside = 0;
+        for (int u = 0; u < updates; u++) {
+            double[] p = positions[random.nextInt(unitCount)];
+            for (GeofenceIndex.Zone<Integer> zone : zones) {
+                if (GeoUtils.calculateDistanceKm(p[0], p[1], zone.getLat(), zone.getLon()) <= zone.getRadiusKm())
+                    inside++;
+            }
+        }
+        System.out.printf("Scan of every zone:    %.2f us per update (%d inside)%n",
+                (System.nanoTime() - start) / 1e3 / updates, inside);
+
+        int newZones = 10_000;
+        start = System.nanoTime();
+        long alerted = 0;
+        for (int i = 0; i < newZones; i++) {
+            alerted += index.putZone(new GeofenceIndex.Zone<>("N" + i, -4.0 + random.nextDouble() * 16.0,
+                    -79.0 + random.nextDouble() * 12.0, 2.0, i)).size();
+            index.removeZone("N" + i);
+        }
+        System.out.printf("New 2 km threat zone:  %.2f us per zone, %d units inside%n",
+                (System.nanoTime() - start) / 1e3 / newZones, alerted);
+
+        // Units that did not move enter nothing new
+        for (int i = 0; i < unitCount; i++)
+            assertTrue(index.moveUnit("U" + i, positions[i][0], positions[i][1]).isEmpty());
+    }
+}
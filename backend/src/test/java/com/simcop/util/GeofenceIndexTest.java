@@ -0,0 +1,121 @@
+package com.simcop.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeofenceIndexTest {
+
+    // About 1.1 km per 0.01 degrees near the equator
+    private static GeofenceIndex.Zone<String> zone(String id, double lat, double lon, double radiusKm) {
+        return new GeofenceIndex.Zone<>(id, lat, lon, radiusKm, id);
+    }
+
+    private static List<String> ids(List<GeofenceIndex.Zone<String>> zones) {
+        List<String> ids = new ArrayList<>();
+        for (GeofenceIndex.Zone<String> zone : zones)
+            ids.add(zone.getId());
+        Collections.sort(ids);
+        return ids;
+    }
+
+    @Test
+    void moveUnitReportsOnlyZonesJustEntered() {
+        GeofenceIndex<String> index = new GeofenceIndex<>();
+        index.putZone(zone("A", 4.60, -74.08, 2.0));
+        index.putZone(zone("B", 4.62, -74.08, 2.0));
+
+        assertEquals(List.of("A"), ids(index.moveUnit("u", 4.59, -74.08)));
+        // Still inside A, now also inside B
+        assertEquals(List.of("B"), ids(index.moveUnit("u", 4.61, -74.08)));
+        assertEquals(List.of(), ids(index.moveUnit("u", 4.61, -74.081)));
+        // Leaves A, stays in B; coming back into A is a new entry
+        assertEquals(List.of(), ids(index.moveUnit("u", 4.635, -74.08)));
+        assertEquals(List.of("A"), ids(index.moveUnit("u", 4.61, -74.08)));
+        // Far away, then back into both
+        assertEquals(List.of(), ids(index.moveUnit("u", 5.5, -73.0)));
+        assertEquals(List.of("A", "B"), ids(index.moveUnit("u", 4.61, -74.08)));
+    }
+
+    @Test
+    void putZoneReportsOnlyUnitsNewlyInside() {
+        GeofenceIndex<String> index = new GeofenceIndex<>();
+        index.moveUnit("near", 4.60, -74.08);
+        index.moveUnit("mid", 4.63, -74.08);
+        index.moveUnit("far", 4.80, -74.08);
+
+        assertEquals(List.of("near"), sorted(index.putZone(zone("Z", 4.60, -74.08, 2.0))));
+        // Same zone again: nobody new
+        assertEquals(List.of(), index.putZone(zone("Z", 4.60, -74.08, 2.0)));
+        // Grown: only the unit that was outside
+        assertEquals(List.of("mid"), sorted(index.putZone(zone("Z", 4.60, -74.08, 4.0))));
+        // Moved away from near and mid, over far
+        assertEquals(List.of("far"), sorted(index.putZone(zone("Z", 4.80, -74.08, 2.0))));
+        // Moved back: near and mid left it, so they enter again
+        assertEquals(List.of("mid", "near"), sorted(index.putZone(zone("Z", 4.60, -74.08, 4.0))));
+        // A unit entering a zone it is already linked to by putZone is not reported by moveUnit
+        assertEquals(List.of(), ids(index.moveUnit("near", 4.601, -74.08)));
+    }
+
+    @Test
+    void removeZoneUnlinksItsUnits() {
+        GeofenceIndex<String> index = new GeofenceIndex<>();
+        index.moveUnit("u", 4.60, -74.08);
+        assertEquals(List.of("u"), index.putZone(zone("Z", 4.60, -74.08, 2.0)));
+
+        index.removeZone("Z");
+        assertNull(index.getZone("Z"));
+        assertTrue(index.getZones().isEmpty());
+        assertEquals(List.of(), ids(index.moveUnit("u", 4.601, -74.08)));
+        // Re-added with the same id, the unit is a new entry and not a stale link
+        assertEquals(List.of("u"), index.putZone(zone("Z", 4.60, -74.08, 2.0)));
+    }
+
+    @Test
+    void removeUnitUnlinksItsZones() {
+        GeofenceIndex<String> index = new GeofenceIndex<>();
+        index.putZone(zone("Z", 4.60, -74.08, 2.0));
+        assertEquals(List.of("Z"), ids(index.moveUnit("u", 4.60, -74.08)));
+
+        index.removeUnit("u");
+        assertEquals(0, index.unitCount());
+        assertEquals(List.of(), index.putZone(zone("Z", 4.60, -74.08, 2.0)));
+        assertEquals(List.of("Z"), ids(index.moveUnit("u", 4.60, -74.08)));
+    }
+
+    @Test
+    void entriesMatchABruteForceScan() {
+        Random random = new Random(5);
+        GeofenceIndex<String> index = new GeofenceIndex<>();
+        List<GeofenceIndex.Zone<String>> zones = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            GeofenceIndex.Zone<String> zone = zone("Z" + i, 4.0 + random.nextDouble() * 0.5,
+                    -74.0 + random.nextDouble() * 0.5, 1.0 + random.nextDouble() * 4.0);
+            zones.add(zone);
+            index.putZone(zone);
+        }
+        Set<String> inside = new HashSet<>();
+        double lat = 4.25, lon = -73.75;
+        for (int step = 0; step < 5000; step++) {
+            lat += (random.nextDouble() - 0.5) * 0.02;
+            lon += (random.nextDouble() - 0.5) * 0.02;
+            Set<String> now = new HashSet<>();
+            for (GeofenceIndex.Zone<String> zone : zones) {
+                if (GeoUtils.calculateDistanceKm(lat, lon, zone.getLat(), zone.getLon()) <= zone.getRadiusKm())
+                    now.add(zone.getId());
+            }
+            Set<String> expected = new TreeSet<>(now);
+            expected.removeAll(inside);
+            assertEquals(new ArrayList<>(expected), ids(index.moveUnit("u", lat, lon)), "step " + step);
+            inside = now;
+        }
+    }
+
+    private static List<String> sorted(List<String> ids) {
+        List<String> copy = new ArrayList<>(ids);
+        Collections.sort(copy);
+        return copy;
+    }
+}
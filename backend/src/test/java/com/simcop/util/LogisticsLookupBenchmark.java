@@ -0,0 +1,114 @@
+package com.simcop.util;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Benchmark for the nearest-support-unit lookup used by
+ * BMAService.predictLogistics: the old per-unit full scan vs. one spatial index
+ * built once. Only the in-memory part is measured; the old code additionally
+ * reloaded the whole units table for every low-supply unit.
+ *
+ * Run: mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest=LogisticsLookupBenchmark
+ */
+@Tag("benchmark")
+class LogisticsLookupBenchmark {
+
+    private static final int UNIT_COUNT = 5000;
+
+    private static final class Unit {
+        final String id;
+        final double lat;
+        final double lon;
+        final boolean support;
+        final boolean lowSupply;
+
+        Unit(String id, double lat, double lon, boolean support, boolean lowSupply) {
+            this.id = id;
+            this.lat = lat;
+            this.lon = lon;
+            this.support = support;
+            this.lowSupply = lowSupply;
+        }
+    }
+
+    @Test
+    void indexedLookupMatchesFullScan() {
+        int unitCount = UNIT_COUNT;
+        Random random = new Random(42);
+
+        List<Unit> units = new ArrayList<>();
+        for (int i = 0; i < unitCount; i++) {
+            // Roughly the Colombian theatre
+            double lat = -4.0 + random.nextDouble() * 16.0;
+            double lon = -79.0 + random.nextDouble() * 12.0;
+            units.add(new Unit("U" + i, lat, lon, random.nextDouble() < 0.08, random.nextDouble() < 0.3));
+        }
+        List<Unit> lowSupply = units.stream().filter(u -> u.lowSupply).toList();
+
+        System.out.println("Units: " + unitCount + ", low supply: " + lowSupply.size() + ", support: "
+                + units.stream().filter(u -> u.support).count());
+
+        for (int warmup = 0; warmup < 3; warmup++) {
+            naive(units, lowSupply);
+            indexed(units, lowSupply);
+        }
+
+        long t0 = System.nanoTime();
+        String[] naive = naive(units, lowSupply);
+        long t1 = System.nanoTime();
+        String[] indexed = indexed(units, lowSupply);
+        long t2 = System.nanoTime();
+
+        int mismatches = 0;
+        for (int i = 0; i < naive.length; i++) {
+            if (naive[i] == null ? indexed[i] != null : !naive[i].equals(indexed[i]))
+                mismatches++;
+        }
+
+        System.out.printf("Full scan per unit : %8.2f ms%n", (t1 - t0) / 1e6);
+        System.out.printf("Spatial index      : %8.2f ms%n", (t2 - t1) / 1e6);
+        assertEquals(0, mismatches, "Indexed lookup must pick the same support unit as the full scan");
+    }
+
+    private static String[] naive(List<Unit> units, List<Unit> lowSupply) {
+        String[] result = new String[lowSupply.size()];
+        for (int i = 0; i < lowSupply.size(); i++) {
+            Unit unit = lowSupply.get(i);
+            Unit best = null;
+            double bestDist = Double.MAX_VALUE;
+            for (Unit candidate : units) {
+                if (!candidate.support || candidate.id.equals(unit.id))
+                    continue;
+                double d = GeoUtils.calculateDistanceKm(unit.lat, unit.lon, candidate.lat, candidate.lon);
+                if (d < bestDist) {
+                    bestDist = d;
+                    best = candidate;
+                }
+            }
+            result[i] = best != null ? best.id : null;
+        }
+        return result;
+    }
+
+    private static String[] indexed(List<Unit> units, List<Unit> lowSupply) {
+        SpatialGrid<Unit> index = new SpatialGrid<>(0.5);
+        for (Unit unit : units) {
+            if (unit.support)
+                index.put(unit.id, unit.lat, unit.lon, unit);
+        }
+        String[] result = new String[lowSupply.size()];
+        for (int i = 0; i < lowSupply.size(); i++) {
+            Unit unit = lowSupply.get(i);
+            SpatialGrid.Entry<Unit> best = index.nearest(unit.lat, unit.lon, e -> !e.getId().equals(unit.id));
+            result[i] = best != null ? best.getId() : null;
+        }
+        return result;
+    }
+}
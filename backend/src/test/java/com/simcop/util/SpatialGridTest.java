@@ -0,0 +1,104 @@
+package com.simcop.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the grid queries against a brute-force scan of the same points.
+ */
+class SpatialGridTest {
+
+    private final Random random = new Random(11);
+    private final Map<String, double[]> points = new HashMap<>();
+    private SpatialGrid<Integer> grid;
+
+    @BeforeEach
+    void setUp() {
+        grid = new SpatialGrid<>(0.25);
+        for (int i = 0; i < 2000; i++) {
+            double[] point = { -4.0 + random.nextDouble() * 16.0, -79.0 + random.nextDouble() * 12.0 };
+            points.put("P" + i, point);
+            grid.put("P" + i, point[0], point[1], i);
+        }
+    }
+
+    @Test
+    void nearestMatchesBruteForce() {
+        for (int q = 0; q < 500; q++) {
+            double lat = -6.0 + random.nextDouble() * 20.0, lon = -81.0 + random.nextDouble() * 16.0;
+            SpatialGrid.Entry<Integer> nearest = grid.nearest(lat, lon, e -> e.getValue() % 3 != 0);
+            String expected = null;
+            double best = Double.MAX_VALUE;
+            for (Map.Entry<String, double[]> point : points.entrySet()) {
+                if (Integer.parseInt(point.getKey().substring(1)) % 3 == 0)
+                    continue;
+                double d = GeoUtils.calculateDistanceKm(lat, lon, point.getValue()[0], point.getValue()[1]);
+                if (d < best) {
+                    best = d;
+                    expected = point.getKey();
+                }
+            }
+            assertNotNull(nearest);
+            assertEquals(best, GeoUtils.calculateDistanceKm(lat, lon, nearest.getLat(), nearest.getLon()), 1e-9,
+                    "nearest to " + lat + "," + lon + " expected " + expected);
+        }
+    }
+
+    @Test
+    void withinRadiusMatchesBruteForce() {
+        for (int q = 0; q < 200; q++) {
+            double lat = -4.0 + random.nextDouble() * 16.0, lon = -79.0 + random.nextDouble() * 12.0;
+            double radiusKm = 5 + random.nextDouble() * 95;
+            Set<String> expected = new HashSet<>();
+            for (Map.Entry<String, double[]> point : points.entrySet()) {
+                if (GeoUtils.calculateDistanceKm(lat, lon, point.getValue()[0], point.getValue()[1]) <= radiusKm)
+                    expected.add(point.getKey());
+            }
+            assertEquals(expected, ids(grid.withinRadius(lat, lon, radiusKm)));
+        }
+    }
+
+    @Test
+    void withinBoundsMatchesBruteForce() {
+        for (int q = 0; q < 200; q++) {
+            double lat0 = -4.0 + random.nextDouble() * 16.0, lon0 = -79.0 + random.nextDouble() * 12.0;
+            double lat1 = lat0 + random.nextDouble() * 3, lon1 = lon0 + random.nextDouble() * 3;
+            Set<String> expected = new HashSet<>();
+            for (Map.Entry<String, double[]> point : points.entrySet()) {
+                double[] p = point.getValue();
+                if (p[0] >= lat0 && p[0] <= lat1 && p[1] >= lon0 && p[1] <= lon1)
+                    expected.add(point.getKey());
+            }
+            assertEquals(expected, ids(grid.withinBounds(lat0, lon0, lat1, lon1)));
+        }
+    }
+
+    @Test
+    void movedAndRemovedEntriesAreReindexed() {
+        grid.put("P1", 50.0, 50.0, 1);
+        grid.remove("P2");
+        assertEquals(1999, grid.size());
+        assertEquals(Set.of("P1"), ids(grid.withinRadius(50.0, 50.0, 1.0)));
+        assertNull(grid.get("P2"));
+        double[] old = points.get("P1");
+        assertFalse(ids(grid.withinRadius(old[0], old[1], 0.001)).contains("P1"));
+        assertEquals("P1", grid.nearest(49.0, 49.0, e -> true).getId());
+    }
+
+    @Test
+    void emptyGridReturnsNothing() {
+        SpatialGrid<Integer> empty = new SpatialGrid<>(1.0);
+        assertNull(empty.nearest(4.6, -74.1, e -> true));
+        assertTrue(empty.withinRadius(4.6, -74.1, 100).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new SpatialGrid<Integer>(0));
+    }
+
+    private static Set<String> ids(List<SpatialGrid.Entry<Integer>> entries) {
+        return entries.stream().map(SpatialGrid.Entry::getId).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,47 @@
+package com.simcop.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextNormalizerTest {
+
+    @Test
+    void foldsCaseAccentsAndPunctuation() {
+        assertEquals("contraexplosivos", TextNormalizer.normalize("CONTRAEXPLOSIVOS "));
+        assertEquals("defensa antiaerea", TextNormalizer.normalize("Defensa  Antiaérea"));
+        assertEquals("contra explosivos", TextNormalizer.normalize("contra-explosivos"));
+        assertEquals("nino", TextNormalizer.normalize("Niño"));
+        assertEquals("morteros 81mm", TextNormalizer.normalize("  Morteros (81mm) "));
+        assertEquals("", TextNormalizer.normalize(null));
+        assertEquals("", TextNormalizer.normalize(" - "));
+    }
+
+    @Test
+    void precomposedAndDecomposedAccentsAgree() {
+        assertEquals(TextNormalizer.normalize("Acción"), TextNormalizer.normalize("Acción"));
+    }
+
+    @Test
+    void neverProducesTheSeparator() {
+        assertEquals("a b", TextNormalizer.normalize("a|b"));
+        assertFalse(TextNormalizer.normalize("x | y || z").indexOf(TextNormalizer.SEPARATOR) >= 0);
+    }
+
+    @Test
+    void normalizeAllDropsEmptyEntries() {
+        assertEquals(List.of("ied", "explosivos"),
+                TextNormalizer.normalizeAll(Arrays.asList(" IED ", "", null, "Explosivos", "--")));
+        assertTrue(TextNormalizer.normalizeAll(null).isEmpty());
+    }
+
+    @Test
+    void normalizeJoinedSeparatesEntries() {
+        assertEquals("asalto aereo|francotiradores",
+                TextNormalizer.normalizeJoined(List.of("Asalto Aéreo", " ", "Francotiradores")));
+        assertEquals("", TextNormalizer.normalizeJoined(List.of()));
+    }
+}